@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * An in-memory HSQLDB blog database shared by all the threads of a benchmark.
+ */
+@State(Scope.Benchmark)
+public class BlogDatabase {
+
+  public static final int AUTHOR_COUNT = 1000;
+  public static final int POSTS_PER_AUTHOR = 10;
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/benchmark/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/benchmark/CreateDB.sql");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      BlogMapper mapper = sqlSession.getMapper(BlogMapper.class);
+      for (int i = 1; i <= AUTHOR_COUNT; i++) {
+        mapper.insertAuthor(newAuthor(i));
+        for (int j = 0; j < POSTS_PER_AUTHOR; j++) {
+          mapper.insertPost(newPost((i - 1) * POSTS_PER_AUTHOR + j + 1, i));
+        }
+      }
+      sqlSession.commit();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource()).forceCloseAll();
+  }
+
+  public SqlSessionFactory getSqlSessionFactory() {
+    return sqlSessionFactory;
+  }
+
+  public static Author newAuthor(int id) {
+    Author author = new Author();
+    author.setId(id);
+    author.setUsername("author" + id);
+    author.setEmail("author" + id + "@example.com");
+    author.setBio("Bio of author " + id);
+    return author;
+  }
+
+  public static Post newPost(int id, int authorId) {
+    Post post = new Post();
+    post.setId(id);
+    post.setAuthorId(authorId);
+    post.setSubject("Subject " + id);
+    post.setBody("Body of post " + id + " written by author " + authorId);
+    return post;
+  }
+
+}
@@ -0,0 +1,76 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering a statement made of where, if, foreach and choose elements, alone and followed by its execution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DynamicSqlBenchmark {
+
+  private static final List<Integer> AUTHOR_IDS = Arrays.asList(3, 14, 15, 92, 65, 35, 89, 79);
+
+  private MappedStatement findPosts;
+  private Map<String, Object> parameters;
+
+  @Setup
+  public void setUp(BlogDatabase database) {
+    findPosts = database.getSqlSessionFactory().getConfiguration()
+        .getMappedStatement("org.apache.ibatis.benchmark.BlogMapper.findPosts");
+    parameters = new HashMap<>();
+    parameters.put("subject", "Subject%");
+    parameters.put("authorIds", AUTHOR_IDS);
+    parameters.put("descending", true);
+  }
+
+  @Benchmark
+  public BoundSql render() {
+    return findPosts.getBoundSql(parameters);
+  }
+
+  @Benchmark
+  public List<Post> renderAndExecute(BlogDatabase database) {
+    try (SqlSession sqlSession = database.getSqlSessionFactory().openSession()) {
+      return sqlSession.getMapper(BlogMapper.class).findPosts("Subject%", AUTHOR_IDS, true);
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a statement going through DefaultSqlSession, CachingExecutor, SimpleExecutor, PreparedStatementHandler and
+ * DefaultResultSetHandler. Each invocation opens its own session, so only the second level cache can serve a query
+ * twice.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementExecutionBenchmark {
+
+  private static final int AUTHORS_PER_PAGE = 20;
+  private static final int BATCH_SIZE = 100;
+
+  @Benchmark
+  public Author selectOne(BlogDatabase database) {
+    try (SqlSession sqlSession = database.getSqlSessionFactory().openSession()) {
+      return sqlSession.getMapper(BlogMapper.class).selectAuthor(randomAuthorId());
+    }
+  }
+
+  @Benchmark
+  public Author selectOneCached(BlogDatabase database) {
+    try (SqlSession sqlSession = database.getSqlSessionFactory().openSession()) {
+      // a small set of ids that stays in the second level cache after the first iterations
+      return sqlSession.getMapper(BlogMapper.class).selectCachedAuthor(randomAuthorId() % 100 + 1);
+    }
+  }
+
+  @Benchmark
+  public List<Author> selectListAutoMapped(BlogDatabase database) {
+    int from = randomAuthorId();
+    try (SqlSession sqlSession = database.getSqlSessionFactory().openSession()) {
+      return sqlSession.getMapper(BlogMapper.class).selectAuthorsAutoMapped(from, from + AUTHORS_PER_PAGE - 1);
+    }
+  }
+
+  @Benchmark
+  public List<Author> selectListNested(BlogDatabase database) {
+    int from = randomAuthorId();
+    try (SqlSession sqlSession = database.getSqlSessionFactory().openSession()) {
+      return sqlSession.getMapper(BlogMapper.class).selectAuthorsWithPosts(from, from + AUTHORS_PER_PAGE - 1);
+    }
+  }
+
+  @Benchmark
+  public void streamCursor(BlogDatabase database, Blackhole blackhole) throws Exception {
+    try (SqlSession sqlSession = database.getSqlSessionFactory().openSession();
+        Cursor<Post> posts = sqlSession.getMapper(BlogMapper.class).selectPosts()) {
+      for (Post post : posts) {
+        blackhole.consume(post);
+      }
+    }
+  }
+
+  @Benchmark
+  public void batchInsert(BlogDatabase database, Blackhole blackhole) {
+    int authorId = randomAuthorId();
+    int firstId = BlogDatabase.AUTHOR_COUNT * BlogDatabase.POSTS_PER_AUTHOR + 1;
+    // rolled back on close, so the table does not grow between invocations
+    try (SqlSession sqlSession = database.getSqlSessionFactory().openSession(ExecutorType.BATCH)) {
+      BlogMapper mapper = sqlSession.getMapper(BlogMapper.class);
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        mapper.insertPost(BlogDatabase.newPost(firstId + i, authorId));
+      }
+      blackhole.consume(sqlSession.flushStatements());
+    }
+  }
+
+  private static int randomAuthorId() {
+    return ThreadLocalRandom.current().nextInt(BlogDatabase.AUTHOR_COUNT - AUTHORS_PER_PAGE) + 1;
+  }
+
+}
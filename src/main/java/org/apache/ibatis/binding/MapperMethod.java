@@ -33,10 +33,12 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Clinton Begin
@@ -62,6 +64,14 @@ public class MapperMethod {
      * @return
      */
     public Object execute(SqlSession sqlSession, Object[] args) {
+        if (method.returnsFuture()) {
+            // the calling session is not thread safe, so each call runs in a session and transaction of its own
+            return sqlSession.executeAsync(session -> executeSync(session, args));
+        }
+        return executeSync(sqlSession, args);
+    }
+
+    private Object executeSync(SqlSession sqlSession, Object[] args) {
         Object result;
         switch (command.getType()) {
             case INSERT: {
@@ -286,6 +296,7 @@ public class MapperMethod {
         private final boolean returnsVoid;
         private final boolean returnsCursor;
         private final boolean returnsOptional;
+        private final boolean returnsFuture;
         private final Class<?> returnType;
         private final String mapKey;
         private final Integer resultHandlerIndex;
@@ -294,18 +305,31 @@ public class MapperMethod {
 
         public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
             Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+            this.returnsFuture = CompletableFuture.class.equals(method.getReturnType());
+            if (this.returnsFuture) {
+                // the statement is mapped to the type the future completes with
+                resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+                        ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+                if (resolvedReturnType instanceof WildcardType) {
+                    resolvedReturnType = ((WildcardType) resolvedReturnType).getUpperBounds()[0];
+                }
+            }
             if (resolvedReturnType instanceof Class<?>) {
                 this.returnType = (Class<?>) resolvedReturnType;
             } else if (resolvedReturnType instanceof ParameterizedType) {
                 this.returnType = (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType();
             } else {
-                this.returnType = method.getReturnType();
+                this.returnType = this.returnsFuture ? Object.class : method.getReturnType();
             }
-            this.returnsVoid = void.class.equals(this.returnType);
+            this.returnsVoid = void.class.equals(this.returnType) || (this.returnsFuture && Void.class.equals(this.returnType));
             this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
             this.returnsCursor = Cursor.class.equals(this.returnType);
             this.returnsOptional = Optional.class.equals(this.returnType);
-            this.mapKey = getMapKey(method);
+            if (this.returnsFuture && this.returnsCursor) {
+                throw new BindingException(method.getName() + " cannot return a Cursor in a CompletableFuture"
+                        + " because the session it was opened with is closed when the future completes");
+            }
+            this.mapKey = getMapKey(method, this.returnType);
             this.returnsMap = this.mapKey != null;
             this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
             this.resultHandlerIndex = getUniqueParamIndex(method, ResultHandler.class);
@@ -367,6 +391,16 @@ public class MapperMethod {
             return returnsOptional;
         }
 
+        /**
+         * return whether return type is {@code java.util.concurrent.CompletableFuture}.
+         *
+         * @return return {@code true}, if return type is {@code java.util.concurrent.CompletableFuture}
+         * @since 3.5.6
+         */
+        public boolean returnsFuture() {
+            return returnsFuture;
+        }
+
         private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
             Integer index = null;
             final Class<?>[] argTypes = method.getParameterTypes();
@@ -386,9 +420,9 @@ public class MapperMethod {
             return mapKey;
         }
 
-        private String getMapKey(Method method) {
+        private String getMapKey(Method method, Class<?> returnType) {
             String mapKey = null;
-            if (Map.class.isAssignableFrom(method.getReturnType())) {
+            if (Map.class.isAssignableFrom(returnType)) {
                 final MapKey mapKeyAnnotation = method.getAnnotation(MapKey.class);
                 if (mapKeyAnnotation != null) {
                     mapKey = mapKeyAnnotation.value();
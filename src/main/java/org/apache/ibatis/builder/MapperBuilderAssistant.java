@@ -283,7 +283,8 @@ public class MapperBuilderAssistant extends BaseBuilder {
             String keyColumn,
             String databaseId,
             LanguageDriver lang,
-            String resultSets) {
+            String resultSets,
+            Integer slowQueryThreshold) {
 
         if (unresolvedCacheRef) {
             throw new IncompleteElementException("Cache-ref not yet resolved");
@@ -296,6 +297,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
                 .resource(resource)
                 .fetchSize(fetchSize)
                 .timeout(timeout)
+                .slowQueryThreshold(slowQueryThreshold)
                 .statementType(statementType)
                 .keyGenerator(keyGenerator)
                 .keyProperty(keyProperty)
@@ -320,6 +322,43 @@ public class MapperBuilderAssistant extends BaseBuilder {
         return statement;
     }
 
+    /**
+     * Backward compatibility signature 'addMappedStatement'.
+     *
+     * @param id             the id
+     * @param sqlSource      the sql source
+     * @param statementType  the statement type
+     * @param sqlCommandType the sql command type
+     * @param fetchSize      the fetch size
+     * @param timeout        the timeout
+     * @param parameterMap   the parameter map
+     * @param parameterType  the parameter type
+     * @param resultMap      the result map
+     * @param resultType     the result type
+     * @param resultSetType  the result set type
+     * @param flushCache     the flush cache
+     * @param useCache       the use cache
+     * @param resultOrdered  the result ordered
+     * @param keyGenerator   the key generator
+     * @param keyProperty    the key property
+     * @param keyColumn      the key column
+     * @param databaseId     the database id
+     * @param lang           the lang
+     * @param resultSets     the result sets
+     * @return the mapped statement
+     */
+    public MappedStatement addMappedStatement(String id, SqlSource sqlSource, StatementType statementType,
+                                              SqlCommandType sqlCommandType, Integer fetchSize, Integer timeout, String parameterMap, Class<?> parameterType,
+                                              String resultMap, Class<?> resultType, ResultSetType resultSetType, boolean flushCache, boolean useCache,
+                                              boolean resultOrdered, KeyGenerator keyGenerator, String keyProperty, String keyColumn, String databaseId,
+                                              LanguageDriver lang, String resultSets) {
+        return addMappedStatement(
+                id, sqlSource, statementType, sqlCommandType, fetchSize, timeout,
+                parameterMap, parameterType, resultMap, resultType, resultSetType,
+                flushCache, useCache, resultOrdered, keyGenerator, keyProperty,
+                keyColumn, databaseId, lang, resultSets, null);
+    }
+
     /**
      * Backward compatibility signature 'addMappedStatement'.
      *
@@ -353,7 +392,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
                 id, sqlSource, statementType, sqlCommandType, fetchSize, timeout,
                 parameterMap, parameterType, resultMap, resultType, resultSetType,
                 flushCache, useCache, resultOrdered, keyGenerator, keyProperty,
-                keyColumn, databaseId, lang, null);
+                keyColumn, databaseId, lang, null, null);
     }
 
     private <T> T valueOrDefault(T value, T defaultValue) {
@@ -49,6 +49,17 @@ public class SqlSourceBuilder extends BaseBuilder {
      * @return
      */
     public SqlSource parse(String originalSql, Class<?> parameterType, Map<String, Object> additionalParameters) {
+        return parse(originalSql, parameterType, additionalParameters, false);
+    }
+
+    /**
+     * @param shareParameterBinders
+     *          whether the returned source is kept and used again
+     * @since 3.5.6
+     * @see StaticSqlSource#StaticSqlSource(Configuration, String, List, boolean)
+     */
+    public SqlSource parse(String originalSql, Class<?> parameterType, Map<String, Object> additionalParameters,
+            boolean shareParameterBinders) {
         ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(configuration, parameterType, additionalParameters);
         GenericTokenParser parser = new GenericTokenParser("#{", "}", handler);
         String sql;
@@ -57,7 +68,7 @@ public class SqlSourceBuilder extends BaseBuilder {
         } else {
             sql = parser.parse(originalSql);
         }
-        return new StaticSqlSource(configuration, sql, handler.getParameterMappings());
+        return new StaticSqlSource(configuration, sql, handler.getParameterMappings(), shareParameterBinders);
     }
 
     public static String removeExtraWhitespaces(String original) {
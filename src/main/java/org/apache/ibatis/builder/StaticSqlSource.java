@@ -16,10 +16,13 @@
 package org.apache.ibatis.builder;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.ParameterBinder;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -30,20 +33,33 @@ public class StaticSqlSource implements SqlSource {
   private final String sql;
   private final List<ParameterMapping> parameterMappings;
   private final Configuration configuration;
+  private final Map<Class<?>, ParameterBinder> parameterBinders;
 
   public StaticSqlSource(Configuration configuration, String sql) {
     this(configuration, sql, null);
   }
 
   public StaticSqlSource(Configuration configuration, String sql, List<ParameterMapping> parameterMappings) {
+    this(configuration, sql, parameterMappings, false);
+  }
+
+  /**
+   * @param shareParameterBinders
+   *          whether the source is kept and used again, so that the parameter binders compiled for its bound SQLs are
+   *          worth sharing
+   * @since 3.5.6
+   */
+  public StaticSqlSource(Configuration configuration, String sql, List<ParameterMapping> parameterMappings,
+      boolean shareParameterBinders) {
     this.sql = sql;
     this.parameterMappings = parameterMappings;
     this.configuration = configuration;
+    this.parameterBinders = shareParameterBinders ? new ConcurrentHashMap<>() : null;
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    return new BoundSql(configuration, sql, parameterMappings, parameterObject);
+    return new BoundSql(configuration, sql, parameterMappings, parameterObject, parameterBinders);
   }
 
 }
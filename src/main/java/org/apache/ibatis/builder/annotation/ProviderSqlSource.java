@@ -154,7 +154,8 @@ public class ProviderSqlSource implements SqlSource {
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
     SqlSource sqlSource = createSqlSource(parameterObject);
-    return sqlSource.getBoundSql(parameterObject);
+    // the SQL source is created for this call only, so binders compiled for it would never be used again
+    return sqlSource.getBoundSql(parameterObject).withoutParameterBinders();
   }
 
   private SqlSource createSqlSource(Object parameterObject) {
@@ -20,6 +20,7 @@ import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
@@ -33,6 +34,7 @@ import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+import org.apache.ibatis.scripting.xmltags.ExpressionEngine;
 import org.apache.ibatis.session.*;
 import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.type.JdbcType;
@@ -385,6 +387,20 @@ public class XMLConfigBuilder extends BaseBuilder {
         configuration.setLogPrefix(props.getProperty("logPrefix"));
         configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
         configuration.setShrinkWhitespacesInSql(booleanValueOf(props.getProperty("shrinkWhitespacesInSql"), false));
+        configuration.setCompileRowMappers(booleanValueOf(props.getProperty("compileRowMappers"), false));
+        configuration.setDynamicSqlCacheSize(integerValueOf(props.getProperty("dynamicSqlCacheSize"), 32));
+        configuration.setExpressionEngine((ExpressionEngine) createInstance(props.getProperty("expressionEngine")));
+        configuration.setBatchGrouping(booleanValueOf(props.getProperty("batchGrouping"), false));
+        configuration.setBatchFlushRows(integerValueOf(props.getProperty("batchFlushRows"), null));
+        configuration.setBatchFlushBytes(integerValueOf(props.getProperty("batchFlushBytes"), null));
+        configuration.setStreamNestedCursorResults(booleanValueOf(props.getProperty("streamNestedCursorResults"), false));
+        configuration.setParallelResultMapping(booleanValueOf(props.getProperty("parallelResultMapping"), false));
+        configuration.setStatementLogSampleRate(integerValueOf(props.getProperty("statementLogSampleRate"), 1));
+        configuration.setStatementLogResultSets(booleanValueOf(props.getProperty("statementLogResultSets"), true));
+        configuration.setStatementMetrics((StatementMetrics) createInstance(props.getProperty("statementMetrics")));
+        configuration.setSlowQueryThreshold(integerValueOf(props.getProperty("slowQueryThreshold"), null));
+        configuration.setSlowQueryRedactParameters(booleanValueOf(props.getProperty("slowQueryRedactParameters"), false));
+        configuration.setSlowQueryLogSize(integerValueOf(props.getProperty("slowQueryLogSize"), 100));
         configuration.setDefaultSqlProviderType(resolveClass(props.getProperty("defaultSqlProviderType")));
     }
 
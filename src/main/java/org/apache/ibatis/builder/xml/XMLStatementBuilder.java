@@ -98,6 +98,7 @@ public class XMLStatementBuilder extends BaseBuilder {
         StatementType statementType = StatementType.valueOf(context.getStringAttribute("statementType", StatementType.PREPARED.toString()));
         Integer fetchSize = context.getIntAttribute("fetchSize");
         Integer timeout = context.getIntAttribute("timeout");
+        Integer slowQueryThreshold = context.getIntAttribute("slowQueryThreshold");
         String parameterMap = context.getStringAttribute("parameterMap");
         String resultType = context.getStringAttribute("resultType");
         Class<?> resultTypeClass = resolveClass(resultType);
@@ -114,7 +115,7 @@ public class XMLStatementBuilder extends BaseBuilder {
         builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
                 fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
                 resultSetTypeEnum, flushCache, useCache, resultOrdered,
-                keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets);
+                keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, slowQueryThreshold);
     }
 
     private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
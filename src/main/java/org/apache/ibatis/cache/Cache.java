@@ -101,4 +101,15 @@ public interface Cache {
         return null;
     }
 
+    /**
+     * Optional. Returns the statistics of this cache. Decorators return the statistics of their delegate, or create
+     * them if the delegate has none and they record something themselves.
+     *
+     * @return The statistics, or null if this cache does not record any
+     * @since 3.5.6
+     */
+    default CacheStats getStats() {
+        return null;
+    }
+
 }
@@ -18,8 +18,7 @@ package org.apache.ibatis.cache;
 import org.apache.ibatis.reflection.ArrayUtil;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.StringJoiner;
 
 /**
@@ -30,7 +29,7 @@ import java.util.StringJoiner;
  */
 public class CacheKey implements Cloneable, Serializable {
 
-    private static final long serialVersionUID = 1146682552656046210L;
+    private static final long serialVersionUID = 1146682552656046211L;
 
     public static final CacheKey NULL_CACHE_KEY = new CacheKey() {
 
@@ -47,6 +46,8 @@ public class CacheKey implements Cloneable, Serializable {
 
     private static final int DEFAULT_MULTIPLIER = 37;
     private static final int DEFAULT_HASHCODE = 17;
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final Object[] EMPTY_UPDATES = {};
 
     private final int multiplier;
     private int hashcode;
@@ -54,7 +55,8 @@ public class CacheKey implements Cloneable, Serializable {
     private int count;
     // 8/21/2017 - Sonarlint flags this as needing to be marked transient. While true if content is not serializable, this
     // is not always true and thus should not be marked transient.
-    private List<Object> updateList;
+    // Only the first count elements are used, the array grows on demand.
+    private Object[] updates;
 
     /**
      * mybatis的缓存key的生成策略
@@ -63,16 +65,30 @@ public class CacheKey implements Cloneable, Serializable {
         this.hashcode = DEFAULT_HASHCODE;
         this.multiplier = DEFAULT_MULTIPLIER;
         this.count = 0;
-        this.updateList = new ArrayList<>();
+        this.updates = EMPTY_UPDATES;
     }
 
-    public CacheKey(Object[] objects) {
+    /**
+     * Creates a key sized for the expected number of updates, so that building it does not need to grow its storage.
+     *
+     * @param expectedUpdateCount
+     *          the expected number of calls to {@link #update(Object)}
+     * @since 3.5.6
+     */
+    public CacheKey(int expectedUpdateCount) {
         this();
+        if (expectedUpdateCount > 0) {
+            this.updates = new Object[expectedUpdateCount];
+        }
+    }
+
+    public CacheKey(Object[] objects) {
+        this(objects.length);
         updateAll(objects);
     }
 
     public int getUpdateCount() {
-        return updateList.size();
+        return count;
     }
 
     /**
@@ -90,7 +106,10 @@ public class CacheKey implements Cloneable, Serializable {
 
         hashcode = multiplier * hashcode + baseHashCode;
 
-        updateList.add(object);
+        if (count > updates.length) {
+            updates = Arrays.copyOf(updates, Math.max(DEFAULT_CAPACITY, updates.length << 1));
+        }
+        updates[count - 1] = object;
     }
 
     public void updateAll(Object[] objects) {
@@ -120,10 +139,11 @@ public class CacheKey implements Cloneable, Serializable {
             return false;
         }
 
-        for (int i = 0; i < updateList.size(); i++) {
-            Object thisObject = updateList.get(i);
-            Object thatObject = cacheKey.updateList.get(i);
-            if (!ArrayUtil.equals(thisObject, thatObject)) {
+        final Object[] thoseUpdates = cacheKey.updates;
+        for (int i = 0; i < count; i++) {
+            Object thisObject = updates[i];
+            Object thatObject = thoseUpdates[i];
+            if (thisObject != thatObject && !ArrayUtil.equals(thisObject, thatObject)) {
                 return false;
             }
         }
@@ -140,14 +160,17 @@ public class CacheKey implements Cloneable, Serializable {
         StringJoiner returnValue = new StringJoiner(":");
         returnValue.add(String.valueOf(hashcode));
         returnValue.add(String.valueOf(checksum));
-        updateList.stream().map(ArrayUtil::toString).forEach(returnValue::add);
+        for (int i = 0; i < count; i++) {
+            returnValue.add(ArrayUtil.toString(updates[i]));
+        }
         return returnValue.toString();
     }
 
     @Override
     public CacheKey clone() throws CloneNotSupportedException {
         CacheKey clonedCacheKey = (CacheKey) super.clone();
-        clonedCacheKey.updateList = new ArrayList<>(updateList);
+        // leave room for one more update, clones are usually extended with the key of a parent row
+        clonedCacheKey.updates = Arrays.copyOf(updates, count + 1);
         return clonedCacheKey;
     }
 
@@ -0,0 +1,164 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Statistics of a cache: hits, misses, puts, evictions, clears and the time spent loading missing values from the
+ * database.
+ * <p>
+ * One instance is shared by all the decorators of a cache, see {@link Cache#getStats()}. Counters are striped, so
+ * they can be updated by many threads at once without locking.
+ *
+ * @since 3.5.6
+ */
+public class CacheStats {
+
+  private final String id;
+  private final IntSupplier size;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder putCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final LongAdder clearCount = new LongAdder();
+  private final LongAdder loadCount = new LongAdder();
+  private final LongAdder totalLoadTime = new LongAdder();
+
+  /**
+   * @param id
+   *          the cache id
+   * @param size
+   *          returns the number of entries of the cache, can be null if it is not known
+   */
+  public CacheStats(String id, IntSupplier size) {
+    this.id = id;
+    this.size = size;
+  }
+
+  /**
+   * Returns the statistics of a cache, or new statistics reporting its size if it has none.
+   *
+   * @param cache
+   *          the cache
+   * @return the statistics to share with the cache
+   */
+  public static CacheStats forCache(Cache cache) {
+    CacheStats stats = cache.getStats();
+    return stats != null ? stats : new CacheStats(cache.getId(), cache::getSize);
+  }
+
+  public void recordHit() {
+    hitCount.increment();
+  }
+
+  public void recordMiss() {
+    missCount.increment();
+  }
+
+  public void recordPut() {
+    putCount.increment();
+  }
+
+  public void recordEvictions(int count) {
+    evictionCount.add(count);
+  }
+
+  /**
+   * Records that the whole cache was cleared. Entries dropped by a clear are not counted as evictions.
+   */
+  public void recordClear() {
+    clearCount.increment();
+  }
+
+  /**
+   * @param loadTime
+   *          the time in nanoseconds spent loading a value that was missing in the cache
+   */
+  public void recordLoad(long loadTime) {
+    loadCount.increment();
+    totalLoadTime.add(loadTime);
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getRequestCount() {
+    return getHitCount() + getMissCount();
+  }
+
+  public double getHitRatio() {
+    long hits = getHitCount();
+    long requests = hits + getMissCount();
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+
+  public long getPutCount() {
+    return putCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  public long getClearCount() {
+    return clearCount.sum();
+  }
+
+  public long getLoadCount() {
+    return loadCount.sum();
+  }
+
+  /**
+   * @return the total time in nanoseconds spent loading values that were missing in the cache
+   */
+  public long getTotalLoadTime() {
+    return totalLoadTime.sum();
+  }
+
+  /**
+   * @return the average time in nanoseconds spent loading a value that was missing in the cache
+   */
+  public double getAverageLoadPenalty() {
+    long loads = getLoadCount();
+    return loads == 0 ? 0.0 : (double) getTotalLoadTime() / loads;
+  }
+
+  /**
+   * @return the number of entries in the cache, or -1 if it is not known
+   */
+  public int getSize() {
+    return size == null ? -1 : size.getAsInt();
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats[" + id + "] hits=" + getHitCount() + ", misses=" + getMissCount() + ", puts=" + getPutCount()
+        + ", evictions=" + getEvictionCount() + ", clears=" + getClearCount() + ", loads=" + getLoadCount()
+        + ", totalLoadTime=" + getTotalLoadTime() + "ns, size=" + getSize();
+  }
+
+}
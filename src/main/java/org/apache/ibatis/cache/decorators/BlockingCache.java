@@ -21,6 +21,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.cache.CacheException;
 
 /**
@@ -54,6 +55,11 @@ public class BlockingCache implements Cache {
     return delegate.getSize();
   }
 
+  @Override
+  public CacheStats getStats() {
+    return delegate.getStats();
+  }
+
   @Override
   public void putObject(Object key, Object value) {
     try {
@@ -19,6 +19,7 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 
 /**
  * FIFO (first in, first out) cache decorator.
@@ -28,11 +29,13 @@ import org.apache.ibatis.cache.Cache;
 public class FifoCache implements Cache {
 
   private final Cache delegate;
+  private final CacheStats stats;
   private final Deque<Object> keyList;
   private int size;
 
   public FifoCache(Cache delegate) {
     this.delegate = delegate;
+    this.stats = CacheStats.forCache(delegate);
     this.keyList = new LinkedList<>();
     this.size = 1024;
   }
@@ -47,6 +50,11 @@ public class FifoCache implements Cache {
     return delegate.getSize();
   }
 
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
   public void setSize(int size) {
     this.size = size;
   }
@@ -78,6 +86,7 @@ public class FifoCache implements Cache {
     if (keyList.size() > size) {
       Object oldestKey = keyList.removeFirst();
       delegate.removeObject(oldestKey);
+      stats.recordEvictions(1);
     }
   }
 
@@ -1,5 +1,5 @@
 /**
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  * <p>
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package org.apache.ibatis.cache.decorators;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 
@@ -26,12 +27,24 @@ public class LoggingCache implements Cache {
 
     private final Log log;
     private final Cache delegate;
+    private final CacheStats stats;
+    /**
+     * @deprecated Use {@link CacheStats#getRequestCount()} of {@link #getStats()}, which is shared by the whole
+     *             decorator chain and safe to update from many threads
+     */
+    @Deprecated
     protected int requests = 0;
+    /**
+     * @deprecated Use {@link CacheStats#getHitCount()} of {@link #getStats()}, which is shared by the whole decorator
+     *             chain and safe to update from many threads
+     */
+    @Deprecated
     protected int hits = 0;
 
     public LoggingCache(Cache delegate) {
         this.delegate = delegate;
         this.log = LogFactory.getLog(getId());
+        this.stats = CacheStats.forCache(delegate);
     }
 
     @Override
@@ -44,6 +57,11 @@ public class LoggingCache implements Cache {
         return delegate.getSize();
     }
 
+    @Override
+    public CacheStats getStats() {
+        return stats;
+    }
+
     /**
      * 责任链模式 put的时候 其实什么都没做 交给SerializedCache
      * 但是在get的时候 会去计算缓存命中率
@@ -54,6 +72,7 @@ public class LoggingCache implements Cache {
     @Override
     public void putObject(Object key, Object object) {
         delegate.putObject(key, object);
+        stats.recordPut();
     }
 
     /**
@@ -68,6 +87,9 @@ public class LoggingCache implements Cache {
         final Object value = delegate.getObject(key);
         if (value != null) {
             hits++;
+            stats.recordHit();
+        } else {
+            stats.recordMiss();
         }
         if (log.isDebugEnabled()) {
             log.debug("Cache Hit Ratio [" + getId() + "]: " + getHitRatio());
@@ -83,6 +105,7 @@ public class LoggingCache implements Cache {
     @Override
     public void clear() {
         delegate.clear();
+        stats.recordClear();
     }
 
     @Override
@@ -103,7 +126,7 @@ public class LoggingCache implements Cache {
      * @return
      */
     private double getHitRatio() {
-        return (double) hits / (double) requests;
+        return stats.getHitRatio();
     }
 
 }
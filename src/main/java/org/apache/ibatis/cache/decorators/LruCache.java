@@ -16,6 +16,7 @@
 package org.apache.ibatis.cache.decorators;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -32,11 +33,13 @@ import java.util.Map;
 public class LruCache implements Cache {
 
     private final Cache delegate;
+    private final CacheStats stats;
     private Map<Object, Object> keyMap;
     private Object eldestKey;
 
     public LruCache(Cache delegate) {
         this.delegate = delegate;
+        this.stats = CacheStats.forCache(delegate);
         setSize(4); // // 设置 map 默认大小
     }
 
@@ -50,6 +53,11 @@ public class LruCache implements Cache {
         return delegate.getSize();
     }
 
+    @Override
+    public CacheStats getStats() {
+        return stats;
+    }
+
     /**
      * 使用LinkedHashMap ，这里面accessOrder设置为true 表示排序 每次如果取出key 那么将这个key排在最前面
      * 如果排在最后面 那么肯定就是很少使用了
@@ -127,6 +135,7 @@ public class LruCache implements Cache {
         // 从被装饰类中移除相应的缓存项
         if (eldestKey != null) {
             delegate.removeObject(eldestKey);
+            stats.recordEvictions(1);
             eldestKey = null;
         }
     }
@@ -18,6 +18,7 @@ package org.apache.ibatis.cache.decorators;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 
 /**
  * @author Clinton Begin
@@ -26,7 +27,7 @@ public class ScheduledCache implements Cache {
 
   private final Cache delegate;
   protected long clearInterval;
-  protected long lastClear;
+  protected volatile long lastClear;
 
   public ScheduledCache(Cache delegate) {
     this.delegate = delegate;
@@ -49,6 +50,11 @@ public class ScheduledCache implements Cache {
     return delegate.getSize();
   }
 
+  @Override
+  public CacheStats getStats() {
+    return delegate.getStats();
+  }
+
   @Override
   public void putObject(Object key, Object object) {
     clearWhenStale();
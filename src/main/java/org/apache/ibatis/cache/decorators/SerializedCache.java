@@ -16,6 +16,7 @@
 package org.apache.ibatis.cache.decorators;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.cache.CacheException;
 import org.apache.ibatis.io.Resources;
 
@@ -45,6 +46,11 @@ public class SerializedCache implements Cache {
         return delegate.getSize();
     }
 
+    @Override
+    public CacheStats getStats() {
+        return delegate.getStats();
+    }
+
     /**
      * 这里进行了序列化 目的是为了克隆一份新的value
      * Mybatis通过序列化得到对象的新实例，保证多线程安全。
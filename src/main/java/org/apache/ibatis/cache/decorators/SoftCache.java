@@ -21,6 +21,7 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 
 /**
  * Soft Reference cache decorator
@@ -32,10 +33,12 @@ public class SoftCache implements Cache {
   private final Deque<Object> hardLinksToAvoidGarbageCollection;
   private final ReferenceQueue<Object> queueOfGarbageCollectedEntries;
   private final Cache delegate;
+  private final CacheStats stats;
   private int numberOfHardLinks;
 
   public SoftCache(Cache delegate) {
     this.delegate = delegate;
+    this.stats = CacheStats.forCache(delegate);
     this.numberOfHardLinks = 256;
     this.hardLinksToAvoidGarbageCollection = new LinkedList<>();
     this.queueOfGarbageCollectedEntries = new ReferenceQueue<>();
@@ -52,6 +55,11 @@ public class SoftCache implements Cache {
     return delegate.getSize();
   }
 
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
   public void setSize(int size) {
     this.numberOfHardLinks = size;
   }
@@ -70,7 +78,9 @@ public class SoftCache implements Cache {
     if (softReference != null) {
       result = softReference.get();
       if (result == null) {
-        delegate.removeObject(key);
+        if (delegate.removeObject(key) != null) {
+          stats.recordEvictions(1);
+        }
       } else {
         // See #586 (and #335) modifications need more than a read lock
         synchronized (hardLinksToAvoidGarbageCollection) {
@@ -102,7 +112,9 @@ public class SoftCache implements Cache {
   private void removeGarbageCollectedItems() {
     SoftEntry sv;
     while ((sv = (SoftEntry) queueOfGarbageCollectedEntries.poll()) != null) {
-      delegate.removeObject(sv.key);
+      if (delegate.removeObject(sv.key) != null) {
+        stats.recordEvictions(1);
+      }
     }
   }
 
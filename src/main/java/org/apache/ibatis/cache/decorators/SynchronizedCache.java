@@ -16,6 +16,7 @@
 package org.apache.ibatis.cache.decorators;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 
 /**
  * 我们知道HashMap是线程不安全的，而我们上述分析的方法也没有看到任何加锁的逻辑，
@@ -45,6 +46,11 @@ public class SynchronizedCache implements Cache {
         return delegate.getSize();
     }
 
+    @Override
+    public CacheStats getStats() {
+        return delegate.getStats();
+    }
+
     /**
      * 责任链模式 第一个责任链 交给SynchronizedCache 保证了二级缓存是线程安全的
      * 下一个责任链是LoggingCache
@@ -16,6 +16,7 @@
 package org.apache.ibatis.cache.decorators;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 
@@ -76,6 +77,11 @@ public class TransactionalCache implements Cache {
         return delegate.getSize();
     }
 
+    @Override
+    public CacheStats getStats() {
+        return delegate.getStats();
+    }
+
     /**
      * 查询 如果clearOnCommit为true 表示当前TransactionalCache不可查询
      * <p>
@@ -21,6 +21,7 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 
 /**
  * Weak Reference cache decorator.
@@ -32,10 +33,12 @@ public class WeakCache implements Cache {
   private final Deque<Object> hardLinksToAvoidGarbageCollection;
   private final ReferenceQueue<Object> queueOfGarbageCollectedEntries;
   private final Cache delegate;
+  private final CacheStats stats;
   private int numberOfHardLinks;
 
   public WeakCache(Cache delegate) {
     this.delegate = delegate;
+    this.stats = CacheStats.forCache(delegate);
     this.numberOfHardLinks = 256;
     this.hardLinksToAvoidGarbageCollection = new LinkedList<>();
     this.queueOfGarbageCollectedEntries = new ReferenceQueue<>();
@@ -52,6 +55,11 @@ public class WeakCache implements Cache {
     return delegate.getSize();
   }
 
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
   public void setSize(int size) {
     this.numberOfHardLinks = size;
   }
@@ -70,7 +78,9 @@ public class WeakCache implements Cache {
     if (weakReference != null) {
       result = weakReference.get();
       if (result == null) {
-        delegate.removeObject(key);
+        if (delegate.removeObject(key) != null) {
+          stats.recordEvictions(1);
+        }
       } else {
         hardLinksToAvoidGarbageCollection.addFirst(result);
         if (hardLinksToAvoidGarbageCollection.size() > numberOfHardLinks) {
@@ -97,7 +107,9 @@ public class WeakCache implements Cache {
   private void removeGarbageCollectedItems() {
     WeakEntry sv;
     while ((sv = (WeakEntry) queueOfGarbageCollectedEntries.poll()) != null) {
-      delegate.removeObject(sv.key);
+      if (delegate.removeObject(sv.key) != null) {
+        stats.recordEvictions(1);
+      }
     }
   }
 
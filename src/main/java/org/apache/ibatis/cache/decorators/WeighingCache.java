@@ -0,0 +1,89 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+
+/**
+ * Weighs the values put into a {@link TinyLfuCache} before a decorator in between transforms them, so that a
+ * {@link SerializedCache} does not make the cache weigh serialized bytes instead of result rows.
+ *
+ * @since 3.5.6
+ */
+public class WeighingCache implements Cache {
+
+  private final Cache delegate;
+  private final TinyLfuCache weightedCache;
+
+  /**
+   * @param delegate
+   *          the decorated cache
+   * @param weightedCache
+   *          the cache the values end up in, decorated by {@code delegate}
+   */
+  public WeighingCache(Cache delegate, TinyLfuCache weightedCache) {
+    this.delegate = delegate;
+    this.weightedCache = weightedCache;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return delegate.getStats();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    weightedCache.putWithWeight(TinyLfuCache.weigh(value), () -> delegate.putObject(key, value));
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+}
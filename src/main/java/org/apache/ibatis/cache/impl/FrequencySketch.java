@@ -0,0 +1,109 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+/**
+ * A count-min sketch with four 4-bit counters per key that estimates how often keys were accessed.
+ * <p>
+ * Counters are halved once the number of recorded accesses reaches ten times the table size, so the estimate favours
+ * recent popularity. Updates are not synchronized; a lost increment only makes an estimate slightly lower, which the
+ * eviction policy tolerates.
+ *
+ * @since 3.5.6
+ */
+final class FrequencySketch {
+
+  private static final long[] SEED = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private volatile long[] table;
+  private int sampleSize;
+  private int additions;
+
+  FrequencySketch(int maximumSize) {
+    ensureCapacity(maximumSize);
+  }
+
+  void ensureCapacity(int maximumSize) {
+    int capacity = tableSizeFor(Math.max(maximumSize, 8));
+    long[] newTable = new long[capacity];
+    sampleSize = 10 * capacity;
+    additions = 0;
+    table = newTable;
+  }
+
+  int frequency(Object key) {
+    long[] counters = table;
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(counters, hash, i);
+      int count = (int) ((counters[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  void increment(Object key) {
+    long[] counters = table;
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(counters, indexOf(counters, hash, i), start + i);
+    }
+    if (added && ++additions >= sampleSize) {
+      reset(counters);
+    }
+  }
+
+  private boolean incrementAt(long[] counters, int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((counters[index] & mask) != mask) {
+      counters[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset(long[] counters) {
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = (counters[i] >>> 1) & RESET_MASK;
+    }
+    additions = additions >>> 1;
+  }
+
+  private static int indexOf(long[] counters, int hash, int i) {
+    long h = (hash + SEED[i]) * SEED[i];
+    h += h >>> 32;
+    return ((int) h) & (counters.length - 1);
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+  private static int tableSizeFor(int size) {
+    int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+    return capacity > 0 ? capacity : 1 << 30;
+  }
+
+}
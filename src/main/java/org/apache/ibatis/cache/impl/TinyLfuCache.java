@@ -0,0 +1,280 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheStats;
+
+/**
+ * A bounded cache that is safe for concurrent use without being wrapped in a synchronizing decorator.
+ * <p>
+ * Entries are kept in a {@link ConcurrentHashMap}, so reads never lock. Access frequencies are estimated by a
+ * {@link FrequencySketch}. When the cache exceeds its bounds, a few entries are sampled and the least frequently
+ * used of them, the least recently used on a tie, is evicted; a new entry that is less frequently used than that
+ * victim is dropped instead (TinyLFU admission), so a scan over rarely used keys does not flush popular ones. Only one
+ * thread evicts at a time, writers that find eviction in progress do not wait.
+ * <p>
+ * The cache is bounded by the number of entries ({@code size}, 1024 by default) and optionally by the total weight
+ * of the entries ({@code maxWeight}), where a collection, map or array weighs as much as its number of elements and
+ * any other value weighs 1. Values are weighed before a {@link org.apache.ibatis.cache.decorators.SerializedCache}
+ * serializes them, see {@link org.apache.ibatis.cache.decorators.WeighingCache}. Use it with
+ * {@code <cache eviction="TINY_LFU"/>}.
+ *
+ * @since 3.5.6
+ */
+public class TinyLfuCache implements Cache {
+
+  private static final int SAMPLE_SIZE = 8;
+
+  private final String id;
+  private final ConcurrentHashMap<Object, Node> cache = new ConcurrentHashMap<>();
+  private final AtomicLong weightedSize = new AtomicLong();
+  private final ThreadLocal<Integer> givenWeight = new ThreadLocal<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final FrequencySketch sketch;
+  private final CacheStats stats;
+  private volatile int size;
+  private volatile long maxWeight;
+  private Iterator<Node> sweeper;
+
+  public TinyLfuCache(String id) {
+    this.id = id;
+    this.size = 1024;
+    this.sketch = new FrequencySketch(size);
+    this.stats = new CacheStats(id, this::getSize);
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    return cache.size();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+
+  public void setSize(final int size) {
+    this.size = size;
+    sketch.ensureCapacity(size);
+  }
+
+  /**
+   * Bounds the total weight of the entries in addition to their number. Zero or less means that only the number of
+   * entries is bounded.
+   *
+   * @param maxWeight
+   *          the maximum total weight
+   */
+  public void setMaxWeight(final long maxWeight) {
+    this.maxWeight = maxWeight;
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  public long getWeightedSize() {
+    return weightedSize.get();
+  }
+
+  /**
+   * Runs a put through decorators of this cache that transform the value, giving the weight of the value before it was
+   * transformed. The put must reach this cache on the calling thread.
+   *
+   * @param weight
+   *          the weight of the value
+   * @param put
+   *          the put through the decorators
+   */
+  public void putWithWeight(int weight, Runnable put) {
+    givenWeight.set(weight);
+    try {
+      put.run();
+    } finally {
+      givenWeight.remove();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    Integer weight = givenWeight.get();
+    Node node = new Node(key, value, weight == null ? weigh(value) : weight);
+    Node old = cache.put(key, node);
+    weightedSize.addAndGet(old == null ? node.weight : node.weight - old.weight);
+    if (exceedsBounds()) {
+      evict(old == null ? node : null);
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    sketch.increment(key);
+    Node node = cache.get(key);
+    if (node == null) {
+      return null;
+    }
+    node.accessTime = System.nanoTime();
+    return node.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Node node = cache.remove(key);
+    if (node == null) {
+      return null;
+    }
+    weightedSize.addAndGet(-node.weight);
+    return node.value;
+  }
+
+  @Override
+  public void clear() {
+    for (Node node : cache.values()) {
+      remove(node);
+    }
+  }
+
+  private boolean exceedsBounds() {
+    long weightLimit = maxWeight;
+    return cache.size() > size || (weightLimit > 0 && weightedSize.get() > weightLimit);
+  }
+
+  private void evict(Node candidate) {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      while (exceedsBounds()) {
+        Node victim = sampleVictim();
+        if (victim == null) {
+          return;
+        }
+        if (candidate != null && candidate != victim
+            && sketch.frequency(candidate.key) < sketch.frequency(victim.key)) {
+          // not popular enough to be admitted
+          victim = candidate;
+        }
+        if (victim == candidate) {
+          candidate = null;
+        }
+        if (remove(victim)) {
+          stats.recordEvictions(1);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private Node sampleVictim() {
+    Node victim = null;
+    int victimFrequency = Integer.MAX_VALUE;
+    for (int i = 0; i < SAMPLE_SIZE; i++) {
+      if (sweeper == null || !sweeper.hasNext()) {
+        sweeper = cache.values().iterator();
+        if (!sweeper.hasNext()) {
+          break;
+        }
+      }
+      Node node = sweeper.next();
+      int frequency = sketch.frequency(node.key);
+      if (victim == null || frequency < victimFrequency
+          || (frequency == victimFrequency && node.accessTime - victim.accessTime < 0)) {
+        victim = node;
+        victimFrequency = frequency;
+      }
+    }
+    return victim;
+  }
+
+  private boolean remove(Node node) {
+    if (cache.remove(node.key, node)) {
+      weightedSize.addAndGet(-node.weight);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * @param value
+   *          a cached value
+   * @return the number of elements of a collection, map or array, at least 1, or 1 for any other value
+   */
+  public static int weigh(Object value) {
+    if (value instanceof Collection) {
+      return Math.max(1, ((Collection<?>) value).size());
+    } else if (value instanceof Map) {
+      return Math.max(1, ((Map<?, ?>) value).size());
+    } else if (value != null && value.getClass().isArray()) {
+      return Math.max(1, Array.getLength(value));
+    }
+    return 1;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  private static final class Node {
+    private final Object key;
+    private final Object value;
+    private final int weight;
+    private volatile long accessTime;
+
+    Node(Object key, Object value, int weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+      this.accessTime = System.nanoTime();
+    }
+  }
+
+}
@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link PoolState} of a {@link ConcurrentPooledDataSource}. Statistics are striped counters, so recording them
+ * never blocks a borrowing or returning thread.
+ *
+ * @since 3.5.6
+ */
+class ConcurrentPoolState extends PoolState {
+
+  final LongAdder requestCount = new LongAdder();
+  final LongAdder accumulatedRequestTime = new LongAdder();
+  final LongAdder accumulatedCheckoutTime = new LongAdder();
+  final LongAdder claimedOverdueConnectionCount = new LongAdder();
+  final LongAdder accumulatedCheckoutTimeOfOverdueConnections = new LongAdder();
+  final LongAdder accumulatedWaitTime = new LongAdder();
+  final LongAdder hadToWaitCount = new LongAdder();
+  final LongAdder badConnectionCount = new LongAdder();
+
+  private final ConcurrentPooledDataSource pool;
+
+  ConcurrentPoolState(ConcurrentPooledDataSource dataSource) {
+    super(dataSource);
+    this.pool = dataSource;
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requestCount.sum();
+  }
+
+  @Override
+  public long getAverageRequestTime() {
+    long requests = requestCount.sum();
+    return requests == 0 ? 0 : accumulatedRequestTime.sum() / requests;
+  }
+
+  @Override
+  public long getAverageWaitTime() {
+    long waits = hadToWaitCount.sum();
+    return waits == 0 ? 0 : accumulatedWaitTime.sum() / waits;
+  }
+
+  @Override
+  public long getHadToWaitCount() {
+    return hadToWaitCount.sum();
+  }
+
+  @Override
+  public long getBadConnectionCount() {
+    return badConnectionCount.sum();
+  }
+
+  @Override
+  public long getClaimedOverdueConnectionCount() {
+    return claimedOverdueConnectionCount.sum();
+  }
+
+  @Override
+  public long getAverageOverdueCheckoutTime() {
+    long claimed = claimedOverdueConnectionCount.sum();
+    return claimed == 0 ? 0 : accumulatedCheckoutTimeOfOverdueConnections.sum() / claimed;
+  }
+
+  @Override
+  public long getAverageCheckoutTime() {
+    long requests = requestCount.sum();
+    return requests == 0 ? 0 : accumulatedCheckoutTime.sum() / requests;
+  }
+
+  @Override
+  public int getIdleConnectionCount() {
+    return pool.getIdleConnectionCount();
+  }
+
+  @Override
+  public int getActiveConnectionCount() {
+    return Math.max(0, pool.getTotalConnectionCount() - pool.getIdleConnectionCount());
+  }
+
+}
@@ -0,0 +1,478 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * A connection pool that does not synchronize on a shared monitor when connections are borrowed or returned.
+ * <p>
+ * Every physical connection of the pool is kept in a shared copy-on-write list and is claimed by a compare-and-set on
+ * its state. A thread that returns a connection remembers it so its next borrow usually succeeds without scanning the
+ * list, and a returned connection is handed directly to a waiting thread, if any. Settings, {@link PooledConnection}
+ * semantics and {@link PoolState} statistics are the same as for {@link PooledDataSource}.
+ *
+ * @since 3.5.6
+ */
+public class ConcurrentPooledDataSource extends PooledDataSource {
+
+  private static final Log log = LogFactory.getLog(ConcurrentPooledDataSource.class);
+
+  private static final int STATE_NOT_IN_USE = 0;
+  private static final int STATE_IN_USE = 1;
+  private static final int STATE_RESERVED = 2;
+  private static final int STATE_REMOVED = 3;
+
+  private final ConcurrentPoolState state = new ConcurrentPoolState(this);
+  private final CopyOnWriteArrayList<PoolEntry> sharedList = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<WeakReference<PoolEntry>> threadLocalEntry = new ThreadLocal<>();
+  private final SynchronousQueue<PoolEntry> handoffQueue = new SynchronousQueue<>(true);
+  private final AtomicInteger totalConnections = new AtomicInteger();
+  private final AtomicInteger idleConnections = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  public ConcurrentPooledDataSource() {
+    super();
+  }
+
+  public ConcurrentPooledDataSource(UnpooledDataSource dataSource) {
+    super(dataSource);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, String username, String password) {
+    super(driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, Properties driverProperties) {
+    super(driver, url, driverProperties);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, String username, String password) {
+    super(driverClassLoader, driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, Properties driverProperties) {
+    super(driverClassLoader, driver, url, driverProperties);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    ensureHousekeeping();
+    return popConnection(dataSource.getUsername(), dataSource.getPassword()).getProxyConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    ensureHousekeeping();
+    return popConnection(username, password).getProxyConnection();
+  }
+
+  @Override
+  public PoolState getPoolState() {
+    return state;
+  }
+
+  int getTotalConnectionCount() {
+    return totalConnections.get();
+  }
+
+  int getIdleConnectionCount() {
+    return idleConnections.get();
+  }
+
+  /**
+   * Closes all active and idle connections in the pool.
+   */
+  @Override
+  public void forceCloseAll() {
+    expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+    for (PoolEntry entry : sharedList) {
+      int previousState = entry.state.getAndSet(STATE_REMOVED);
+      if (previousState == STATE_REMOVED) {
+        continue;
+      }
+      if (previousState == STATE_NOT_IN_USE) {
+        idleConnections.decrementAndGet();
+      }
+      if (sharedList.remove(entry)) {
+        totalConnections.decrementAndGet();
+      }
+      try {
+        PooledConnection conn = entry.connection;
+        conn.invalidate();
+
+        Connection realConn = conn.getRealConnection();
+        if (!realConn.getAutoCommit()) {
+          realConn.rollback();
+        }
+        realConn.close();
+      } catch (Exception e) {
+        // ignore
+      }
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("ConcurrentPooledDataSource forcefully closed/removed all connections.");
+    }
+  }
+
+  @Override
+  protected void pushConnection(PooledConnection conn) throws SQLException {
+    PoolEntry entry = ((EntryConnection) conn).entry;
+    if (entry.connection != conn || !entry.state.compareAndSet(STATE_IN_USE, STATE_RESERVED)) {
+      // already returned, claimed as overdue or closed by forceCloseAll()
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.badConnectionCount.increment();
+      return;
+    }
+    try {
+      if (conn.isValid()) {
+        state.accumulatedCheckoutTime.add(conn.getCheckoutTime());
+        if (!conn.getRealConnection().getAutoCommit()) {
+          conn.getRealConnection().rollback();
+        }
+        if (conn.getConnectionTypeCode() == expectedConnectionTypeCode && !isExpired(conn)
+            && (waiters.get() > 0 || idleConnections.get() < poolMaximumIdleConnections)) {
+          EntryConnection newConn = new EntryConnection(conn.getRealConnection(), this, entry);
+          newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
+          newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+          newConn.setStatementCache(conn.getStatementCache());
+          entry.connection = newConn;
+          conn.invalidate();
+          if (log.isDebugEnabled()) {
+            log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
+          }
+          requite(entry);
+        } else {
+          conn.invalidate();
+          discard(entry);
+          if (log.isDebugEnabled()) {
+            log.debug("Closed connection " + conn.getRealHashCode() + ".");
+          }
+        }
+      } else {
+        if (log.isDebugEnabled()) {
+          log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+        }
+        state.badConnectionCount.increment();
+        discard(entry);
+      }
+    } catch (SQLException | RuntimeException e) {
+      discard(entry);
+      throw e;
+    }
+  }
+
+  @Override
+  protected void housekeep() {
+    for (PoolEntry entry : sharedList) {
+      if (entry.state.get() != STATE_NOT_IN_USE || !entry.state.compareAndSet(STATE_NOT_IN_USE, STATE_RESERVED)) {
+        continue;
+      }
+      idleConnections.decrementAndGet();
+      EntryConnection conn = entry.connection;
+      if (isExpired(conn)) {
+        discard(entry);
+        if (log.isDebugEnabled()) {
+          log.debug("Closed connection " + conn.getRealHashCode() + ".");
+        }
+      } else if (isPingDue(conn) && !pingConnection(conn, true)) {
+        state.badConnectionCount.increment();
+        discard(entry);
+      } else {
+        requite(entry);
+      }
+    }
+
+    int target = Math.min(poolMinimumIdleConnections, poolMaximumIdleConnections);
+    while (idleConnections.get() < target) {
+      PoolEntry entry;
+      try {
+        entry = createEntry();
+      } catch (SQLException e) {
+        log.warn("Could not create an idle connection: " + e.getMessage());
+        return;
+      }
+      if (entry == null) {
+        return;
+      }
+      entry.connection.setConnectionTypeCode(expectedConnectionTypeCode);
+      entry.state.set(STATE_RESERVED);
+      requite(entry);
+    }
+  }
+
+  private PooledConnection popConnection(String username, String password) throws SQLException {
+    boolean countedWait = false;
+    long t = System.currentTimeMillis();
+    int localBadConnectionCount = 0;
+
+    while (true) {
+      PoolEntry entry = borrow();
+      if (entry == null) {
+        entry = createEntry();
+      }
+      if (entry == null) {
+        entry = claimOverdueEntry();
+      }
+      if (entry == null) {
+        // Must wait
+        if (!countedWait) {
+          state.hadToWaitCount.increment();
+          countedWait = true;
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
+        }
+        long wt = System.currentTimeMillis();
+        try {
+          entry = awaitEntry();
+        } catch (InterruptedException e) {
+          break;
+        }
+        state.accumulatedWaitTime.add(System.currentTimeMillis() - wt);
+        if (entry == null) {
+          continue;
+        }
+      }
+
+      PooledConnection conn = entry.connection;
+      // stamp first so that the entry cannot be mistaken for an overdue one while it is being validated
+      conn.setCheckoutTimestamp(System.currentTimeMillis());
+      try {
+        // ping to server and check the connection is valid or not
+        if (conn.isValid()) {
+          if (!conn.getRealConnection().getAutoCommit()) {
+            conn.getRealConnection().rollback();
+          }
+          conn.setConnectionTypeCode(assembleConnectionTypeCode(dataSource.getUrl(), username, password));
+          conn.setLastUsedTimestamp(System.currentTimeMillis());
+          state.requestCount.increment();
+          state.accumulatedRequestTime.add(System.currentTimeMillis() - t);
+          return conn;
+        }
+      } catch (SQLException | RuntimeException e) {
+        discard(entry);
+        throw e;
+      }
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
+      }
+      state.badConnectionCount.increment();
+      localBadConnectionCount++;
+      discard(entry);
+      if (localBadConnectionCount > (poolMaximumIdleConnections + poolMaximumLocalBadConnectionTolerance)) {
+        if (log.isDebugEnabled()) {
+          log.debug("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+        }
+        throw new SQLException("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+      }
+    }
+
+    if (log.isDebugEnabled()) {
+      log.debug("ConcurrentPooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+    }
+    throw new SQLException("ConcurrentPooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+  }
+
+  private PoolEntry borrow() {
+    WeakReference<PoolEntry> reference = threadLocalEntry.get();
+    if (reference != null) {
+      PoolEntry entry = reference.get();
+      if (entry != null && reserveIdle(entry)) {
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + entry.connection.getRealHashCode() + " from pool.");
+        }
+        return entry;
+      }
+    }
+    for (PoolEntry entry : sharedList) {
+      if (reserveIdle(entry)) {
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + entry.connection.getRealHashCode() + " from pool.");
+        }
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private boolean reserveIdle(PoolEntry entry) {
+    if (entry.state.get() == STATE_NOT_IN_USE && entry.state.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+      idleConnections.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  private PoolEntry createEntry() throws SQLException {
+    int total;
+    do {
+      total = totalConnections.get();
+      if (total >= poolMaximumActiveConnections) {
+        return null;
+      }
+    } while (!totalConnections.compareAndSet(total, total + 1));
+
+    Connection realConnection;
+    try {
+      realConnection = dataSource.getConnection();
+    } catch (SQLException | RuntimeException e) {
+      totalConnections.decrementAndGet();
+      throw e;
+    }
+    PoolEntry entry = new PoolEntry();
+    entry.connection = new EntryConnection(realConnection, this, entry);
+    sharedList.add(entry);
+    if (log.isDebugEnabled()) {
+      log.debug("Created connection " + entry.connection.getRealHashCode() + ".");
+    }
+    return entry;
+  }
+
+  private PoolEntry claimOverdueEntry() {
+    for (PoolEntry entry : sharedList) {
+      EntryConnection overdue = entry.connection;
+      // a wrapper is checked out at most once, so an unstamped one has not been handed out yet
+      long checkoutTimestamp = overdue.getCheckoutTimestamp();
+      if (checkoutTimestamp == 0 || entry.state.get() != STATE_IN_USE) {
+        continue;
+      }
+      long longestCheckoutTime = System.currentTimeMillis() - checkoutTimestamp;
+      if (longestCheckoutTime <= poolMaximumCheckoutTime || !entry.state.compareAndSet(STATE_IN_USE, STATE_RESERVED)) {
+        continue;
+      }
+      if (entry.connection != overdue) {
+        // returned and checked out again in the meantime
+        entry.state.compareAndSet(STATE_RESERVED, STATE_IN_USE);
+        continue;
+      }
+      // Can claim overdue connection
+      state.claimedOverdueConnectionCount.increment();
+      state.accumulatedCheckoutTimeOfOverdueConnections.add(longestCheckoutTime);
+      state.accumulatedCheckoutTime.add(longestCheckoutTime);
+      try {
+        if (!overdue.getRealConnection().getAutoCommit()) {
+          overdue.getRealConnection().rollback();
+        }
+      } catch (SQLException e) {
+        // the claiming thread validates the connection and retries with another one if it is bad
+        log.debug("Bad connection. Could not roll back");
+      }
+      EntryConnection conn = new EntryConnection(overdue.getRealConnection(), this, entry);
+      conn.setCreatedTimestamp(overdue.getCreatedTimestamp());
+      conn.setLastUsedTimestamp(overdue.getLastUsedTimestamp());
+      entry.connection = conn;
+      overdue.invalidate();
+      // statements of the previous borrower may still be in use, start with an empty cache
+      clearStatementCache(overdue);
+      if (!entry.state.compareAndSet(STATE_RESERVED, STATE_IN_USE)) {
+        // closed by forceCloseAll() while it was being claimed
+        continue;
+      }
+      if (log.isDebugEnabled()) {
+        log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
+      }
+      return entry;
+    }
+    return null;
+  }
+
+  private PoolEntry awaitEntry() throws InterruptedException {
+    waiters.incrementAndGet();
+    try {
+      // a connection may have been returned before this thread was counted as a waiter
+      PoolEntry entry = borrow();
+      if (entry != null) {
+        return entry;
+      }
+      entry = handoffQueue.poll(poolTimeToWait, TimeUnit.MILLISECONDS);
+      if (entry != null && reserveIdle(entry)) {
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + entry.connection.getRealHashCode() + " from pool.");
+        }
+        return entry;
+      }
+      return null;
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private void requite(PoolEntry entry) {
+    if (!entry.state.compareAndSet(STATE_RESERVED, STATE_NOT_IN_USE)) {
+      // closed by forceCloseAll() while it was being returned
+      discard(entry);
+      return;
+    }
+    idleConnections.incrementAndGet();
+    for (int i = 0; waiters.get() > 0; i++) {
+      if (entry.state.get() != STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+        return;
+      }
+      if ((i & 0xff) == 0xff) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      } else {
+        Thread.yield();
+      }
+    }
+    threadLocalEntry.set(new WeakReference<>(entry));
+  }
+
+  private void discard(PoolEntry entry) {
+    if (entry.state.getAndSet(STATE_REMOVED) == STATE_NOT_IN_USE) {
+      idleConnections.decrementAndGet();
+    }
+    if (sharedList.remove(entry)) {
+      totalConnections.decrementAndGet();
+    }
+    PooledConnection conn = entry.connection;
+    conn.invalidate();
+    try {
+      conn.getRealConnection().close();
+    } catch (Exception e) {
+      // ignore
+    }
+  }
+
+  private static final class PoolEntry {
+    private final AtomicInteger state = new AtomicInteger(STATE_IN_USE);
+    private volatile EntryConnection connection;
+  }
+
+  private static final class EntryConnection extends PooledConnection {
+    private final PoolEntry entry;
+
+    EntryConnection(Connection connection, ConcurrentPooledDataSource dataSource, PoolEntry entry) {
+      super(connection, dataSource);
+      this.entry = entry;
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Runs {@link PooledDataSource#housekeep()} periodically on a single daemon thread shared by all pools. A pool is only
+ * weakly referenced by its task, which cancels itself once the pool has been garbage collected.
+ *
+ * @since 3.5.6
+ */
+final class PoolHousekeeper {
+
+  private static final Log log = LogFactory.getLog(PoolHousekeeper.class);
+
+  private static final ScheduledThreadPoolExecutor scheduler;
+
+  static {
+    scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "mybatis-pool-housekeeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setRemoveOnCancelPolicy(true);
+  }
+
+  private PoolHousekeeper() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static ScheduledFuture<?> schedule(PooledDataSource dataSource, long intervalMillis) {
+    Task task = new Task(dataSource);
+    task.future = scheduler.scheduleWithFixedDelay(task, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    return task.future;
+  }
+
+  private static class Task implements Runnable {
+
+    private final WeakReference<PooledDataSource> dataSource;
+    private volatile ScheduledFuture<?> future;
+
+    Task(PooledDataSource dataSource) {
+      this.dataSource = new WeakReference<>(dataSource);
+    }
+
+    @Override
+    public void run() {
+      PooledDataSource pool = dataSource.get();
+      if (pool == null) {
+        ScheduledFuture<?> scheduled = future;
+        if (scheduled != null) {
+          scheduled.cancel(false);
+        }
+        return;
+      }
+      try {
+        pool.housekeep();
+      } catch (RuntimeException e) {
+        // an exception would suppress all subsequent runs
+        log.warn("Pool housekeeping failed: " + e.getMessage());
+      }
+    }
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.datasource.pooled;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 主要解决看两个问题：
@@ -33,6 +34,8 @@ public class PoolState {
     protected final List<PooledConnection> idleConnections = new ArrayList<>();
     // 活跃连接列表
     protected final List<PooledConnection> activeConnections = new ArrayList<>();
+    // 后台维护线程正在校验的连接，计入连接总数
+    protected final List<PooledConnection> validatingConnections = new ArrayList<>();
     protected long requestCount = 0;
     protected long accumulatedRequestTime = 0;
     protected long accumulatedCheckoutTime = 0;
@@ -41,6 +44,8 @@ public class PoolState {
     protected long accumulatedWaitTime = 0;
     protected long hadToWaitCount = 0;
     protected long badConnectionCount = 0;
+    protected final LongAdder statementCacheHitCount = new LongAdder();
+    protected final LongAdder statementCacheMissCount = new LongAdder();
 
     public PoolState(PooledDataSource dataSource) {
         this.dataSource = dataSource;
@@ -79,6 +84,32 @@ public class PoolState {
         return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
     }
 
+    /**
+     * @since 3.5.6
+     */
+    public long getStatementCacheHitCount() {
+        return statementCacheHitCount.sum();
+    }
+
+    /**
+     * @since 3.5.6
+     */
+    public long getStatementCacheMissCount() {
+        return statementCacheMissCount.sum();
+    }
+
+    /**
+     * Returns the share of prepared statements served by the statement caches of the pooled connections.
+     *
+     * @return the hit ratio, 0 when no statement was prepared through a cache
+     * @since 3.5.6
+     */
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHitCount.sum();
+        long requests = hits + statementCacheMissCount.sum();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
     public synchronized int getIdleConnectionCount() {
         return idleConnections.size();
     }
@@ -102,6 +133,7 @@ public class PoolState {
         builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
         builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
         builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+        builder.append("\n poolPreparedStatementCacheSize ").append(dataSource.poolPreparedStatementCacheSize);
         builder.append("\n ---STATUS-----------------------------------------------------");
         builder.append("\n activeConnections              ").append(getActiveConnectionCount());
         builder.append("\n idleConnections                ").append(getIdleConnectionCount());
@@ -113,6 +145,8 @@ public class PoolState {
         builder.append("\n hadToWait                      ").append(getHadToWaitCount());
         builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
         builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+        builder.append("\n statementCacheHits             ").append(getStatementCacheHitCount());
+        builder.append("\n statementCacheMisses           ").append(getStatementCacheMissCount());
         builder.append("\n===============================================================");
         return builder.toString();
     }
@@ -32,6 +32,7 @@ import java.sql.SQLException;
 class PooledConnection implements InvocationHandler {
 
     private static final String CLOSE = "close";
+    private static final String PREPARE_STATEMENT = "prepareStatement";
     private static final Class<?>[] IFACES = new Class<?>[]{Connection.class};
 
     private final int hashCode;
@@ -41,7 +42,7 @@ class PooledConnection implements InvocationHandler {
     // 数据库连接代理
     private final Connection proxyConnection;
     // 从连接池取出的时间戳
-    private long checkoutTimestamp;
+    private volatile long checkoutTimestamp;
     // 数据库连接创建时间
     private long createdTimestamp;
     // 数据库最后使用时间
@@ -49,6 +50,8 @@ class PooledConnection implements InvocationHandler {
     // (url + username + password).hashCode()
     private int connectionTypeCode;
     private boolean valid;
+    // 物理连接上缓存的 PreparedStatement，连接归还后由新的代理沿用
+    private PreparedStatementCache statementCache;
 
     /**
      * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -209,6 +212,24 @@ class PooledConnection implements InvocationHandler {
         return System.currentTimeMillis() - checkoutTimestamp;
     }
 
+    /**
+     * Getter for the prepared statements cached on the real connection.
+     *
+     * @return the cache, or null when no statement was prepared through it yet
+     */
+    PreparedStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Setter for the prepared statements cached on the real connection, handed over when it is wrapped again.
+     *
+     * @param statementCache - the cache
+     */
+    void setStatementCache(PreparedStatementCache statementCache) {
+        this.statementCache = statementCache;
+    }
+
     @Override
     public int hashCode() {
         return hashCode;
@@ -252,6 +273,12 @@ class PooledConnection implements InvocationHandler {
                 // throw an SQLException instead of a Runtime
                 checkConnection();
             }
+            if (PREPARE_STATEMENT.equals(methodName) && dataSource.poolPreparedStatementCacheSize > 0) {
+                if (statementCache == null) {
+                    statementCache = new PreparedStatementCache(dataSource.poolPreparedStatementCacheSize, dataSource.getPoolState());
+                }
+                return statementCache.prepare(realConnection, method, args);
+            }
             return method.invoke(realConnection, args);
         } catch (Throwable t) {
             throw ExceptionUtil.unwrapThrowable(t);
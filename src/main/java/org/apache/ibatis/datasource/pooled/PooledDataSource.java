@@ -27,7 +27,10 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
 import java.util.logging.Logger;
 
 /**
@@ -41,7 +44,7 @@ public class PooledDataSource implements DataSource {
 
     private final PoolState state = new PoolState(this);
 
-    private final UnpooledDataSource dataSource;
+    protected final UnpooledDataSource dataSource;
 
     // OPTIONAL CONFIGURATION FIELDS
     protected int poolMaximumActiveConnections = 10;
@@ -52,8 +55,15 @@ public class PooledDataSource implements DataSource {
     protected String poolPingQuery = "NO PING QUERY SET";
     protected boolean poolPingEnabled;
     protected int poolPingConnectionsNotUsedFor;
+    protected int poolMinimumIdleConnections;
+    protected int poolMaximumLifetime;
+    protected int poolHousekeepingInterval;
+    protected int poolPreparedStatementCacheSize;
 
-    private int expectedConnectionTypeCode;
+    private volatile ScheduledFuture<?> housekeeping;
+    private volatile boolean housekeepingStopped;
+
+    protected volatile int expectedConnectionTypeCode;
 
     public PooledDataSource() {
         dataSource = new UnpooledDataSource();
@@ -85,11 +95,13 @@ public class PooledDataSource implements DataSource {
 
     @Override
     public Connection getConnection() throws SQLException {
+        ensureHousekeeping();
         return popConnection(dataSource.getUsername(), dataSource.getPassword()).getProxyConnection();
     }
 
     @Override
     public Connection getConnection(String username, String password) throws SQLException {
+        ensureHousekeeping();
         return popConnection(username, password).getProxyConnection();
     }
 
@@ -253,6 +265,61 @@ public class PooledDataSource implements DataSource {
         forceCloseAll();
     }
 
+    /**
+     * The number of idle connections the housekeeper keeps open, so that borrowers do not have to create them. It is
+     * capped by the maximum number of idle connections and only takes effect when housekeeping is enabled.
+     *
+     * @param poolMinimumIdleConnections
+     *          The minimum number of idle connections
+     * @since 3.5.6
+     */
+    public void setPoolMinimumIdleConnections(int poolMinimumIdleConnections) {
+        this.poolMinimumIdleConnections = poolMinimumIdleConnections;
+    }
+
+    /**
+     * The maximum time a physical connection is kept open. Older connections are closed when they are returned or
+     * when the housekeeper finds them idle. Zero or less means no limit.
+     *
+     * @param milliseconds
+     *          the maximum lifetime in milliseconds
+     * @since 3.5.6
+     */
+    public void setPoolMaximumLifetime(int milliseconds) {
+        this.poolMaximumLifetime = milliseconds;
+    }
+
+    /**
+     * How often a background thread validates and retires idle connections and tops the pool up to the minimum
+     * number of idle connections. While housekeeping is enabled, the ping query is run only by the housekeeper and no
+     * longer by borrowing threads. Zero or less disables housekeeping.
+     *
+     * @param milliseconds
+     *          the delay in milliseconds between two housekeeping runs
+     * @since 3.5.6
+     */
+    public void setPoolHousekeepingInterval(int milliseconds) {
+        this.poolHousekeepingInterval = milliseconds;
+        housekeepingStopped = false;
+        if (housekeeping != null) {
+            stopHousekeeping();
+            startHousekeeping();
+        }
+    }
+
+    /**
+     * The number of prepared statements kept open on each pooled connection, so that preparing the same SQL again
+     * reuses them, even from another session. Zero or less disables the cache.
+     *
+     * @param poolPreparedStatementCacheSize
+     *          the maximum number of idle prepared statements per connection
+     * @since 3.5.6
+     */
+    public void setPoolPreparedStatementCacheSize(int poolPreparedStatementCacheSize) {
+        this.poolPreparedStatementCacheSize = poolPreparedStatementCacheSize;
+        forceCloseAll();
+    }
+
     public String getDriver() {
         return dataSource.getDriver();
     }
@@ -323,8 +390,176 @@ public class PooledDataSource implements DataSource {
         return poolPingConnectionsNotUsedFor;
     }
 
+    public int getPoolMinimumIdleConnections() {
+        return poolMinimumIdleConnections;
+    }
+
+    public int getPoolMaximumLifetime() {
+        return poolMaximumLifetime;
+    }
+
+    public int getPoolHousekeepingInterval() {
+        return poolHousekeepingInterval;
+    }
+
+    /**
+     * @since 3.5.6
+     */
+    public int getPoolPreparedStatementCacheSize() {
+        return poolPreparedStatementCacheSize;
+    }
+
     /**
-     * Closes all active and idle connections in the pool.
+     * Starts the background housekeeping if an interval is configured. The first run happens right away, so this also
+     * pre-fills the pool up to the minimum number of idle connections.
+     *
+     * @since 3.5.6
+     */
+    public synchronized void startHousekeeping() {
+        housekeepingStopped = false;
+        if (housekeeping == null && poolHousekeepingInterval > 0) {
+            housekeeping = PoolHousekeeper.schedule(this, poolHousekeepingInterval);
+        }
+    }
+
+    /**
+     * Stops the background housekeeping. Borrowing threads run the ping query again from then on, and do not start the
+     * housekeeping again until {@link #startHousekeeping()} is called or the interval is set.
+     *
+     * @since 3.5.6
+     */
+    public synchronized void stopHousekeeping() {
+        housekeepingStopped = true;
+        if (housekeeping != null) {
+            housekeeping.cancel(false);
+            housekeeping = null;
+        }
+    }
+
+    protected void ensureHousekeeping() {
+        if (housekeeping == null && !housekeepingStopped && poolHousekeepingInterval > 0) {
+            startHousekeeping();
+        }
+    }
+
+    protected boolean isHousekeepingActive() {
+        return housekeeping != null;
+    }
+
+    protected boolean isExpired(PooledConnection conn) {
+        return poolMaximumLifetime > 0 && conn.getAge() > poolMaximumLifetime;
+    }
+
+    /**
+     * Validates and retires idle connections and creates connections until the minimum number of idle connections is
+     * reached. Called periodically by the housekeeper; the pool is never locked while a connection is pinged or
+     * opened.
+     *
+     * @since 3.5.6
+     */
+    protected void housekeep() {
+        List<PooledConnection> retired = new ArrayList<>();
+        List<PooledConnection> candidates = new ArrayList<>();
+        synchronized (state) {
+            for (int i = state.idleConnections.size() - 1; i >= 0; i--) {
+                PooledConnection conn = state.idleConnections.get(i);
+                if (isExpired(conn)) {
+                    retired.add(state.idleConnections.remove(i));
+                } else if (isPingDue(conn)) {
+                    state.idleConnections.remove(i);
+                    state.validatingConnections.add(conn);
+                    candidates.add(conn);
+                }
+            }
+        }
+        for (PooledConnection conn : retired) {
+            closeRetiredConnection(conn);
+        }
+        for (PooledConnection conn : candidates) {
+            boolean valid = pingConnection(conn, true);
+            synchronized (state) {
+                if (!state.validatingConnections.remove(conn)) {
+                    // closed by forceCloseAll() while it was pinged
+                    continue;
+                }
+                state.notifyAll();
+                if (!valid) {
+                    conn.invalidate();
+                    state.badConnectionCount++;
+                    continue;
+                }
+                if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
+                    state.idleConnections.add(conn);
+                    continue;
+                }
+            }
+            closeRetiredConnection(conn);
+        }
+
+        int target = Math.min(poolMinimumIdleConnections, poolMaximumIdleConnections);
+        while (true) {
+            synchronized (state) {
+                if (state.idleConnections.size() >= target || countConnections() >= poolMaximumActiveConnections) {
+                    return;
+                }
+            }
+            PooledConnection conn;
+            try {
+                conn = new PooledConnection(dataSource.getConnection(), this);
+            } catch (SQLException e) {
+                log.warn("Could not create an idle connection: " + e.getMessage());
+                return;
+            }
+            conn.setConnectionTypeCode(expectedConnectionTypeCode);
+            synchronized (state) {
+                if (state.idleConnections.size() < target && countConnections() < poolMaximumActiveConnections) {
+                    state.idleConnections.add(conn);
+                    state.notifyAll();
+                    if (log.isDebugEnabled()) {
+                        log.debug("Created idle connection " + conn.getRealHashCode() + ".");
+                    }
+                    continue;
+                }
+            }
+            closeRetiredConnection(conn);
+            return;
+        }
+    }
+
+    void clearStatementCache(PooledConnection conn) {
+        PreparedStatementCache statementCache = conn.getStatementCache();
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+    }
+
+    protected boolean isPingDue(PooledConnection conn) {
+        return poolPingEnabled && poolPingConnectionsNotUsedFor >= 0
+                && conn.getTimeElapsedSinceLastUse() > poolPingConnectionsNotUsedFor;
+    }
+
+    /**
+     * Returns the number of open connections of the pool: active, idle and being validated. Must be called while holding
+     * the lock of the pool state.
+     */
+    private int countConnections() {
+        return state.idleConnections.size() + state.activeConnections.size() + state.validatingConnections.size();
+    }
+
+    protected void closeRetiredConnection(PooledConnection conn) {
+        conn.invalidate();
+        try {
+            conn.getRealConnection().close();
+        } catch (SQLException e) {
+            // ignore
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Closed connection " + conn.getRealHashCode() + ".");
+        }
+    }
+
+    /**
+     * Closes all active, idle and validating connections in the pool.
      */
     public void forceCloseAll() {
         synchronized (state) {
@@ -357,6 +592,15 @@ public class PooledDataSource implements DataSource {
                     // ignore
                 }
             }
+            for (int i = state.validatingConnections.size(); i > 0; i--) {
+                PooledConnection conn = state.validatingConnections.remove(i - 1);
+                conn.invalidate();
+                try {
+                    conn.getRealConnection().close();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
         }
         if (log.isDebugEnabled()) {
             log.debug("PooledDataSource forcefully closed/removed all connections.");
@@ -367,7 +611,7 @@ public class PooledDataSource implements DataSource {
         return state;
     }
 
-    private int assembleConnectionTypeCode(String url, String username, String password) {
+    protected int assembleConnectionTypeCode(String url, String username, String password) {
         return ("" + url + username + password).hashCode();
     }
 
@@ -376,7 +620,8 @@ public class PooledDataSource implements DataSource {
         synchronized (state) {
             state.activeConnections.remove(conn);
             if (conn.isValid()) {
-                if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
+                if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode
+                        && !isExpired(conn)) {
                     state.accumulatedCheckoutTime += conn.getCheckoutTime();
                     if (!conn.getRealConnection().getAutoCommit()) {
                         conn.getRealConnection().rollback();
@@ -385,6 +630,7 @@ public class PooledDataSource implements DataSource {
                     state.idleConnections.add(newConn);
                     newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
                     newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+                    newConn.setStatementCache(conn.getStatementCache());
                     conn.invalidate();
                     if (log.isDebugEnabled()) {
                         log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
@@ -426,7 +672,7 @@ public class PooledDataSource implements DataSource {
                     }
                 } else {
                     // Pool does not have available connection
-                    if (state.activeConnections.size() < poolMaximumActiveConnections) {
+                    if (state.activeConnections.size() + state.validatingConnections.size() < poolMaximumActiveConnections) {
                         // Can create new connection
                         conn = new PooledConnection(dataSource.getConnection(), this);
                         if (log.isDebugEnabled()) {
@@ -461,6 +707,8 @@ public class PooledDataSource implements DataSource {
                             conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
                             conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
                             oldestActiveConnection.invalidate();
+                            // statements of the previous borrower may still be in use, start with an empty cache
+                            clearStatementCache(oldestActiveConnection);
                             if (log.isDebugEnabled()) {
                                 log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
                             }
@@ -532,6 +780,20 @@ public class PooledDataSource implements DataSource {
      * @return True if the connection is still usable
      */
     protected boolean pingConnection(PooledConnection conn) {
+        return pingConnection(conn, !isHousekeepingActive() && isPingDue(conn));
+    }
+
+    /**
+     * Method to check to see if a connection is still usable
+     *
+     * @param conn
+     *          - the connection to check
+     * @param runPingQuery
+     *          - whether the ping query should be sent if the connection is open
+     * @return True if the connection is still usable
+     * @since 3.5.6
+     */
+    protected boolean pingConnection(PooledConnection conn, boolean runPingQuery) {
         boolean result = true;
 
         try {
@@ -543,8 +805,7 @@ public class PooledDataSource implements DataSource {
             result = false;
         }
 
-        if (result && poolPingEnabled && poolPingConnectionsNotUsedFor >= 0
-                && conn.getTimeElapsedSinceLastUse() > poolPingConnectionsNotUsedFor) {
+        if (result && runPingQuery) {
             try {
                 if (log.isDebugEnabled()) {
                     log.debug("Testing connection " + conn.getRealHashCode() + " ...");
@@ -595,6 +856,7 @@ public class PooledDataSource implements DataSource {
 
     @Override
     protected void finalize() throws Throwable {
+        stopHousekeeping();
         forceCloseAll();
         super.finalize();
     }
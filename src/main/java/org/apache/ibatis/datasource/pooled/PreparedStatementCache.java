@@ -0,0 +1,255 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * The prepared statements of one physical connection that are not in use, kept open so that preparing the same SQL
+ * again, from any borrower of the connection, returns them instead of asking the driver.
+ * <p>
+ * Statements are handed out wrapped, closing the wrapper returns the statement to the cache with its parameters
+ * cleared. At most <code>size</code> statements are kept, the least recently used one is closed first.
+ *
+ * @since 3.5.6
+ */
+final class PreparedStatementCache {
+
+  private static final Class<?>[] IFACES = new Class<?>[] { PreparedStatement.class };
+
+  private final int size;
+  private final PoolState poolState;
+  private final Map<List<Object>, CachedStatement> idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+  private boolean closed;
+
+  PreparedStatementCache(int size, PoolState poolState) {
+    this.size = size;
+    this.poolState = poolState;
+  }
+
+  /**
+   * Prepares a statement through {@link Connection#prepareStatement}, reusing an idle one prepared with the same
+   * arguments.
+   */
+  PreparedStatement prepare(Connection realConnection, Method method, Object[] args) throws Throwable {
+    List<Object> key = keyOf(args);
+    CachedStatement cached;
+    synchronized (this) {
+      cached = idleStatements.remove(key);
+    }
+    if (cached != null) {
+      poolState.statementCacheHitCount.increment();
+    } else {
+      poolState.statementCacheMissCount.increment();
+      try {
+        cached = new CachedStatement(key, (PreparedStatement) method.invoke(realConnection, args));
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), IFACES,
+        new StatementHandle(cached));
+  }
+
+  /**
+   * Closes the idle statements, statements in use are closed when they are released.
+   */
+  synchronized void clear() {
+    closed = true;
+    for (CachedStatement cached : idleStatements.values()) {
+      closeQuietly(cached.statement);
+    }
+    idleStatements.clear();
+  }
+
+  synchronized int getIdleStatementCount() {
+    return idleStatements.size();
+  }
+
+  private void release(CachedStatement cached) {
+    PreparedStatement statement = cached.statement;
+    try {
+      if (!statement.isClosed()) {
+        cached.reset();
+        synchronized (this) {
+          if (!closed && !idleStatements.containsKey(cached.key)) {
+            idleStatements.put(cached.key, cached);
+            evict();
+            return;
+          }
+        }
+      }
+    } catch (SQLException e) {
+      // not reusable
+    }
+    closeQuietly(statement);
+  }
+
+  private void evict() {
+    Iterator<CachedStatement> iterator = idleStatements.values().iterator();
+    while (idleStatements.size() > size) {
+      CachedStatement eldest = iterator.next();
+      iterator.remove();
+      closeQuietly(eldest.statement);
+    }
+  }
+
+  private static List<Object> keyOf(Object[] args) {
+    List<Object> key = new ArrayList<>(args.length);
+    for (Object arg : args) {
+      if (arg instanceof int[]) {
+        key.add(Arrays.toString((int[]) arg));
+      } else if (arg instanceof Object[]) {
+        key.add(Arrays.asList((Object[]) arg));
+      } else {
+        key.add(arg);
+      }
+    }
+    return key;
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  /**
+   * A driver statement with the settings it was created with, restored before it is reused.
+   */
+  private static final class CachedStatement {
+    private final List<Object> key;
+    private final PreparedStatement statement;
+    private boolean batched;
+    private boolean settingsRecorded;
+    private boolean settingsChanged;
+    private int fetchSize;
+    private int fetchDirection;
+    private int maxRows;
+    private int maxFieldSize;
+    private int queryTimeout;
+
+    CachedStatement(List<Object> key, PreparedStatement statement) {
+      this.key = key;
+      this.statement = statement;
+    }
+
+    void beforeSettingChange() throws SQLException {
+      if (!settingsRecorded) {
+        fetchSize = statement.getFetchSize();
+        fetchDirection = statement.getFetchDirection();
+        maxRows = statement.getMaxRows();
+        maxFieldSize = statement.getMaxFieldSize();
+        queryTimeout = statement.getQueryTimeout();
+        settingsRecorded = true;
+      }
+      settingsChanged = true;
+    }
+
+    void reset() throws SQLException {
+      statement.clearParameters();
+      if (batched) {
+        statement.clearBatch();
+        batched = false;
+      }
+      if (settingsChanged) {
+        statement.setFetchSize(fetchSize);
+        statement.setFetchDirection(fetchDirection);
+        statement.setMaxRows(maxRows);
+        statement.setMaxFieldSize(maxFieldSize);
+        statement.setQueryTimeout(queryTimeout);
+        settingsChanged = false;
+      }
+      statement.clearWarnings();
+    }
+  }
+
+  /**
+   * The statement given to one user, closing it releases the statement to the cache.
+   */
+  private final class StatementHandle implements InvocationHandler {
+    private final CachedStatement cached;
+    private boolean closed;
+
+    StatementHandle(CachedStatement cached) {
+      this.cached = cached;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String methodName = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        if ("equals".equals(methodName)) {
+          return proxy == args[0];
+        } else if ("hashCode".equals(methodName)) {
+          return System.identityHashCode(proxy);
+        }
+        return method.invoke(cached.statement, args);
+      }
+      switch (methodName) {
+        case "close":
+          if (!closed) {
+            closed = true;
+            release(cached);
+          }
+          return null;
+        case "isClosed":
+          return closed || cached.statement.isClosed();
+        default:
+          break;
+      }
+      if (closed) {
+        throw new SQLException("Statement is closed.");
+      }
+      switch (methodName) {
+        case "addBatch":
+          cached.batched = true;
+          break;
+        case "setFetchSize":
+        case "setFetchDirection":
+        case "setMaxRows":
+        case "setLargeMaxRows":
+        case "setMaxFieldSize":
+        case "setQueryTimeout":
+          cached.beforeSettingChange();
+          break;
+        default:
+          break;
+      }
+      try {
+        return method.invoke(cached.statement, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+  }
+
+}
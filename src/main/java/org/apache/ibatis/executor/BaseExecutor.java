@@ -16,13 +16,20 @@
 package org.apache.ibatis.executor;
 
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.metrics.SlowQuery;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementPhase;
+import org.apache.ibatis.executor.parameter.ParameterValueReader;
+import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.logging.jdbc.ConnectionLogger;
 import org.apache.ibatis.mapping.*;
+import org.apache.ibatis.reflection.ArrayUtil;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
@@ -30,13 +37,17 @@ import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
-import org.apache.ibatis.type.TypeHandlerRegistry;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOLDER;
 
@@ -51,6 +62,8 @@ import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOL
 public abstract class BaseExecutor implements Executor {
 
     private static final Log log = LogFactory.getLog(BaseExecutor.class);
+    // counts the connections obtained for a debug enabled statement log, so that one out of n is logged over all sessions
+    private static final AtomicLong statementLogSequence = new AtomicLong();
 
     protected Transaction transaction;
     protected Executor wrapper;
@@ -59,6 +72,8 @@ public abstract class BaseExecutor implements Executor {
     protected PerpetualCache localCache;
     protected PerpetualCache localOutputParameterCache;
     protected Configuration configuration;
+    // statistics of the namespaces that put entries into the local cache since it was last cleared
+    private final Set<CacheStats> localCacheStats = new HashSet<>();
 
     protected int queryStack;
     private boolean closed;
@@ -128,7 +143,20 @@ public abstract class BaseExecutor implements Executor {
             throw new ExecutorException("Executor was closed.");
         }
         clearLocalCache();
-        return doUpdate(ms, parameter);
+        StatementMetrics statementMetrics = configuration.getStatementMetrics();
+        if (statementMetrics == null) {
+            return doUpdate(ms, parameter);
+        }
+        long start = System.nanoTime();
+        int rows = doUpdate(ms, parameter);
+        // a batched update is recorded when its batch is executed
+        if (rows != BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+            statementMetrics.recordLatency(ms.getId(), System.nanoTime() - start);
+            if (rows >= 0) {
+                statementMetrics.recordRows(ms.getId(), rows);
+            }
+        }
+        return rows;
     }
 
     @Override
@@ -195,6 +223,13 @@ public abstract class BaseExecutor implements Executor {
             queryStack++;
             // 从一级缓存中查询 从本地缓存在中获取该 key 所对应 的结果集
             list = resultHandler == null ? (List<E>) localCache.getObject(key) : null;
+            if (resultHandler == null) {
+                if (list != null) {
+                    ms.getLocalCacheStats().recordHit();
+                } else {
+                    ms.getLocalCacheStats().recordMiss();
+                }
+            }
             if (list != null) {
                 handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
             } else {
@@ -253,29 +288,18 @@ public abstract class BaseExecutor implements Executor {
         if (closed) {
             throw new ExecutorException("Executor was closed.");
         }
-        CacheKey cacheKey = new CacheKey();
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        // statement id, offset, limit, sql, the parameters and the environment id
+        CacheKey cacheKey = new CacheKey(parameterMappings.size() + 5);
         cacheKey.update(ms.getId());
         cacheKey.update(rowBounds.getOffset());
         cacheKey.update(rowBounds.getLimit());
         cacheKey.update(boundSql.getSql());
-        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
-        TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
-        // mimic DefaultParameterHandler logic
+        // the values DefaultParameterHandler binds
+        ParameterValueReader valueReader = new ParameterValueReader(configuration, boundSql, parameterObject);
         for (ParameterMapping parameterMapping : parameterMappings) {
             if (parameterMapping.getMode() != ParameterMode.OUT) {
-                Object value;
-                String propertyName = parameterMapping.getProperty();
-                if (boundSql.hasAdditionalParameter(propertyName)) {
-                    value = boundSql.getAdditionalParameter(propertyName);
-                } else if (parameterObject == null) {
-                    value = null;
-                } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
-                    value = parameterObject;
-                } else {
-                    MetaObject metaObject = configuration.newMetaObject(parameterObject);
-                    value = metaObject.getValue(propertyName);
-                }
-                cacheKey.update(value);
+                cacheKey.update(valueReader.getValue(parameterMapping));
             }
         }
         if (configuration.getEnvironment() != null) {
@@ -319,6 +343,10 @@ public abstract class BaseExecutor implements Executor {
     @Override
     public void clearLocalCache() {
         if (!closed) {
+            for (CacheStats stats : localCacheStats) {
+                stats.recordClear();
+            }
+            localCacheStats.clear();
             localCache.clear();
             localOutputParameterCache.clear();
         }
@@ -334,6 +362,50 @@ public abstract class BaseExecutor implements Executor {
     protected abstract <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql)
             throws SQLException;
 
+    /**
+     * Records an execution in the slow query log of the configuration if it took longer than the given threshold.
+     *
+     * @param ms        the mapped statement
+     * @param handler   the handler that executed the statement
+     * @param threshold the slow query threshold of the statement in milliseconds
+     * @param startTime the value of {@link System#nanoTime()} before the connection was obtained
+     * @param rows      the number of result objects or affected rows, or -1 if it is not known or the execution failed
+     * @since 3.5.6
+     */
+    protected void recordSlowQuery(MappedStatement ms, StatementHandler handler, int threshold, long startTime, long rows) {
+        long elapsedTime = System.nanoTime() - startTime;
+        if (elapsedTime < TimeUnit.MILLISECONDS.toNanos(threshold)) {
+            return;
+        }
+        BoundSql boundSql = handler.getBoundSql();
+        List<String> parameters = configuration.isSlowQueryRedactParameters() ? null : getParameterStrings(boundSql);
+        StatementPhase[] phases = StatementPhase.values();
+        long[] phaseTimes = new long[phases.length];
+        for (StatementPhase phase : phases) {
+            phaseTimes[phase.ordinal()] = handler.getPhaseTime(phase);
+        }
+        Integer fetchSize = ms.getFetchSize() != null ? ms.getFetchSize() : configuration.getDefaultFetchSize();
+        configuration.getSlowQueryLog().record(
+                new SlowQuery(ms.getId(), boundSql.getSql(), parameters, rows, fetchSize, elapsedTime, phaseTimes));
+    }
+
+    private List<String> getParameterStrings(BoundSql boundSql) {
+        List<String> values = new ArrayList<>();
+        ParameterValueReader valueReader = new ParameterValueReader(configuration, boundSql, boundSql.getParameterObject());
+        try {
+            for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+                if (parameterMapping.getMode() != ParameterMode.OUT) {
+                    Object value = valueReader.getValue(parameterMapping);
+                    values.add(value == null ? null : ArrayUtil.toString(value));
+                }
+            }
+        } catch (RuntimeException e) {
+            // a failed execution may have failed reading them, which must not hide its own exception
+            return null;
+        }
+        return values;
+    }
+
     protected void closeStatement(Statement statement) {
         if (statement != null) {
             try {
@@ -391,6 +463,7 @@ public abstract class BaseExecutor implements Executor {
         List<E> list;
         // 为该 key 添加一个占位标记
         localCache.putObject(key, EXECUTION_PLACEHOLDER);
+        long start = System.nanoTime();
         try {
             list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
         } finally {
@@ -398,6 +471,15 @@ public abstract class BaseExecutor implements Executor {
             localCache.removeObject(key);
         }
         localCache.putObject(key, list);
+        long time = System.nanoTime() - start;
+        CacheStats stats = ms.getLocalCacheStats();
+        stats.recordPut();
+        stats.recordLoad(time);
+        localCacheStats.add(stats);
+        StatementMetrics statementMetrics = configuration.getStatementMetrics();
+        if (statementMetrics != null) {
+            statementMetrics.recordLatency(ms.getId(), time);
+        }
         // 存储过程相关逻辑，忽略
         if (ms.getStatementType() == StatementType.CALLABLE) {
             localOutputParameterCache.putObject(key, parameter);
@@ -415,13 +497,22 @@ public abstract class BaseExecutor implements Executor {
      */
     protected Connection getConnection(Log statementLog) throws SQLException {
         Connection connection = transaction.getConnection();
-        if (statementLog.isDebugEnabled()) {
-            return ConnectionLogger.newInstance(connection, statementLog, queryStack);
+        if (statementLog.isDebugEnabled() && sampleStatementLog()) {
+            return ConnectionLogger.newInstance(connection, statementLog, queryStack,
+                    configuration.isStatementLogResultSets());
         } else {
             return connection;
         }
     }
 
+    /**
+     * Decides whether the statement about to be executed is logged, under the statement log sample rate.
+     */
+    private boolean sampleStatementLog() {
+        int sampleRate = configuration.getStatementLogSampleRate();
+        return sampleRate == 1 || statementLogSequence.getAndIncrement() % sampleRate == 0;
+    }
+
     @Override
     public void setExecutorWrapper(Executor wrapper) {
         this.wrapper = wrapper;
@@ -19,9 +19,17 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.metrics.SlowQuery;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementPhase;
+import org.apache.ibatis.executor.parameter.ParameterValueReader;
 import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -33,7 +41,10 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Jeff Butler
@@ -44,8 +55,11 @@ public class BatchExecutor extends BaseExecutor {
 
     private final List<Statement> statementList = new ArrayList<>();
     private final List<BatchResult> batchResultList = new ArrayList<>();
-    private String currentSql;
-    private MappedStatement currentStatement;
+    private final Map<String, Integer> batchIndexes = new HashMap<>();
+    private final List<BatchResult> flushedResults = new ArrayList<>();
+    private int groupStart;
+    private int pendingRows;
+    private long pendingBytes;
 
     public BatchExecutor(Configuration configuration, Transaction transaction) {
         super(configuration, transaction);
@@ -69,29 +83,80 @@ public class BatchExecutor extends BaseExecutor {
         final String sql = boundSql.getSql();
         final Statement stmt;
 
-        if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-            System.out.println("====currentSql===equals:    " + currentSql);
-            System.out.println("====currentStatement===equals:    " + currentStatement.getId());
-            int last = statementList.size() - 1;
-            stmt = statementList.get(last);
+        int index = findBatch(ms, sql);
+        if (index >= 0) {
+            stmt = statementList.get(index);
             applyTransactionTimeout(stmt);
             handler.parameterize(stmt);// fix Issues 322
-            BatchResult batchResult = batchResultList.get(last);
+            BatchResult batchResult = batchResultList.get(index);
             batchResult.addParameterObject(parameterObject);
         } else {
-            System.out.println("=====new =====");
             Connection connection = getConnection(ms.getStatementLog());
             stmt = handler.prepare(connection, transaction.getTimeout());
             handler.parameterize(stmt);    // fix Issues 322
-            currentSql = sql;
-            currentStatement = ms;
+            index = statementList.size();
+            if (!isBatchGrouping() || index == 0
+                    || batchResultList.get(index - 1).getMappedStatement().getSqlCommandType() != ms.getSqlCommandType()) {
+                groupStart = index;
+            }
+            batchIndexes.put(sql, index);
             statementList.add(stmt);
             batchResultList.add(new BatchResult(ms, sql, parameterObject));
         }
         handler.batch(stmt);
+        pendingRows++;
+        Integer flushBytes = configuration.getBatchFlushBytes();
+        if (flushBytes != null) {
+            pendingBytes += estimateSize(configuration, boundSql, parameterObject);
+        }
+        Integer flushRows = configuration.getBatchFlushRows();
+        if ((flushRows != null && pendingRows >= flushRows) || (flushBytes != null && pendingBytes >= flushBytes)) {
+            executeBatches(flushedResults);
+        }
         return BATCH_UPDATE_RETURN_VALUE;
     }
 
+    /**
+     * @return true if statements are added to an earlier pending batch of the same SQL
+     * @since 3.5.6
+     */
+    protected boolean isBatchGrouping() {
+        return configuration.isBatchGrouping();
+    }
+
+    /**
+     * Returns the index of the pending batch the statement can be added to, or -1 if a new batch is needed.
+     * Without batch grouping only the last batch is eligible. With batch grouping any batch of the current group is, the
+     * group being the run of batches with the same command type, so an insert is never moved ahead of a preceding
+     * update or delete.
+     */
+    private int findBatch(MappedStatement ms, String sql) {
+        Integer index = batchIndexes.get(sql);
+        if (index != null && index >= groupStart && ms.equals(batchResultList.get(index).getMappedStatement())) {
+            return index;
+        }
+        return -1;
+    }
+
+    private long estimateSize(Configuration configuration, BoundSql boundSql, Object parameterObject) {
+        long size = 0;
+        ParameterValueReader valueReader = new ParameterValueReader(configuration, boundSql, parameterObject);
+        for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+            if (parameterMapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            Object value = valueReader.getValue(parameterMapping);
+            if (value instanceof CharSequence) {
+                size += ((CharSequence) value).length();
+            } else if (value instanceof byte[]) {
+                size += ((byte[]) value).length;
+            } else {
+                size += 8;
+            }
+        }
+        return size;
+    }
+
     @Override
     public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
             throws SQLException {
@@ -125,17 +190,47 @@ public class BatchExecutor extends BaseExecutor {
     @Override
     public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
         try {
-            List<BatchResult> results = new ArrayList<>();
             if (isRollback) {
+                clearBatches();
                 return Collections.emptyList();
             }
+            List<BatchResult> results = new ArrayList<>(flushedResults);
+            executeBatches(results);
+            return results;
+        } finally {
+            flushedResults.clear();
+        }
+    }
+
+    /**
+     * Executes the pending batches in the order they were created and appends their results.
+     */
+    private void executeBatches(List<BatchResult> results) throws SQLException {
+        try {
             for (int i = 0, n = statementList.size(); i < n; i++) {
                 Statement stmt = statementList.get(i);
                 applyTransactionTimeout(stmt);
                 BatchResult batchResult = batchResultList.get(i);
                 try {
-                    batchResult.setUpdateCounts(stmt.executeBatch());
+                    long start = System.nanoTime();
+                    try {
+                        batchResult.setUpdateCounts(stmt.executeBatch());
+                    } finally {
+                        batchResult.setExecutionTime(System.nanoTime() - start);
+                        recordSlowBatch(batchResult);
+                    }
                     MappedStatement ms = batchResult.getMappedStatement();
+                    Log statementLog = ms.getStatementLog();
+                    if (statementLog.isDebugEnabled()) {
+                        statementLog.debug("Executed batch of " + batchResult.getParameterObjects().size() + " in "
+                                + batchResult.getExecutionTime() / 1000000 + " ms");
+                    }
+                    StatementMetrics statementMetrics = configuration.getStatementMetrics();
+                    if (statementMetrics != null) {
+                        statementMetrics.recordLatency(ms.getId(), batchResult.getExecutionTime());
+                        statementMetrics.recordPhase(ms.getId(), StatementPhase.EXECUTION, batchResult.getExecutionTime());
+                        statementMetrics.recordRows(ms.getId(), sumUpdateCounts(batchResult.getUpdateCounts()));
+                    }
                     List<Object> parameterObjects = batchResult.getParameterObjects();
                     KeyGenerator keyGenerator = ms.getKeyGenerator();
                     if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
@@ -149,30 +244,67 @@ public class BatchExecutor extends BaseExecutor {
                     // Close statement to close cursor #1109
                     closeStatement(stmt);
                 } catch (BatchUpdateException e) {
+                    int prior = results.size();
                     StringBuilder message = new StringBuilder();
                     message.append(batchResult.getMappedStatement().getId())
                             .append(" (batch index #")
-                            .append(i + 1)
+                            .append(prior + 1)
                             .append(")")
                             .append(" failed.");
-                    if (i > 0) {
+                    if (prior > 0) {
                         message.append(" ")
-                                .append(i)
+                                .append(prior)
                                 .append(" prior sub executor(s) completed successfully, but will be rolled back.");
                     }
                     throw new BatchExecutorException(message.toString(), e, results, batchResult);
                 }
                 results.add(batchResult);
             }
-            return results;
         } finally {
-            for (Statement stmt : statementList) {
-                closeStatement(stmt);
+            clearBatches();
+        }
+    }
+
+    /**
+     * Records a batch that took longer than the slow query threshold of its statement, with the number of statements in
+     * the batch as its row count. The parameters of the statements are not recorded.
+     */
+    private void recordSlowBatch(BatchResult batchResult) {
+        MappedStatement ms = batchResult.getMappedStatement();
+        Integer slowQueryThreshold = configuration.getSlowQueryThreshold(ms);
+        if (slowQueryThreshold == null
+                || batchResult.getExecutionTime() < TimeUnit.MILLISECONDS.toNanos(slowQueryThreshold)) {
+            return;
+        }
+        long[] phaseTimes = new long[StatementPhase.values().length];
+        phaseTimes[StatementPhase.EXECUTION.ordinal()] = batchResult.getExecutionTime();
+        configuration.getSlowQueryLog().record(new SlowQuery(ms.getId(), batchResult.getSql(), null,
+                batchResult.getParameterObjects().size(), null, batchResult.getExecutionTime(), phaseTimes));
+    }
+
+    /**
+     * Returns the number of rows affected by a batch, not counting the statements whose count the driver did not report.
+     */
+    private static long sumUpdateCounts(int[] updateCounts) {
+        long rows = 0;
+        for (int count : updateCounts) {
+            if (count > 0) {
+                rows += count;
             }
-            currentSql = null;
-            statementList.clear();
-            batchResultList.clear();
         }
+        return rows;
+    }
+
+    private void clearBatches() {
+        for (Statement stmt : statementList) {
+            closeStatement(stmt);
+        }
+        statementList.clear();
+        batchResultList.clear();
+        batchIndexes.clear();
+        groupStart = 0;
+        pendingRows = 0;
+        pendingBytes = 0;
     }
 
 }
@@ -30,6 +30,7 @@ public class BatchResult {
   private final List<Object> parameterObjects;
 
   private int[] updateCounts;
+  private long executionTime;
 
   public BatchResult(MappedStatement mappedStatement, String sql) {
     super();
@@ -68,6 +69,18 @@ public class BatchResult {
     this.updateCounts = updateCounts;
   }
 
+  /**
+   * @return the time spent executing the batch, in nanoseconds
+   * @since 3.5.6
+   */
+  public long getExecutionTime() {
+    return executionTime;
+  }
+
+  public void setExecutionTime(long executionTime) {
+    this.executionTime = executionTime;
+  }
+
   public void addParameterObject(Object parameterObject) {
     this.parameterObjects.add(parameterObject);
   }
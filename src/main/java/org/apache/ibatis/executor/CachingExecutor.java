@@ -17,6 +17,7 @@ package org.apache.ibatis.executor;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.mapping.*;
@@ -149,9 +150,14 @@ public class CachingExecutor implements Executor {
                 @SuppressWarnings("unchecked")
                 List<E> list = (List<E>) tcm.getObject(cache, key);
                 if (list == null) {
+                    long start = System.nanoTime();
                     //如果二级缓存没命中，则调用装饰器模式的这个方法：这方法中是先查询一级缓存，如果还没命中，则会查询数据库
                     // 此处的delegate为SimpleExecutor
                     list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
+                    CacheStats stats = cache.getStats();
+                    if (stats != null) {
+                        stats.recordLoad(System.nanoTime() - start);
+                    }
                     // 把查询出的数据放到TransactionCache的entriesToAddOnCommit这个HashMap中，
                     // 要注意：只是暂时存放到这里，只有当事务提交后，这里的数据才会真正的放到二级缓存中，后面会介绍这个 分析此方法
                     tcm.putObject(cache, key, list); // issue #578 and #116
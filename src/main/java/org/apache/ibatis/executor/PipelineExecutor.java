@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * Queues the updates of a transaction and sends them on commit, on flush or before the next query, grouping the
+ * statements of the same SQL into one JDBC batch even when other statements were issued in between.
+ * <p>
+ * Batches are executed in the order their first statement was issued, and a statement is never moved ahead of a
+ * statement of another command type. When the driver does not support batch updates the statements are executed
+ * immediately and return their update counts.
+ *
+ * @since 3.5.6
+ */
+public class PipelineExecutor extends BatchExecutor {
+
+  private Boolean supportsBatchUpdates;
+
+  public PipelineExecutor(Configuration configuration, Transaction transaction) {
+    super(configuration, transaction);
+  }
+
+  @Override
+  public int doUpdate(MappedStatement ms, Object parameterObject) throws SQLException {
+    if (supportsBatchUpdates()) {
+      return super.doUpdate(ms, parameterObject);
+    }
+    Statement stmt = null;
+    StatementHandler handler = null;
+    Integer slowQueryThreshold = configuration.getSlowQueryThreshold(ms);
+    long start = slowQueryThreshold == null ? 0L : System.nanoTime();
+    long rows = -1;
+    try {
+      handler = ms.getConfiguration().newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, null);
+      stmt = handler.prepare(getConnection(ms.getStatementLog()), transaction.getTimeout());
+      handler.parameterize(stmt);
+      int updated = handler.update(stmt);
+      rows = updated;
+      return updated;
+    } finally {
+      if (slowQueryThreshold != null && handler != null) {
+        recordSlowQuery(ms, handler, slowQueryThreshold, start, rows);
+      }
+      closeStatement(stmt);
+    }
+  }
+
+  @Override
+  protected boolean isBatchGrouping() {
+    return true;
+  }
+
+  private boolean supportsBatchUpdates() throws SQLException {
+    if (supportsBatchUpdates == null) {
+      // the raw connection, so that asking the driver does not take a statement log sample
+      supportsBatchUpdates = transaction.getConnection().getMetaData().supportsBatchUpdates();
+    }
+    return supportsBatchUpdates;
+  }
+
+}
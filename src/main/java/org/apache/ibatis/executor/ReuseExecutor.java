@@ -55,17 +55,43 @@ public class ReuseExecutor extends BaseExecutor {
     @Override
     public int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
         Configuration configuration = ms.getConfiguration();
+        Integer slowQueryThreshold = configuration.getSlowQueryThreshold(ms);
+        long start = slowQueryThreshold == null ? 0L : System.nanoTime();
         StatementHandler handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
-        Statement stmt = prepareStatement(handler, ms.getStatementLog());
-        return handler.update(stmt);
+        long rows = -1;
+        try {
+            Statement stmt = prepareStatement(handler, ms.getStatementLog());
+            int updated = handler.update(stmt);
+            rows = updated;
+            return updated;
+        } finally {
+            // failed and timed out executions are recorded too
+            if (slowQueryThreshold != null) {
+                recordSlowQuery(ms, handler, slowQueryThreshold, start, rows);
+            }
+        }
     }
 
     @Override
     public <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
         Configuration configuration = ms.getConfiguration();
+        Integer slowQueryThreshold = configuration.getSlowQueryThreshold(ms);
+        long start = slowQueryThreshold == null ? 0L : System.nanoTime();
         StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
-        Statement stmt = prepareStatement(handler, ms.getStatementLog());
-        return handler.query(stmt, resultHandler);
+        long rows = -1;
+        try {
+            Statement stmt = prepareStatement(handler, ms.getStatementLog());
+            List<E> list = handler.query(stmt, resultHandler);
+            if (resultHandler == null) {
+                rows = list.size();
+            }
+            return list;
+        } finally {
+            // failed and timed out executions are recorded too
+            if (slowQueryThreshold != null) {
+                recordSlowQuery(ms, handler, slowQueryThreshold, start, rows);
+            }
+        }
     }
 
     @Override
@@ -1,5 +1,5 @@
 /**
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  * <p>
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,12 +53,22 @@ public class SimpleExecutor extends BaseExecutor {
     @Override
     public int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
         Statement stmt = null;
+        StatementHandler handler = null;
+        Integer slowQueryThreshold = configuration.getSlowQueryThreshold(ms);
+        long start = slowQueryThreshold == null ? 0L : System.nanoTime();
+        long rows = -1;
         try {
             Configuration configuration = ms.getConfiguration();
-            StatementHandler handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
+            handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
             stmt = prepareStatement(handler, ms.getStatementLog());
-            return handler.update(stmt);
+            int updated = handler.update(stmt);
+            rows = updated;
+            return updated;
         } finally {
+            // failed and timed out executions are recorded too
+            if (slowQueryThreshold != null && handler != null) {
+                recordSlowQuery(ms, handler, slowQueryThreshold, start, rows);
+            }
             // 进行关闭
             closeStatement(stmt);
         }
@@ -67,12 +77,24 @@ public class SimpleExecutor extends BaseExecutor {
     @Override
     public <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
         Statement stmt = null;
+        StatementHandler handler = null;
+        Integer slowQueryThreshold = configuration.getSlowQueryThreshold(ms);
+        long start = slowQueryThreshold == null ? 0L : System.nanoTime();
+        long rows = -1;
         try {
             Configuration configuration = ms.getConfiguration();
-            StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
+            handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
             stmt = prepareStatement(handler, ms.getStatementLog());
-            return handler.query(stmt, resultHandler);
+            List<E> list = handler.query(stmt, resultHandler);
+            if (resultHandler == null) {
+                rows = list.size();
+            }
+            return list;
         } finally {
+            // failed and timed out executions are recorded too
+            if (slowQueryThreshold != null && handler != null) {
+                recordSlowQuery(ms, handler, slowQueryThreshold, start, rows);
+            }
             closeStatement(stmt);
         }
     }
@@ -35,8 +35,12 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.ArrayUtil;
+import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.BeanWrapper;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
 import org.apache.ibatis.type.JdbcType;
@@ -240,6 +244,8 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
     private final String paramName;
     private final String propertyName;
     private TypeHandler<?> typeHandler;
+    private Class<?> beanType;
+    private Invoker setInvoker;
 
     protected KeyAssigner(Configuration configuration, ResultSetMetaData rsmd, int columnPosition, String paramName,
         String propertyName) {
@@ -257,8 +263,13 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
         // If paramName is set, param is ParamMap
         param = ((ParamMap<?>) param).get(paramName);
       }
-      MetaObject metaParam = configuration.newMetaObject(param);
       try {
+        if (param != null && param.getClass() == beanType) {
+          // Same bean type as the previous row: skip MetaObject creation and property resolution.
+          setBeanProperty(param, typeHandler.getResult(rs, columnPosition));
+          return;
+        }
+        MetaObject metaParam = configuration.newMetaObject(param);
         if (typeHandler == null) {
           if (metaParam.hasSetter(propertyName)) {
             Class<?> propertyType = metaParam.getSetterType(propertyName);
@@ -274,11 +285,26 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
         } else {
           Object value = typeHandler.getResult(rs, columnPosition);
           metaParam.setValue(propertyName, value);
+          if (metaParam.getObjectWrapper() instanceof BeanWrapper && propertyName.indexOf('.') == -1
+              && propertyName.indexOf('[') == -1) {
+            beanType = param.getClass();
+            setInvoker = configuration.getReflectorFactory().findForClass(beanType).getSetInvoker(propertyName);
+          }
         }
       } catch (SQLException e) {
         throw new ExecutorException("Error getting generated key or setting result to parameter object. Cause: " + e,
             e);
       }
     }
+
+    private void setBeanProperty(Object param, Object value) {
+      try {
+        setInvoker.invoke(param, new Object[] { value });
+      } catch (Throwable t) {
+        Throwable cause = ExceptionUtil.unwrapThrowable(t);
+        throw new ReflectionException("Could not set property '" + propertyName + "' of '" + beanType + "' with value '"
+            + value + "' Cause: " + cause, cause);
+      }
+    }
   }
 }
@@ -0,0 +1,74 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the metrics of every executed statement in memory, see {@link StatementStats}.
+ * <p>
+ * The metrics of a statement take a few kilobytes and are kept until {@link #reset()} is called.
+ *
+ * @since 3.5.6
+ */
+public class DefaultStatementMetrics implements StatementMetrics {
+
+  private final ConcurrentMap<String, StatementStats> stats = new ConcurrentHashMap<>();
+
+  @Override
+  public void recordLatency(String statementId, long time) {
+    statsOf(statementId).getLatency().record(time);
+  }
+
+  @Override
+  public void recordPhase(String statementId, StatementPhase phase, long time) {
+    statsOf(statementId).recordPhase(phase, time);
+  }
+
+  @Override
+  public void recordRows(String statementId, long rows) {
+    statsOf(statementId).getRows().record(rows);
+  }
+
+  /**
+   * @param statementId
+   *          the id of a mapped statement
+   * @return the metrics of the statement, or null if it was not executed
+   */
+  public StatementStats getStats(String statementId) {
+    return stats.get(statementId);
+  }
+
+  public Collection<StatementStats> getAllStats() {
+    return Collections.unmodifiableCollection(stats.values());
+  }
+
+  public void reset() {
+    stats.clear();
+  }
+
+  private StatementStats statsOf(String statementId) {
+    StatementStats statementStats = stats.get(statementId);
+    if (statementStats == null) {
+      statementStats = stats.computeIfAbsent(statementId, StatementStats::new);
+    }
+    return statementStats;
+  }
+
+}
@@ -0,0 +1,122 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of non-negative values with log-linear buckets, in the manner of an HDR histogram.
+ * <p>
+ * Values below 8 have a bucket each. Each power of two above is split into 8 buckets, so a recorded value is reported
+ * within 12.5% of its actual value. Values of 2<sup>41</sup> and more (about 36 minutes in nanoseconds) are counted in
+ * the last bucket, whose percentiles report the maximum recorded value. Recording a value costs a few atomic increments
+ * and no allocation.
+ *
+ * @since 3.5.6
+ */
+public class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final long MAX_TRACKABLE_VALUE = (1L << 41) - 1;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(bucketIndex(MAX_TRACKABLE_VALUE) + 1);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder total = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+  public void record(long value) {
+    long trackable = Math.max(value, 0L);
+    buckets.incrementAndGet(bucketIndex(Math.min(trackable, MAX_TRACKABLE_VALUE)));
+    count.increment();
+    total.add(trackable);
+    max.accumulate(trackable);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getTotal() {
+    return total.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    long values = getCount();
+    return values == 0 ? 0.0 : (double) getTotal() / values;
+  }
+
+  /**
+   * Returns the value below which the given percentage of the recorded values fall.
+   *
+   * @param percentile
+   *          the percentile, between 0 and 100
+   * @return the highest value of the bucket holding the percentile, not above the maximum recorded value, or 0 if no
+   *         value was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    long[] counts = new long[buckets.length()];
+    long values = 0;
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = buckets.get(i);
+      values += counts[i];
+    }
+    if (values == 0) {
+      return 0L;
+    }
+    double fraction = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+    long rank = Math.max(1L, (long) Math.ceil(fraction * values));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return i == counts.length - 1 ? getMax() : Math.min(highestValueOf(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long highestValueOf(int bucketIndex) {
+    if (bucketIndex < SUB_BUCKETS) {
+      return bucketIndex;
+    }
+    int shift = bucketIndex / SUB_BUCKETS - 1;
+    long lowest = (long) (SUB_BUCKETS + bucketIndex % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + getCount() + ", mean=" + Math.round(getMean()) + ", p50=" + getValueAtPercentile(50)
+        + ", p99=" + getValueAtPercentile(99) + ", max=" + getMax();
+  }
+
+}
@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An execution of a statement that took longer than its slow query threshold, see {@link SlowQueryLog}.
+ *
+ * @since 3.5.6
+ */
+public class SlowQuery {
+
+  private final long timestamp;
+  private final String statementId;
+  private final String sql;
+  private final List<String> parameters;
+  private final long rows;
+  private final Integer fetchSize;
+  private final long elapsedTime;
+  private final long[] phaseTimes;
+
+  /**
+   * @param statementId
+   *          the id of the mapped statement
+   * @param sql
+   *          the executed SQL
+   * @param parameters
+   *          the string forms of the values bound to the parameters of the SQL, or null if they are redacted, could
+   *          not be read or belong to a batch
+   * @param rows
+   *          the number of result objects or affected rows, the number of statements of a batch, or -1 if it is not
+   *          known or the execution failed
+   * @param fetchSize
+   *          the fetch size of the statement, or null if the driver default was used
+   * @param elapsedTime
+   *          the time in nanoseconds from obtaining the connection to returning the results
+   * @param phaseTimes
+   *          the times in nanoseconds spent in each {@link StatementPhase}, indexed by ordinal
+   */
+  public SlowQuery(String statementId, String sql, List<String> parameters, long rows, Integer fetchSize,
+      long elapsedTime, long[] phaseTimes) {
+    this.timestamp = System.currentTimeMillis();
+    this.statementId = statementId;
+    this.sql = sql;
+    this.parameters = parameters;
+    this.rows = rows;
+    this.fetchSize = fetchSize;
+    this.elapsedTime = elapsedTime;
+    this.phaseTimes = phaseTimes.clone();
+  }
+
+  /**
+   * @return the time in milliseconds since the epoch when the execution was recorded
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Returns the values bound to the parameters of the SQL as they were when the query was recorded, so the log does not
+   * keep the parameter objects alive nor shows later changes to them.
+   *
+   * @return the string forms of the values, null for null values, or null if they are redacted, could not be read or
+   *         belong to a batch
+   */
+  public List<String> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * @return the number of result objects or affected rows, the number of statements of a batch, or -1 if it is not
+   *         known or the execution failed
+   */
+  public long getRows() {
+    return rows;
+  }
+
+  public Integer getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * @return the time in nanoseconds from obtaining the connection to returning the results
+   */
+  public long getElapsedTime() {
+    return elapsedTime;
+  }
+
+  /**
+   * @param phase
+   *          the phase
+   * @return the time in nanoseconds spent in the phase
+   */
+  public long getPhaseTime(StatementPhase phase) {
+    return phase.ordinal() < phaseTimes.length ? phaseTimes[phase.ordinal()] : 0L;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("SlowQuery[").append(statementId).append("] ")
+        .append(elapsedTime / 1000000).append(" ms");
+    for (StatementPhase phase : StatementPhase.values()) {
+      builder.append(", ").append(phase.name().toLowerCase(Locale.ENGLISH)).append('=').append(getPhaseTime(phase) / 1000000)
+          .append(" ms");
+    }
+    return builder.append(", rows=").append(rows).append(", fetchSize=").append(fetchSize).append(", sql=").append(sql)
+        .append(", parameters=").append(parameters == null ? "<redacted>" : parameters).toString();
+  }
+
+}
@@ -0,0 +1,96 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded ring buffer of the latest {@link SlowQuery slow queries}. Once it is full, each recorded query replaces
+ * the oldest one.
+ *
+ * @since 3.5.6
+ */
+public class SlowQueryLog {
+
+  private final AtomicReferenceArray<SlowQuery> entries;
+  private final AtomicLong recordCount = new AtomicLong();
+
+  /**
+   * @param capacity
+   *          the number of slow queries kept
+   */
+  public SlowQueryLog(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity of the slow query log must be positive but was " + capacity);
+    }
+    this.entries = new AtomicReferenceArray<>(capacity);
+  }
+
+  public int getCapacity() {
+    return entries.length();
+  }
+
+  public void record(SlowQuery slowQuery) {
+    long index = recordCount.getAndIncrement();
+    entries.set((int) (index % entries.length()), slowQuery);
+  }
+
+  /**
+   * @return the number of slow queries recorded since the log was created, including the ones no longer kept
+   */
+  public long getRecordCount() {
+    return recordCount.get();
+  }
+
+  /**
+   * Returns the kept slow queries, oldest first. Queries recorded while the list is built may be missing from it.
+   *
+   * @return the slow queries
+   */
+  public List<SlowQuery> getSlowQueries() {
+    long end = recordCount.get();
+    long start = Math.max(0L, end - entries.length());
+    List<SlowQuery> slowQueries = new ArrayList<>((int) (end - start));
+    for (long i = start; i < end; i++) {
+      SlowQuery slowQuery = entries.get((int) (i % entries.length()));
+      if (slowQuery != null) {
+        slowQueries.add(slowQuery);
+      }
+    }
+    return slowQueries;
+  }
+
+  /**
+   * @param statementId
+   *          the id of a mapped statement
+   * @return the kept slow queries of the statement, oldest first
+   */
+  public List<SlowQuery> getSlowQueries(String statementId) {
+    List<SlowQuery> slowQueries = getSlowQueries();
+    slowQueries.removeIf(slowQuery -> !slowQuery.getStatementId().equals(statementId));
+    return slowQueries;
+  }
+
+  public void clear() {
+    for (int i = 0; i < entries.length(); i++) {
+      entries.set(i, null);
+    }
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * Receives the timings and row counts of the executed statements.
+ * <p>
+ * Implementations are called on the thread executing the statement for every execution, so they must be thread safe
+ * and cheap. Times are in nanoseconds.
+ * <p>
+ * Queries returning a {@link org.apache.ibatis.cursor.Cursor} only record their {@link StatementPhase#PARAMETERS} and
+ * {@link StatementPhase#EXECUTION} phases. Their rows are fetched after the executor returns, so no latency, rows or
+ * {@link StatementPhase#RESULTS} time is recorded for them.
+ *
+ * @since 3.5.6
+ * @see DefaultStatementMetrics
+ */
+public interface StatementMetrics {
+
+  /**
+   * Records the time of a statement execution by the executor, from obtaining the connection to returning the results.
+   * Results of queries returned from the local cache are not recorded. Batched updates are recorded once per executed
+   * batch, with the time of executing the batch.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @param time
+   *          the time in nanoseconds
+   */
+  void recordLatency(String statementId, long time);
+
+  /**
+   * Records the time spent in one phase of a statement execution.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @param phase
+   *          the phase
+   * @param time
+   *          the time in nanoseconds
+   */
+  void recordPhase(String statementId, StatementPhase phase, long time);
+
+  /**
+   * Records the number of result objects returned by a query, or the number of rows affected by an update or by an
+   * executed batch.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @param rows
+   *          the number of rows
+   */
+  void recordRows(String statementId, long rows);
+
+}
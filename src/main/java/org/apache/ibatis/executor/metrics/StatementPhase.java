@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * The phases a statement execution is split into by {@link StatementMetrics}.
+ *
+ * @since 3.5.6
+ */
+public enum StatementPhase {
+  /**
+   * Setting the parameters of the statement.
+   */
+  PARAMETERS,
+  /**
+   * Executing the statement on the database.
+   */
+  EXECUTION,
+  /**
+   * Fetching the rows of the result sets and mapping them to result objects. Both are interleaved, as rows are fetched
+   * by the driver while they are read.
+   */
+  RESULTS
+}
@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one mapped statement collected by {@link DefaultStatementMetrics}: a histogram of its latency, a
+ * histogram of its row counts and the total time spent in each {@link StatementPhase}.
+ *
+ * @since 3.5.6
+ */
+public class StatementStats {
+
+  private final String id;
+  private final Histogram latency = new Histogram();
+  private final Histogram rows = new Histogram();
+  private final LongAdder[] phaseTimes = new LongAdder[StatementPhase.values().length];
+
+  public StatementStats(String id) {
+    this.id = id;
+    for (int i = 0; i < phaseTimes.length; i++) {
+      phaseTimes[i] = new LongAdder();
+    }
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return the histogram of the execution times in nanoseconds
+   */
+  public Histogram getLatency() {
+    return latency;
+  }
+
+  /**
+   * @return the histogram of the numbers of result objects or affected rows
+   */
+  public Histogram getRows() {
+    return rows;
+  }
+
+  /**
+   * @param phase
+   *          the phase
+   * @return the total time in nanoseconds spent in the phase
+   */
+  public long getPhaseTime(StatementPhase phase) {
+    return phaseTimes[phase.ordinal()].sum();
+  }
+
+  void recordPhase(StatementPhase phase, long time) {
+    phaseTimes[phase.ordinal()].add(time);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("StatementStats[").append(id).append("] latency(ns): ").append(latency)
+        .append(", rows: ").append(rows);
+    for (StatementPhase phase : StatementPhase.values()) {
+      builder.append(", ").append(phase.name().toLowerCase(Locale.ENGLISH)).append('=').append(getPhaseTime(phase)).append("ns");
+    }
+    return builder.toString();
+  }
+
+}
@@ -0,0 +1,57 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.parameter;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Reads the values bound to the parameter mappings of a {@link BoundSql}: an additional parameter if there is one, else
+ * the parameter object itself if it has a type handler, else a property of the parameter object.
+ *
+ * @since 3.5.6
+ */
+public class ParameterValueReader {
+
+  private final Configuration configuration;
+  private final BoundSql boundSql;
+  private final Object parameterObject;
+  private MetaObject metaObject;
+
+  public ParameterValueReader(Configuration configuration, BoundSql boundSql, Object parameterObject) {
+    this.configuration = configuration;
+    this.boundSql = boundSql;
+    this.parameterObject = parameterObject;
+  }
+
+  public Object getValue(ParameterMapping parameterMapping) {
+    String propertyName = parameterMapping.getProperty();
+    if (boundSql.hasAdditionalParameter(propertyName)) { // issue #448 ask first for additional params
+      return boundSql.getAdditionalParameter(propertyName);
+    } else if (parameterObject == null) {
+      return null;
+    } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+      return parameterObject;
+    }
+    if (metaObject == null) {
+      metaObject = configuration.newMetaObject(parameterObject);
+    }
+    return metaObject.getValue(propertyName);
+  }
+
+}
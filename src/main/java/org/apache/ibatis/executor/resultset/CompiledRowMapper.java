@@ -0,0 +1,188 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Sets the properties of the result objects of a simple result map, with the column indexes, type handlers and setters
+ * resolved once for the column layout of a result set instead of for every row.
+ *
+ * @since 3.5.6
+ */
+final class CompiledRowMapper {
+
+  private final Class<?> resultClass;
+  private final int[] columnIndexes;
+  private final TypeHandler<?>[] typeHandlers;
+  private final String[] properties;
+  private final Invoker[] setters;
+  private final boolean[] setNulls;
+
+  private CompiledRowMapper(Builder builder) {
+    int size = builder.properties.size();
+    this.resultClass = builder.resultClass;
+    this.columnIndexes = new int[size];
+    this.typeHandlers = builder.typeHandlers.toArray(new TypeHandler<?>[size]);
+    this.properties = builder.properties.toArray(new String[size]);
+    this.setters = builder.setters.toArray(new Invoker[size]);
+    this.setNulls = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      columnIndexes[i] = builder.columnIndexes.get(i);
+      setNulls[i] = builder.setNulls.get(i);
+    }
+  }
+
+  /**
+   * @param rowValue
+   *          a result object
+   * @return true if the object has the class this mapper was compiled for
+   */
+  boolean isApplicableTo(Object rowValue) {
+    return rowValue.getClass() == resultClass;
+  }
+
+  /**
+   * Sets the properties of a result object from the current row.
+   *
+   * @param rs
+   *          the result set, positioned on the row
+   * @param rowValue
+   *          the result object
+   * @return true if at least one mapped column was not null
+   * @throws SQLException
+   *           if a column could not be read
+   */
+  boolean map(ResultSet rs, Object rowValue) throws SQLException {
+    boolean foundValues = false;
+    for (int i = 0; i < columnIndexes.length; i++) {
+      final Object value = typeHandlers[i].getResult(rs, columnIndexes[i]);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || setNulls[i]) {
+        // gcode issue #377, call setter on nulls (value is not 'found')
+        setValue(rowValue, i, value);
+      }
+    }
+    return foundValues;
+  }
+
+  /**
+   * Reads the mapped columns of the current row, so that they can be applied by {@link #apply} on another thread.
+   *
+   * @param rs
+   *          the result set, positioned on the row
+   * @return the column values, in mapping order
+   * @throws SQLException
+   *           if a column could not be read
+   */
+  Object[] read(ResultSet rs) throws SQLException {
+    final Object[] values = new Object[columnIndexes.length];
+    for (int i = 0; i < columnIndexes.length; i++) {
+      values[i] = typeHandlers[i].getResult(rs, columnIndexes[i]);
+    }
+    return values;
+  }
+
+  /**
+   * Sets the properties of a result object from column values returned by {@link #read}.
+   *
+   * @param values
+   *          the column values
+   * @param rowValue
+   *          the result object
+   * @return true if at least one value was not null
+   */
+  boolean apply(Object[] values, Object rowValue) {
+    boolean foundValues = false;
+    for (int i = 0; i < values.length; i++) {
+      final Object value = values[i];
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || setNulls[i]) {
+        setValue(rowValue, i, value);
+      }
+    }
+    return foundValues;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void setValue(Object rowValue, int index, Object value) {
+    Invoker setter = setters[index];
+    if (setter == null) {
+      ((Map<String, Object>) rowValue).put(properties[index], value);
+      return;
+    }
+    try {
+      setter.invoke(rowValue, new Object[] { value });
+    } catch (Throwable t) {
+      Throwable cause = ExceptionUtil.unwrapThrowable(t);
+      throw new ReflectionException("Could not set property '" + properties[index] + "' of '" + rowValue.getClass()
+          + "' with value '" + value + "' Cause: " + cause.toString(), cause);
+    }
+  }
+
+  static class Builder {
+    private final Class<?> resultClass;
+    private final List<Integer> columnIndexes = new ArrayList<>();
+    private final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+    private final List<String> properties = new ArrayList<>();
+    private final List<Invoker> setters = new ArrayList<>();
+    private final List<Boolean> setNulls = new ArrayList<>();
+
+    Builder(Class<?> resultClass) {
+      this.resultClass = resultClass;
+    }
+
+    /**
+     * @param columnIndex
+     *          the index of the column, starting at 1
+     * @param typeHandler
+     *          the type handler reading the column
+     * @param property
+     *          the property to set
+     * @param setter
+     *          the setter of the property, or null to put the value in a map
+     * @param setNull
+     *          true to also set null values
+     * @return this builder
+     */
+    Builder addMapping(int columnIndex, TypeHandler<?> typeHandler, String property, Invoker setter, boolean setNull) {
+      columnIndexes.add(columnIndex);
+      typeHandlers.add(typeHandler);
+      properties.add(property);
+      setters.add(setter);
+      setNulls.add(setNull);
+      return this;
+    }
+
+    CompiledRowMapper build() {
+      return new CompiledRowMapper(this);
+    }
+  }
+
+}
@@ -20,13 +20,18 @@ import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
@@ -38,6 +43,7 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
@@ -53,6 +59,9 @@ import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.wrapper.BeanWrapper;
+import org.apache.ibatis.reflection.wrapper.MapWrapper;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
@@ -71,6 +80,7 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
+  private static final int PARALLEL_MAPPING_CHUNK_SIZE = 256;
 
   private final Executor executor;
   private final Configuration configuration;
@@ -87,6 +97,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
+  private boolean streamNestedResults;
+  private long resultCount;
 
   // multiple resultsets
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
@@ -95,6 +107,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
 
+  // row mappers compiled for the current result set, null values for result maps that cannot be compiled
+  private final Map<String, CompiledRowMapper> compiledRowMappers = new HashMap<>();
+
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
@@ -212,6 +227,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    StatementMetrics statementMetrics = configuration.getStatementMetrics();
+    if (statementMetrics != null) {
+      statementMetrics.recordRows(mappedStatement.getId(), resultCount);
+    }
     return collapseSingleResultList(multipleResults);
   }
 
@@ -230,6 +249,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
+    streamNestedResults = configuration.isStreamNestedCursorResults();
     return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
   }
 
@@ -282,6 +302,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    compiledRowMappers.clear();
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -353,6 +374,94 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
+      if (resultContext.getResultCount() == 1 && canMapRowsInParallel(rsw, resultMap, resultHandler, parentMapping, rowValue)) {
+        mapRowsInParallel(rsw, resultMap, compiledRowMappers.get(resultMap.getId()), resultHandler, resultContext, rowBounds);
+        return;
+      }
+    }
+  }
+
+  //
+  // PARALLEL MAPPING FOR SIMPLE RESULT MAP
+  //
+
+  /**
+   * Rows can be mapped on other threads when the whole list is collected, and the first row was mapped by a compiled
+   * row mapper to an object created without reading the result set.
+   */
+  private boolean canMapRowsInParallel(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler,
+      ResultMapping parentMapping, Object rowValue) {
+    if (!configuration.isParallelResultMapping() || parentMapping != null || !(resultHandler instanceof DefaultResultHandler)
+        || rowValue == null || resultMap.getDiscriminator() != null || !resultMap.getConstructorResultMappings().isEmpty()
+        || useConstructorMappings || hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
+      return false;
+    }
+    CompiledRowMapper rowMapper = compiledRowMappers.get(resultMap.getId());
+    return rowMapper != null && rowMapper.isApplicableTo(rowValue);
+  }
+
+  /**
+   * Reads the remaining rows on the calling thread and maps them in chunks on the common fork join pool. The results
+   * are passed to the result handler on the calling thread, in row order.
+   */
+  private void mapRowsInParallel(ResultSetWrapper rsw, ResultMap resultMap, CompiledRowMapper rowMapper,
+      ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, RowBounds rowBounds) throws SQLException {
+    final ResultSet resultSet = rsw.getResultSet();
+    final Class<?> type = resultMap.getType();
+    final int maxPendingChunks = ForkJoinPool.getCommonPoolParallelism() * 2;
+    final Deque<Future<Object[]>> pendingChunks = new ArrayDeque<>();
+    List<Object[]> rows = new ArrayList<>(PARALLEL_MAPPING_CHUNK_SIZE);
+    int remaining = rowBounds.getLimit() - resultContext.getResultCount();
+    try {
+      while (remaining > 0 && !resultSet.isClosed() && resultSet.next()) {
+        rows.add(rowMapper.read(resultSet));
+        remaining--;
+        if (rows.size() == PARALLEL_MAPPING_CHUNK_SIZE) {
+          final List<Object[]> chunk = rows;
+          pendingChunks.add(ForkJoinPool.commonPool().submit(() -> mapRows(rowMapper, type, chunk)));
+          rows = new ArrayList<>(PARALLEL_MAPPING_CHUNK_SIZE);
+          while (!pendingChunks.isEmpty() && (pendingChunks.size() > maxPendingChunks || pendingChunks.peek().isDone())) {
+            storeRows(resultHandler, resultContext, pendingChunks.poll());
+          }
+        }
+      }
+      while (!pendingChunks.isEmpty()) {
+        storeRows(resultHandler, resultContext, pendingChunks.poll());
+      }
+    } finally {
+      pendingChunks.forEach(chunk -> chunk.cancel(false));
+    }
+    for (Object rowValue : mapRows(rowMapper, type, rows)) {
+      callResultHandler(resultHandler, resultContext, rowValue);
+    }
+  }
+
+  private Object[] mapRows(CompiledRowMapper rowMapper, Class<?> type, List<Object[]> rows) {
+    final Object[] rowValues = new Object[rows.size()];
+    for (int i = 0; i < rowValues.length; i++) {
+      final Object rowValue = objectFactory.create(type);
+      boolean foundValues = rowMapper.apply(rows.get(i), rowValue);
+      rowValues[i] = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+    }
+    return rowValues;
+  }
+
+  private void storeRows(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Future<Object[]> chunk) {
+    final Object[] rowValues;
+    try {
+      rowValues = chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while mapping rows.", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ExecutorException("Error mapping rows. Cause: " + cause, cause);
+    }
+    for (Object rowValue : rowValues) {
+      callResultHandler(resultHandler, resultContext, rowValue);
     }
   }
 
@@ -366,6 +475,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object>*/)
   private void callResultHandler(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue) {
+    resultCount++;
     resultContext.nextResultObject(rowValue);
     ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
   }
@@ -396,6 +506,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
+      final CompiledRowMapper rowMapper = getCompiledRowMapper(rsw, resultMap, columnPrefix, rowValue);
+      if (rowMapper != null) {
+        boolean foundValues = rowMapper.map(rsw.getResultSet(), rowValue) || this.useConstructorMappings;
+        return foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+      }
       final MetaObject metaObject = configuration.newMetaObject(rowValue);
       boolean foundValues = this.useConstructorMappings;
       if (shouldApplyAutomaticMappings(resultMap, false)) {
@@ -477,7 +592,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (propertyMapping.isCompositeResult()
           || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -498,8 +613,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
+    final ResultSet rs = rsw.getResultSet();
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
@@ -508,8 +624,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      return getColumnValue(rsw, typeHandler, column);
+    }
+  }
+
+  private Object getColumnValue(ResultSetWrapper rsw, TypeHandler<?> typeHandler, String column) throws SQLException {
+    final int columnIndex = rsw.getColumnIndex(column);
+    if (columnIndex > 0) {
+      return typeHandler.getResult(rsw.getResultSet(), columnIndex);
     }
+    // let the driver report a missing column
+    return typeHandler.getResult(rsw.getResultSet(), column);
   }
 
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
@@ -557,7 +682,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = getColumnValue(rsw, mapping.typeHandler, mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -570,6 +695,82 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
+  //
+  // COMPILED ROW MAPPERS
+  //
+
+  private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix, Object rowValue)
+      throws SQLException {
+    if (!configuration.isCompileRowMappers() || columnPrefix != null) {
+      return null;
+    }
+    final String resultMapId = resultMap.getId();
+    CompiledRowMapper rowMapper = compiledRowMappers.get(resultMapId);
+    if (rowMapper == null && !compiledRowMappers.containsKey(resultMapId)) {
+      rowMapper = compileRowMapper(rsw, resultMap, configuration.newMetaObject(rowValue));
+      compiledRowMappers.put(resultMapId, rowMapper);
+    }
+    return rowMapper != null && rowMapper.isApplicableTo(rowValue) ? rowMapper : null;
+  }
+
+  /**
+   * Resolves the auto mappings and the property mappings of a result map for the columns of a result set. Returns null
+   * for the mappings that need more than reading a column and setting a top level property, they are applied row by
+   * row as usual.
+   */
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject) throws SQLException {
+    final ObjectWrapper objectWrapper = metaObject.getObjectWrapper();
+    final boolean isMap = objectWrapper.getClass() == MapWrapper.class;
+    if (!configuration.isUseColumnLabel() || resultMap.hasNestedQueries() || resultMap.hasNestedResultMaps()
+        || !(isMap || objectWrapper.getClass() == BeanWrapper.class)) {
+      return null;
+    }
+    final Object rowValue = metaObject.getOriginalObject();
+    final MetaClass metaClass = isMap ? null : MetaClass.forClass(rowValue.getClass(), reflectorFactory);
+    final CompiledRowMapper.Builder builder = new CompiledRowMapper.Builder(rowValue.getClass());
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, null)) {
+        if (!addCompiledMapping(builder, rsw, metaClass, mapping.column, mapping.typeHandler, mapping.property,
+            configuration.isCallSettersOnNulls() && !mapping.primitive)) {
+          return null;
+        }
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.isCompositeResult() || propertyMapping.getResultSet() != null) {
+        return null;
+      }
+      final String column = propertyMapping.getColumn();
+      final String property = propertyMapping.getProperty();
+      // issue #541 make property optional
+      if (column == null || property == null || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      if (metaClass != null && !metaClass.hasSetter(property)) {
+        return null;
+      }
+      if (!addCompiledMapping(builder, rsw, metaClass, column, propertyMapping.getTypeHandler(), property,
+          configuration.isCallSettersOnNulls() && !metaObject.getSetterType(property).isPrimitive())) {
+        return null;
+      }
+    }
+    return builder.build();
+  }
+
+  private boolean addCompiledMapping(CompiledRowMapper.Builder builder, ResultSetWrapper rsw, MetaClass metaClass, String column,
+      TypeHandler<?> typeHandler, String property, boolean setNull) {
+    if (property.indexOf('.') >= 0 || property.indexOf('[') >= 0 || (metaClass != null && !metaClass.hasSetter(property))) {
+      return false;
+    }
+    final int columnIndex = rsw.getColumnIndex(column);
+    if (columnIndex == 0) {
+      return false;
+    }
+    builder.addMapping(columnIndex, typeHandler, property, metaClass == null ? null : metaClass.getSetInvoker(property), setNull);
+    return true;
+  }
+
   // MULTIPLE RESULT SETS
 
   private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
@@ -674,7 +875,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           value = getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
         } else {
           final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          value = getColumnValue(rsw, typeHandler, prependPrefix(column, columnPrefix));
         }
       } catch (ResultMapException | SQLException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -707,7 +908,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       Class<?> parameterType = constructor.getParameterTypes()[i];
       String columnName = rsw.getColumnNames().get(i);
       TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+      Object value = getColumnValue(rsw, typeHandler, columnName);
       constructorArgTypes.add(parameterType);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
@@ -752,7 +953,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       columnName = rsw.getColumnNames().get(0);
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    return getColumnValue(rsw, typeHandler, columnName);
   }
 
   //
@@ -899,7 +1100,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
-      if (mappedStatement.isResultOrdered()) {
+      if (isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
           nestedResultObjects.clear();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
@@ -912,7 +1113,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
+    if (rowValue != null && isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
       previousRowValue = null;
     } else if (rowValue != null) {
@@ -920,6 +1121,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  /**
+   * A cursor streaming nested results emits each parent once its group key changes, as if the statement was
+   * resultOrdered, so that the nested result objects do not accumulate over the whole result set.
+   */
+  private boolean isResultOrdered() {
+    return mappedStatement.isResultOrdered() || streamNestedResults;
+  }
+
   //
   // NESTED RESULT MAP (JOIN MAPPING)
   //
@@ -979,7 +1188,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (notNullColumns != null && !notNullColumns.isEmpty()) {
       ResultSet rs = rsw.getResultSet();
       for (String column : notNullColumns) {
-        rs.getObject(prependPrefix(column, columnPrefix));
+        final String prefixedColumn = prependPrefix(column, columnPrefix);
+        final int columnIndex = rsw.getColumnIndex(prefixedColumn);
+        if (columnIndex > 0) {
+          rs.getObject(columnIndex);
+        } else {
+          rs.getObject(prefixedColumn);
+        }
         if (!rs.wasNull()) {
           return true;
         }
@@ -1006,9 +1221,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMap.getId());
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
+    // the result map id and a column/value pair per mapping
+    final CacheKey cacheKey = new CacheKey(resultMappings.size() * 2 + 1);
+    cacheKey.update(resultMap.getId());
     if (resultMappings.isEmpty()) {
       if (Map.class.isAssignableFrom(resultMap.getType())) {
         createRowKeyForMap(rsw, cacheKey);
@@ -1054,7 +1270,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
+          final Object value = getColumnValue(rsw, th, column);
           if (value != null || configuration.isReturnInstanceForEmptyRow()) {
             cacheKey.update(column);
             cacheKey.update(value);
@@ -1078,7 +1294,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
-        String value = rsw.getResultSet().getString(column);
+        String value = rsw.getResultSet().getString(rsw.getColumnIndex(column));
         if (value != null) {
           cacheKey.update(column);
           cacheKey.update(value);
@@ -1090,7 +1306,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
     List<String> columnNames = rsw.getColumnNames();
     for (String columnName : columnNames) {
-      final String value = rsw.getResultSet().getString(columnName);
+      final String value = rsw.getResultSet().getString(rsw.getColumnIndex(columnName));
       if (value != null) {
         cacheKey.update(columnName);
         cacheKey.update(value);
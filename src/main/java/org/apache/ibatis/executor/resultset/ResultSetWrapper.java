@@ -45,6 +45,8 @@ public class ResultSetWrapper {
 
     private final List<JdbcType> jdbcTypes = new ArrayList<>();
 
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+
     private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
     private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
     private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
@@ -67,6 +69,7 @@ public class ResultSetWrapper {
             columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
             jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
             classNames.add(metaData.getColumnClassName(i));
+            columnIndexes.putIfAbsent(columnNames.get(i - 1).toUpperCase(Locale.ENGLISH), i);
         }
     }
 
@@ -78,6 +81,30 @@ public class ResultSetWrapper {
         return this.columnNames;
     }
 
+    /**
+     * Gets the index of a column, resolved once per result set instead of by the driver for every value read. Like
+     * {@link ResultSet#findColumn(String)}, the lookup ignores case and returns the first matching column.
+     *
+     * @param columnName the column name
+     * @return the column index starting at 1, or 0 if the result set has no such column
+     * @since 3.5.6
+     */
+    public int getColumnIndex(String columnName) {
+        if (columnName == null) {
+            return 0;
+        }
+        Integer index = columnIndexes.get(columnName);
+        if (index == null) {
+            index = columnIndexes.get(columnName.toUpperCase(Locale.ENGLISH));
+            if (index == null) {
+                return 0;
+            }
+            // next lookups with the same spelling need no conversion
+            columnIndexes.put(columnName, index);
+        }
+        return index;
+    }
+
     public List<String> getClassNames() {
         return Collections.unmodifiableList(classNames);
     }
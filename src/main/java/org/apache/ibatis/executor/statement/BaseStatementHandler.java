@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2020 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementPhase;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
@@ -38,11 +40,16 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
  */
 public abstract class BaseStatementHandler implements StatementHandler {
 
+  private static final int PHASE_COUNT = StatementPhase.values().length;
+
   protected final Configuration configuration;
   protected final ObjectFactory objectFactory;
   protected final TypeHandlerRegistry typeHandlerRegistry;
   protected final ResultSetHandler resultSetHandler;
   protected final ParameterHandler parameterHandler;
+  protected final StatementMetrics statementMetrics;
+  private final boolean timed;
+  private final long[] phaseTimes = new long[PHASE_COUNT];
 
   protected final Executor executor;
   protected final MappedStatement mappedStatement;
@@ -58,6 +65,8 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
+    this.statementMetrics = configuration.getStatementMetrics();
+    this.timed = statementMetrics != null || configuration.getSlowQueryThreshold(mappedStatement) != null;
 
     if (boundSql == null) { // issue #435, get the key before calculating the statement
       generateKeys(parameterObject);
@@ -125,6 +134,38 @@ public abstract class BaseStatementHandler implements StatementHandler {
     }
   }
 
+  /**
+   * @return the start time of a phase to pass to {@link #endPhase(StatementPhase, long)}
+   * @since 3.5.6
+   */
+  protected long startPhase() {
+    return timed ? System.nanoTime() : 0L;
+  }
+
+  /**
+   * Records the time spent in a phase of the statement if it is timed.
+   *
+   * @param phase
+   *          the phase
+   * @param startTime
+   *          the time returned by {@link #startPhase()}
+   * @since 3.5.6
+   */
+  protected void endPhase(StatementPhase phase, long startTime) {
+    if (timed) {
+      long time = System.nanoTime() - startTime;
+      phaseTimes[phase.ordinal()] += time;
+      if (statementMetrics != null) {
+        statementMetrics.recordPhase(mappedStatement.getId(), phase, time);
+      }
+    }
+  }
+
+  @Override
+  public long getPhaseTime(StatementPhase phase) {
+    return phaseTimes[phase.ordinal()];
+  }
+
   protected void closeStatement(Statement statement) {
     try {
       if (statement != null) {
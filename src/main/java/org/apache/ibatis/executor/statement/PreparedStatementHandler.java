@@ -1,5 +1,5 @@
 /**
- * Copyright 2009-2018 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  * <p>
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementPhase;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
@@ -40,7 +41,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
     @Override
     public int update(Statement statement) throws SQLException {
         PreparedStatement ps = (PreparedStatement) statement;
+        long startTime = startPhase();
         ps.execute();
+        endPhase(StatementPhase.EXECUTION, startTime);
         int rows = ps.getUpdateCount();
         Object parameterObject = boundSql.getParameterObject();
         KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
@@ -66,15 +69,22 @@ public class PreparedStatementHandler extends BaseStatementHandler {
     @Override
     public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
         PreparedStatement ps = (PreparedStatement) statement;
+        long startTime = startPhase();
         ps.execute();
+        endPhase(StatementPhase.EXECUTION, startTime);
         //结果交给了ResultSetHandler 去处理
-        return resultSetHandler.handleResultSets(ps);
+        startTime = startPhase();
+        List<E> resultList = resultSetHandler.handleResultSets(ps);
+        endPhase(StatementPhase.RESULTS, startTime);
+        return resultList;
     }
 
     @Override
     public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
         PreparedStatement ps = (PreparedStatement) statement;
+        long startTime = startPhase();
         ps.execute();
+        endPhase(StatementPhase.EXECUTION, startTime);
         return resultSetHandler.handleCursorResultSets(ps);
     }
 
@@ -110,7 +120,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
      */
     @Override
     public void parameterize(Statement statement) throws SQLException {
+        long startTime = startPhase();
         parameterHandler.setParameters((PreparedStatement) statement);
+        endPhase(StatementPhase.PARAMETERS, startTime);
     }
 
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright 2009-2018 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  * <p>
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementPhase;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
@@ -47,16 +48,20 @@ public class SimpleStatementHandler extends BaseStatementHandler {
         Object parameterObject = boundSql.getParameterObject();
         KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
         int rows;
+        long startTime = startPhase();
         if (keyGenerator instanceof Jdbc3KeyGenerator) {
             statement.execute(sql, Statement.RETURN_GENERATED_KEYS);
+            endPhase(StatementPhase.EXECUTION, startTime);
             rows = statement.getUpdateCount();
             keyGenerator.processAfter(executor, mappedStatement, statement, parameterObject);
         } else if (keyGenerator instanceof SelectKeyGenerator) {
             statement.execute(sql);
+            endPhase(StatementPhase.EXECUTION, startTime);
             rows = statement.getUpdateCount();
             keyGenerator.processAfter(executor, mappedStatement, statement, parameterObject);
         } else {
             statement.execute(sql);
+            endPhase(StatementPhase.EXECUTION, startTime);
             rows = statement.getUpdateCount();
         }
         return rows;
@@ -71,14 +76,21 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     @Override
     public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
         String sql = boundSql.getSql();
+        long startTime = startPhase();
         statement.execute(sql);
-        return resultSetHandler.handleResultSets(statement);
+        endPhase(StatementPhase.EXECUTION, startTime);
+        startTime = startPhase();
+        List<E> resultList = resultSetHandler.handleResultSets(statement);
+        endPhase(StatementPhase.RESULTS, startTime);
+        return resultList;
     }
 
     @Override
     public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
         String sql = boundSql.getSql();
+        long startTime = startPhase();
         statement.execute(sql);
+        endPhase(StatementPhase.EXECUTION, startTime);
         return resultSetHandler.handleCursorResultSets(statement);
     }
 
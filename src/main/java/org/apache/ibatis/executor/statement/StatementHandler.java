@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2020 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.sql.Statement;
 import java.util.List;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.metrics.StatementPhase;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.session.ResultHandler;
@@ -52,4 +53,17 @@ public interface StatementHandler {
 
   ParameterHandler getParameterHandler();
 
+  /**
+   * Returns the time the handler spent in a phase of its execution. Phases are only timed while statement metrics are
+   * collected or the statement has a slow query threshold.
+   *
+   * @param phase
+   *          the phase
+   * @return the time in nanoseconds, 0 if the phase was not timed
+   * @since 3.5.6
+   */
+  default long getPhaseTime(StatementPhase phase) {
+    return 0L;
+  }
+
 }
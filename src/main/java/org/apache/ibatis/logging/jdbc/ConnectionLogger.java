@@ -35,10 +35,12 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 public final class ConnectionLogger extends BaseJdbcLogger implements InvocationHandler {
 
   private final Connection connection;
+  private final boolean logResultSets;
 
-  private ConnectionLogger(Connection conn, Log statementLog, int queryStack) {
+  private ConnectionLogger(Connection conn, Log statementLog, int queryStack, boolean logResultSets) {
     super(statementLog, queryStack);
     this.connection = conn;
+    this.logResultSets = logResultSets;
   }
 
   @Override
@@ -53,11 +55,11 @@ public final class ConnectionLogger extends BaseJdbcLogger implements Invocation
           debug(" Preparing: " + removeExtraWhitespace((String) params[0]), true);
         }
         PreparedStatement stmt = (PreparedStatement) method.invoke(connection, params);
-        stmt = PreparedStatementLogger.newInstance(stmt, statementLog, queryStack);
+        stmt = PreparedStatementLogger.newInstance(stmt, statementLog, queryStack, logResultSets);
         return stmt;
       } else if ("createStatement".equals(method.getName())) {
         Statement stmt = (Statement) method.invoke(connection, params);
-        stmt = StatementLogger.newInstance(stmt, statementLog, queryStack);
+        stmt = StatementLogger.newInstance(stmt, statementLog, queryStack, logResultSets);
         return stmt;
       } else {
         return method.invoke(connection, params);
@@ -79,7 +81,25 @@ public final class ConnectionLogger extends BaseJdbcLogger implements Invocation
    * @return the connection with logging
    */
   public static Connection newInstance(Connection conn, Log statementLog, int queryStack) {
-    InvocationHandler handler = new ConnectionLogger(conn, statementLog, queryStack);
+    return newInstance(conn, statementLog, queryStack, true);
+  }
+
+  /**
+   * Creates a logging version of a connection.
+   *
+   * @param conn
+   *          the original connection
+   * @param statementLog
+   *          the statement log
+   * @param queryStack
+   *          the query stack
+   * @param logResultSets
+   *          whether the result sets of the statements created by the connection are wrapped to log their rows
+   * @return the connection with logging
+   * @since 3.5.6
+   */
+  public static Connection newInstance(Connection conn, Log statementLog, int queryStack, boolean logResultSets) {
+    InvocationHandler handler = new ConnectionLogger(conn, statementLog, queryStack, logResultSets);
     ClassLoader cl = Connection.class.getClassLoader();
     return (Connection) Proxy.newProxyInstance(cl, new Class[]{Connection.class}, handler);
   }
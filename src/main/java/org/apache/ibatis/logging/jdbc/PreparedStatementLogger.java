@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2020 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -35,10 +35,12 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 public final class PreparedStatementLogger extends BaseJdbcLogger implements InvocationHandler {
 
   private final PreparedStatement statement;
+  private final boolean logResultSets;
 
-  private PreparedStatementLogger(PreparedStatement stmt, Log statementLog, int queryStack) {
+  private PreparedStatementLogger(PreparedStatement stmt, Log statementLog, int queryStack, boolean logResultSets) {
     super(statementLog, queryStack);
     this.statement = stmt;
+    this.logResultSets = logResultSets;
   }
 
   @Override
@@ -53,8 +55,7 @@ public final class PreparedStatementLogger extends BaseJdbcLogger implements Inv
         }
         clearColumnInfo();
         if ("executeQuery".equals(method.getName())) {
-          ResultSet rs = (ResultSet) method.invoke(statement, params);
-          return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
+          return wrapResultSet((ResultSet) method.invoke(statement, params));
         } else {
           return method.invoke(statement, params);
         }
@@ -66,8 +67,7 @@ public final class PreparedStatementLogger extends BaseJdbcLogger implements Inv
         }
         return method.invoke(statement, params);
       } else if ("getResultSet".equals(method.getName())) {
-        ResultSet rs = (ResultSet) method.invoke(statement, params);
-        return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
+        return wrapResultSet((ResultSet) method.invoke(statement, params));
       } else if ("getUpdateCount".equals(method.getName())) {
         int updateCount = (Integer) method.invoke(statement, params);
         if (updateCount != -1) {
@@ -82,6 +82,10 @@ public final class PreparedStatementLogger extends BaseJdbcLogger implements Inv
     }
   }
 
+  private ResultSet wrapResultSet(ResultSet rs) {
+    return rs == null || !logResultSets ? rs : ResultSetLogger.newInstance(rs, statementLog, queryStack);
+  }
+
   /**
    * Creates a logging version of a PreparedStatement.
    *
@@ -91,7 +95,22 @@ public final class PreparedStatementLogger extends BaseJdbcLogger implements Inv
    * @return - the proxy
    */
   public static PreparedStatement newInstance(PreparedStatement stmt, Log statementLog, int queryStack) {
-    InvocationHandler handler = new PreparedStatementLogger(stmt, statementLog, queryStack);
+    return newInstance(stmt, statementLog, queryStack, true);
+  }
+
+  /**
+   * Creates a logging version of a PreparedStatement.
+   *
+   * @param stmt - the statement
+   * @param statementLog - the statement log
+   * @param queryStack - the query stack
+   * @param logResultSets - whether the result sets of the statement are wrapped to log their rows
+   * @return - the proxy
+   * @since 3.5.6
+   */
+  public static PreparedStatement newInstance(PreparedStatement stmt, Log statementLog, int queryStack,
+      boolean logResultSets) {
+    InvocationHandler handler = new PreparedStatementLogger(stmt, statementLog, queryStack, logResultSets);
     ClassLoader cl = PreparedStatement.class.getClassLoader();
     return (PreparedStatement) Proxy.newProxyInstance(cl, new Class[]{PreparedStatement.class, CallableStatement.class}, handler);
   }
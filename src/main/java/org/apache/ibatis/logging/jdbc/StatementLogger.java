@@ -34,10 +34,12 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 public final class StatementLogger extends BaseJdbcLogger implements InvocationHandler {
 
   private final Statement statement;
+  private final boolean logResultSets;
 
-  private StatementLogger(Statement stmt, Log statementLog, int queryStack) {
+  private StatementLogger(Statement stmt, Log statementLog, int queryStack, boolean logResultSets) {
     super(statementLog, queryStack);
     this.statement = stmt;
+    this.logResultSets = logResultSets;
   }
 
   @Override
@@ -51,14 +53,12 @@ public final class StatementLogger extends BaseJdbcLogger implements InvocationH
           debug(" Executing: " + removeExtraWhitespace((String) params[0]), true);
         }
         if ("executeQuery".equals(method.getName())) {
-          ResultSet rs = (ResultSet) method.invoke(statement, params);
-          return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
+          return wrapResultSet((ResultSet) method.invoke(statement, params));
         } else {
           return method.invoke(statement, params);
         }
       } else if ("getResultSet".equals(method.getName())) {
-        ResultSet rs = (ResultSet) method.invoke(statement, params);
-        return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
+        return wrapResultSet((ResultSet) method.invoke(statement, params));
       } else {
         return method.invoke(statement, params);
       }
@@ -67,6 +67,10 @@ public final class StatementLogger extends BaseJdbcLogger implements InvocationH
     }
   }
 
+  private ResultSet wrapResultSet(ResultSet rs) {
+    return rs == null || !logResultSets ? rs : ResultSetLogger.newInstance(rs, statementLog, queryStack);
+  }
+
   /**
    * Creates a logging version of a Statement.
    *
@@ -79,7 +83,25 @@ public final class StatementLogger extends BaseJdbcLogger implements InvocationH
    * @return the proxy
    */
   public static Statement newInstance(Statement stmt, Log statementLog, int queryStack) {
-    InvocationHandler handler = new StatementLogger(stmt, statementLog, queryStack);
+    return newInstance(stmt, statementLog, queryStack, true);
+  }
+
+  /**
+   * Creates a logging version of a Statement.
+   *
+   * @param stmt
+   *          the statement
+   * @param statementLog
+   *          the statement log
+   * @param queryStack
+   *          the query stack
+   * @param logResultSets
+   *          whether the result sets of the statement are wrapped to log their rows
+   * @return the proxy
+   * @since 3.5.6
+   */
+  public static Statement newInstance(Statement stmt, Log statementLog, int queryStack, boolean logResultSets) {
+    InvocationHandler handler = new StatementLogger(stmt, statementLog, queryStack, logResultSets);
     ClassLoader cl = Statement.class.getClassLoader();
     return (Statement) Proxy.newProxyInstance(cl, new Class[]{Statement.class}, handler);
   }
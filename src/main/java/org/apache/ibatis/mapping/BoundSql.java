@@ -17,6 +17,7 @@ package org.apache.ibatis.mapping;
 
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.scripting.defaults.ParameterBinder;
 import org.apache.ibatis.session.Configuration;
 
 import java.util.HashMap;
@@ -45,13 +46,37 @@ public class BoundSql {
     private final Map<String, Object> additionalParameters;
     // additionalParameters 的元信息对象
     private final MetaObject metaParameters;
+    private final Configuration configuration;
+    // 按参数类型缓存的 ParameterBinder，由生成 parameterMappings 的 SqlSource 持有
+    private final Map<Class<?>, ParameterBinder> parameterBinders;
 
     public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject) {
+        this(configuration, sql, parameterMappings, parameterObject, null);
+    }
+
+    /**
+     * @param configuration
+     *          the configuration
+     * @param sql
+     *          the SQL
+     * @param parameterMappings
+     *          the parameter mappings
+     * @param parameterObject
+     *          the parameter object
+     * @param parameterBinders
+     *          the binders compiled for the parameter mappings, by parameter type, shared by the bound SQLs of the same
+     *          parameter mappings
+     * @since 3.5.6
+     */
+    public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject,
+            Map<Class<?>, ParameterBinder> parameterBinders) {
         this.sql = sql;
         this.parameterMappings = parameterMappings;
         this.parameterObject = parameterObject;
         this.additionalParameters = new HashMap<>();
         this.metaParameters = configuration.newMetaObject(additionalParameters);
+        this.configuration = configuration;
+        this.parameterBinders = parameterBinders;
     }
 
     public String getSql() {
@@ -66,6 +91,49 @@ public class BoundSql {
         return parameterObject;
     }
 
+    /**
+     * Returns the binder compiled for the parameter mappings and a parameter type, compiling it on first use.
+     *
+     * @param parameterType
+     *          the class of the parameter object
+     * @return the parameter binder, or null if the parameter mappings are not shared between executions
+     * @since 3.5.6
+     */
+    public ParameterBinder getParameterBinder(Class<?> parameterType) {
+        if (parameterBinders == null || parameterMappings == null) {
+            return null;
+        }
+        ParameterBinder binder = parameterBinders.get(parameterType);
+        if (binder == null) {
+            binder = ParameterBinder.compile(configuration, parameterMappings, parameterType);
+            parameterBinders.putIfAbsent(parameterType, binder);
+        }
+        return binder;
+    }
+
+    /**
+     * Returns a copy of this bound SQL that compiles no parameter binder, for SQL sources that are used only once.
+     *
+     * @return the copy, or this bound SQL if it compiles no binder anyway
+     * @since 3.5.6
+     */
+    public BoundSql withoutParameterBinders() {
+        if (parameterBinders == null) {
+            return this;
+        }
+        BoundSql copy = new BoundSql(configuration, sql, parameterMappings, parameterObject);
+        copy.additionalParameters.putAll(additionalParameters);
+        return copy;
+    }
+
+    /**
+     * @return true if the dynamic language set any additional parameter
+     * @since 3.5.6
+     */
+    public boolean hasAdditionalParameters() {
+        return !additionalParameters.isEmpty();
+    }
+
     public boolean hasAdditionalParameter(String name) {
         String paramName = new PropertyTokenizer(name).getName();
         return additionalParameters.containsKey(paramName);
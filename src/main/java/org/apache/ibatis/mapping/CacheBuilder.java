@@ -1,5 +1,5 @@
 /**
- * Copyright 2009-2019 the original author or authors.
+ * Copyright 2009-2020 the original author or authors.
  * <p>
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
 import org.apache.ibatis.cache.decorators.*;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
 
@@ -41,6 +42,7 @@ public class CacheBuilder {
     private boolean readWrite;
     private Properties properties;
     private boolean blocking;
+    private boolean evictingImplementation;
 
     public CacheBuilder(String id) {
         this.id = id;
@@ -93,13 +95,14 @@ public class CacheBuilder {
         setDefaultImplementations();
         Cache cache = newBaseCacheInstance(implementation, id);
         setCacheProperties(cache);
+        Cache baseCache = cache;
         // issue #352, do not apply decorators to custom caches
-        if (PerpetualCache.class.equals(cache.getClass())) {
+        if (PerpetualCache.class.equals(cache.getClass()) || evictingImplementation) {
             for (Class<? extends Cache> decorator : decorators) {
                 cache = newCacheDecoratorInstance(decorator, cache);
                 setCacheProperties(cache);
             }
-            cache = setStandardDecorators(cache);
+            cache = setStandardDecorators(cache, baseCache);
         } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
             cache = new LoggingCache(cache);
         }
@@ -113,9 +116,18 @@ public class CacheBuilder {
                 decorators.add(LruCache.class);
             }
         }
+        // TinyLfuCache is selected as an eviction policy but stores the entries itself
+        if (PerpetualCache.class.equals(implementation) && !decorators.isEmpty()
+                && TinyLfuCache.class.equals(decorators.get(0))) {
+            implementation = TinyLfuCache.class;
+            decorators.remove(0);
+            evictingImplementation = true;
+        }
     }
 
-    private Cache setStandardDecorators(Cache cache) {
+    private Cache setStandardDecorators(Cache cache, Cache baseCache) {
+        // a TinyLfuCache without custom decorators needs no external synchronization
+        boolean concurrent = evictingImplementation && decorators.isEmpty();
         try {
             MetaObject metaCache = SystemMetaObject.forObject(cache);
             if (size != null && metaCache.hasSetter("size")) {
@@ -127,9 +139,15 @@ public class CacheBuilder {
             }
             if (readWrite) {
                 cache = new SerializedCache(cache);
+                if (baseCache instanceof TinyLfuCache) {
+                    // weigh the rows, not the serialized bytes
+                    cache = new WeighingCache(cache, (TinyLfuCache) baseCache);
+                }
             }
             cache = new LoggingCache(cache);
-            cache = new SynchronizedCache(cache);
+            if (!concurrent) {
+                cache = new SynchronizedCache(cache);
+            }
             if (blocking) {
                 cache = new BlockingCache(cache);
             }
@@ -16,6 +16,7 @@
 package org.apache.ibatis.mapping;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
@@ -41,6 +42,7 @@ public final class MappedStatement {
     private String id;
     private Integer fetchSize;
     private Integer timeout;
+    private Integer slowQueryThreshold;
     /**
      * 告诉 MyBatis 分别使用Statement，PreparedStatement或者CallableStatement。默认：PREPARED
      * select标签的属性成员之一
@@ -49,6 +51,7 @@ public final class MappedStatement {
     private ResultSetType resultSetType;
     private SqlSource sqlSource;
     private Cache cache;
+    private CacheStats localCacheStats;
     private ParameterMap parameterMap;
     private List<ResultMap> resultMaps;
     private boolean flushCacheRequired;
@@ -88,6 +91,8 @@ public final class MappedStatement {
             }
             mappedStatement.statementLog = LogFactory.getLog(logId);
             mappedStatement.lang = configuration.getDefaultScriptingLanguageInstance();
+            int namespaceEnd = id.lastIndexOf('.');
+            mappedStatement.localCacheStats = configuration.getLocalCacheStats(namespaceEnd < 0 ? id : id.substring(0, namespaceEnd));
         }
 
         public Builder resource(String resource) {
@@ -122,6 +127,11 @@ public final class MappedStatement {
             return this;
         }
 
+        public Builder slowQueryThreshold(Integer slowQueryThreshold) {
+            mappedStatement.slowQueryThreshold = slowQueryThreshold;
+            return this;
+        }
+
         public Builder statementType(StatementType statementType) {
             mappedStatement.statementType = statementType;
             return this;
@@ -237,6 +247,15 @@ public final class MappedStatement {
         return timeout;
     }
 
+    /**
+     * @return the time in milliseconds above which an execution of this statement is recorded in the slow query log,
+     *         null to use the threshold of the configuration
+     * @since 3.5.6
+     */
+    public Integer getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
     public StatementType getStatementType() {
         return statementType;
     }
@@ -261,6 +280,14 @@ public final class MappedStatement {
         return cache;
     }
 
+    /**
+     * @return the statistics of the session local caches for the statements of the namespace of this statement
+     * @since 3.5.6
+     */
+    public CacheStats getLocalCacheStats() {
+        return localCacheStats;
+    }
+
     public boolean isFlushCacheRequired() {
         return flushCacheRequired;
     }
@@ -340,6 +367,40 @@ public final class MappedStatement {
         return boundSql;
     }
 
+    /**
+     * Returns a copy of this statement that reads its SQL from the given source.
+     *
+     * @param sqlSource the SQL source of the copy
+     * @return the copy
+     * @since 3.5.6
+     */
+    public MappedStatement withSqlSource(SqlSource sqlSource) {
+        return new Builder(configuration, id, sqlSource, sqlCommandType)
+                .resource(resource)
+                .fetchSize(fetchSize)
+                .timeout(timeout)
+                .slowQueryThreshold(slowQueryThreshold)
+                .statementType(statementType)
+                .resultSetType(resultSetType)
+                .cache(cache)
+                .parameterMap(parameterMap)
+                .resultMaps(resultMaps)
+                .flushCacheRequired(flushCacheRequired)
+                .useCache(useCache)
+                .resultOrdered(resultOrdered)
+                .keyGenerator(keyGenerator)
+                .keyProperty(arrayToDelimitedString(keyProperties))
+                .keyColumn(arrayToDelimitedString(keyColumns))
+                .databaseId(databaseId)
+                .lang(lang)
+                .resultSets(arrayToDelimitedString(resultSets))
+                .build();
+    }
+
+    private static String arrayToDelimitedString(String[] in) {
+        return in == null ? null : String.join(",", in);
+    }
+
     private static String[] delimitedStringToArray(String in) {
         if (in == null || in.trim().length() == 0) {
             return null;
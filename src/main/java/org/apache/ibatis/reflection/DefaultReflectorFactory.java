@@ -54,10 +54,22 @@ public class DefaultReflectorFactory implements ReflectorFactory {
              * 这里面使用了jdk1.8的computeIfAbsent，从map获取对象 如果为空 则创建一个新的Reflector实例，并放入map中
              */
             // synchronized (type) removed see issue #461
-            return reflectorMap.computeIfAbsent(type, Reflector::new);
+            return reflectorMap.computeIfAbsent(type, this::newReflector);
         } else {
-            return new Reflector(type);
+            return newReflector(type);
         }
     }
 
+    /**
+     * Creates the reflector of a class that is not cached yet.
+     *
+     * @param type
+     *          the class to describe
+     * @return the reflector
+     * @since 3.5.6
+     */
+    protected Reflector newReflector(Class<?> type) {
+        return new Reflector(type);
+    }
+
 }
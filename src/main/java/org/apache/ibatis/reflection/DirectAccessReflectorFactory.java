@@ -0,0 +1,35 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+/**
+ * A reflector factory whose reflectors access properties through lambdas and method handles created once per class,
+ * instead of calling {@link java.lang.reflect.Method#invoke(Object, Object...)} for every property of every row.
+ * Properties that cannot be accessed this way, like final fields, still use reflection.
+ * <p>
+ * It trades a slower first use of each class, and a generated class per accessor, for faster result mapping. Enable it
+ * with {@code <reflectorFactory type="org.apache.ibatis.reflection.DirectAccessReflectorFactory"/>}.
+ *
+ * @since 3.5.6
+ */
+public class DirectAccessReflectorFactory extends DefaultReflectorFactory {
+
+  @Override
+  protected Reflector newReflector(Class<?> type) {
+    return new Reflector(type, true);
+  }
+
+}
@@ -35,6 +35,7 @@ import java.util.Map.Entry;
 public class Reflector {
 
     private final Class<?> type;
+    private final boolean directAccess;
     private final String[] readablePropertyNames;
     private final String[] writablePropertyNames;
     private final Map<String, Invoker> setMethods = new HashMap<>();
@@ -50,7 +51,19 @@ public class Reflector {
      * @param clazz
      */
     public Reflector(Class<?> clazz) {
+        this(clazz, false);
+    }
+
+    /**
+     * @param clazz
+     *          the class to describe
+     * @param directAccess
+     *          true to access properties through lambdas and method handles created once, instead of reflection
+     * @since 3.5.6
+     */
+    public Reflector(Class<?> clazz, boolean directAccess) {
         type = clazz;
+        this.directAccess = directAccess;
         // 解析目标类的默认构造方法，并赋值给 defaultConstructor 变量
         addDefaultConstructor(clazz);
         // 解析 getter 方法，并将解析结果放入 getMethods 中
@@ -124,7 +137,7 @@ public class Reflector {
                 ? new AmbiguousMethodInvoker(method, MessageFormat.format(
                 "Illegal overloaded getter method with ambiguous type for property ''{0}'' in class ''{1}''. This breaks the JavaBeans specification and can cause unpredictable results.",
                 name, method.getDeclaringClass().getName()))
-                : new MethodInvoker(method);
+                : newMethodInvoker(method);
         getMethods.put(name, invoker);
         Type returnType = TypeParameterResolver.resolveReturnType(method, type);
         getTypes.put(name, typeToClass(returnType));
@@ -192,7 +205,7 @@ public class Reflector {
     }
 
     private void addSetMethod(String name, Method method) {
-        MethodInvoker invoker = new MethodInvoker(method);
+        MethodInvoker invoker = newMethodInvoker(method);
         setMethods.put(name, invoker);
         Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
         setTypes.put(name, typeToClass(paramTypes[0]));
@@ -242,7 +255,7 @@ public class Reflector {
 
     private void addSetField(Field field) {
         if (isValidPropertyName(field.getName())) {
-            setMethods.put(field.getName(), new SetFieldInvoker(field));
+            setMethods.put(field.getName(), newSetFieldInvoker(field));
             Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
             setTypes.put(field.getName(), typeToClass(fieldType));
         }
@@ -250,12 +263,45 @@ public class Reflector {
 
     private void addGetField(Field field) {
         if (isValidPropertyName(field.getName())) {
-            getMethods.put(field.getName(), new GetFieldInvoker(field));
+            getMethods.put(field.getName(), newGetFieldInvoker(field));
             Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
             getTypes.put(field.getName(), typeToClass(fieldType));
         }
     }
 
+    private MethodInvoker newMethodInvoker(Method method) {
+        if (directAccess) {
+            try {
+                return new DirectMethodInvoker(method);
+            } catch (ReflectionException e) {
+                // not accessible through a lambda, fall back to reflection
+            }
+        }
+        return new MethodInvoker(method);
+    }
+
+    private Invoker newGetFieldInvoker(Field field) {
+        if (directAccess) {
+            try {
+                return new DirectGetFieldInvoker(field);
+            } catch (ReflectionException e) {
+                // not accessible through a method handle, fall back to reflection
+            }
+        }
+        return new GetFieldInvoker(field);
+    }
+
+    private Invoker newSetFieldInvoker(Field field) {
+        if (directAccess) {
+            try {
+                return new DirectSetFieldInvoker(field);
+            } catch (ReflectionException e) {
+                // not accessible through a method handle, fall back to reflection
+            }
+        }
+        return new SetFieldInvoker(field);
+    }
+
     private boolean isValidPropertyName(String name) {
         return !(name.startsWith("$") || "serialVersionUID".equals(name) || "class".equals(name));
     }
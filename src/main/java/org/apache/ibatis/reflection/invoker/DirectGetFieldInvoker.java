@@ -0,0 +1,78 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.reflection.ReflectionException;
+
+/**
+ * Reads a field through a method handle resolved once, instead of {@link Field#get(Object)}.
+ *
+ * @since 3.5.6
+ */
+public class DirectGetFieldInvoker extends GetFieldInvoker {
+
+  private final Class<?> declaringClass;
+  private final boolean isStatic;
+  private final MethodHandle getter;
+
+  /**
+   * @param field
+   *          the field to read
+   * @throws ReflectionException
+   *           if the field cannot be read through a method handle
+   */
+  public DirectGetFieldInvoker(Field field) {
+    super(field);
+    declaringClass = field.getDeclaringClass();
+    isStatic = Modifier.isStatic(field.getModifiers());
+    try {
+      MethodHandle handle = PrivateLookups.in(declaringClass).unreflectGetter(field);
+      if (isStatic) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+    } catch (ReflectionException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ReflectionException("Could not create a direct invoker for " + field + ".  Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Reads the field through the method handle when the target has the field. Otherwise it is read by reflection, which
+   * throws the same exceptions as before.
+   */
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException {
+    if (!isStatic && !declaringClass.isInstance(target)) {
+      return super.invoke(target, args);
+    }
+    try {
+      return getter.invokeExact(target);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException(t);
+    }
+  }
+
+}
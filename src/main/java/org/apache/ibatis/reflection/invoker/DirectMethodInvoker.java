@@ -0,0 +1,117 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.ibatis.reflection.ReflectionException;
+
+/**
+ * Calls a getter or a setter through a lambda generated once by {@link LambdaMetafactory}, so that the call can be
+ * inlined by the JIT compiler instead of going through {@link Method#invoke(Object, Object...)}.
+ *
+ * @since 3.5.6
+ */
+public class DirectMethodInvoker extends MethodInvoker {
+
+  private final Class<?> declaringClass;
+  private final Class<?> parameterType;
+  private final Function<Object, Object> getter;
+  private final BiConsumer<Object, Object> setter;
+
+  /**
+   * @param method
+   *          an instance method without parameter or with one parameter
+   * @throws ReflectionException
+   *           if the method cannot be called through a lambda
+   */
+  @SuppressWarnings("unchecked")
+  public DirectMethodInvoker(Method method) {
+    super(method);
+    int parameterCount = method.getParameterTypes().length;
+    if (parameterCount > 1 || Modifier.isStatic(method.getModifiers())) {
+      throw new ReflectionException("Only getters and setters can be called directly, but was " + method);
+    }
+    declaringClass = method.getDeclaringClass();
+    parameterType = parameterCount == 0 ? null : wrap(method.getParameterTypes()[0]);
+    try {
+      Lookup lookup = PrivateLookups.in(declaringClass);
+      MethodHandle handle = lookup.unreflect(method);
+      if (parameterCount == 0) {
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+            MethodType.methodType(Object.class, Object.class), handle,
+            MethodType.methodType(wrap(method.getReturnType()), declaringClass));
+        getter = (Function<Object, Object>) callSite.getTarget().invoke();
+        setter = null;
+      } else {
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+            MethodType.methodType(void.class, Object.class, Object.class), handle,
+            MethodType.methodType(void.class, declaringClass, parameterType));
+        getter = null;
+        setter = (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+      }
+    } catch (ReflectionException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not create a direct invoker for " + method + ".  Cause: " + t, t);
+    }
+  }
+
+  /**
+   * Calls the lambda when the target and the argument match the method, so that anything it throws comes from the
+   * method and is wrapped in an {@link InvocationTargetException}. Otherwise the call is made by reflection, which
+   * throws the same exceptions as before and applies widening conversions to the argument.
+   */
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    if (!accepts(target, args)) {
+      return super.invoke(target, args);
+    }
+    try {
+      if (getter != null) {
+        return getter.apply(target);
+      }
+      setter.accept(target, args[0]);
+      return null;
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  private boolean accepts(Object target, Object[] args) {
+    if (!declaringClass.isInstance(target)) {
+      return false;
+    }
+    if (getter != null) {
+      return args == null || args.length == 0;
+    }
+    return args != null && args.length == 1 && parameterType.isInstance(args[0]);
+  }
+
+  private static Class<?> wrap(Class<?> type) {
+    return MethodType.methodType(type).wrap().returnType();
+  }
+
+}
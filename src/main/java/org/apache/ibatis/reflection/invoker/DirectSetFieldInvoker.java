@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.reflection.ReflectionException;
+
+/**
+ * Writes a field through a method handle resolved once, instead of {@link Field#set(Object, Object)}.
+ *
+ * @since 3.5.6
+ */
+public class DirectSetFieldInvoker extends SetFieldInvoker {
+
+  private final Class<?> declaringClass;
+  private final boolean isStatic;
+  private final Class<?> fieldType;
+  private final MethodHandle setter;
+
+  /**
+   * @param field
+   *          the field to write
+   * @throws ReflectionException
+   *           if the field cannot be written through a method handle, e.g. because it is final
+   */
+  public DirectSetFieldInvoker(Field field) {
+    super(field);
+    declaringClass = field.getDeclaringClass();
+    isStatic = Modifier.isStatic(field.getModifiers());
+    fieldType = MethodType.methodType(field.getType()).wrap().returnType();
+    try {
+      MethodHandle handle = PrivateLookups.in(declaringClass).unreflectSetter(field);
+      if (isStatic) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      setter = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+    } catch (ReflectionException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ReflectionException("Could not create a direct invoker for " + field + ".  Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Writes the field through the method handle when the target has the field and the value fits it. Otherwise it is
+   * written by reflection, which throws the same exceptions as before and applies widening conversions to the value.
+   */
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException {
+    if (!accepts(target, args[0])) {
+      return super.invoke(target, args);
+    }
+    try {
+      setter.invokeExact(target, args[0]);
+      return null;
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException(t);
+    }
+  }
+
+  private boolean accepts(Object target, Object value) {
+    if (!isStatic && !declaringClass.isInstance(target)) {
+      return false;
+    }
+    return value == null ? !getType().isPrimitive() : fieldType.isInstance(value);
+  }
+
+}
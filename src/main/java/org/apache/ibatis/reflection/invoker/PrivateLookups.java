@@ -0,0 +1,77 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import org.apache.ibatis.reflection.ReflectionException;
+
+/**
+ * Creates lookups with private access to a class, on JDK 8 as well as on JDK 9 and later.
+ *
+ * @since 3.5.6
+ */
+final class PrivateLookups {
+
+  private static final int ALLOWED_MODES = MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED
+      | MethodHandles.Lookup.PACKAGE | MethodHandles.Lookup.PUBLIC;
+  private static final Method privateLookupInMethod;
+  private static final Constructor<Lookup> lookupConstructor;
+
+  static {
+    Method privateLookupIn;
+    try {
+      privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+    } catch (NoSuchMethodException e) {
+      privateLookupIn = null;
+    }
+    privateLookupInMethod = privateLookupIn;
+
+    Constructor<Lookup> lookup = null;
+    if (privateLookupInMethod == null) {
+      // JDK 1.8
+      try {
+        lookup = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+        lookup.setAccessible(true);
+      } catch (Exception e) {
+        lookup = null;
+      }
+    }
+    lookupConstructor = lookup;
+  }
+
+  private PrivateLookups() {
+    super();
+  }
+
+  static Lookup in(Class<?> type) {
+    try {
+      if (privateLookupInMethod != null) {
+        return (Lookup) privateLookupInMethod.invoke(null, type, MethodHandles.lookup());
+      }
+      if (lookupConstructor != null) {
+        return lookupConstructor.newInstance(type, ALLOWED_MODES);
+      }
+    } catch (Exception e) {
+      throw new ReflectionException("Could not create a private lookup in " + type + ".  Cause: " + e, e);
+    }
+    throw new ReflectionException("Could not create a private lookup in " + type + ".");
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2020 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -82,8 +82,10 @@ public class MapWrapper extends BaseWrapper {
         return metaValue.getSetterType(prop.getChildren());
       }
     } else {
-      if (map.get(name) != null) {
-        return map.get(name).getClass();
+      // an indexed name is an element of a collection, as in get()
+      Object value = prop.getIndex() == null ? map.get(name) : get(prop);
+      if (value != null) {
+        return value.getClass();
       } else {
         return Object.class;
       }
@@ -101,8 +103,10 @@ public class MapWrapper extends BaseWrapper {
         return metaValue.getGetterType(prop.getChildren());
       }
     } else {
-      if (map.get(name) != null) {
-        return map.get(name).getClass();
+      // an indexed name is an element of a collection, as in get()
+      Object value = prop.getIndex() == null ? map.get(name) : get(prop);
+      if (value != null) {
+        return value.getClass();
       } else {
         return Object.class;
       }
@@ -118,7 +122,7 @@ public class MapWrapper extends BaseWrapper {
   public boolean hasGetter(String name) {
     PropertyTokenizer prop = new PropertyTokenizer(name);
     if (prop.hasNext()) {
-      if (map.containsKey(prop.getIndexedName())) {
+      if (map.containsKey(prop.getName())) {
         MetaObject metaValue = metaObject.metaObjectForProperty(prop.getIndexedName());
         if (metaValue == SystemMetaObject.NULL_META_OBJECT) {
           return true;
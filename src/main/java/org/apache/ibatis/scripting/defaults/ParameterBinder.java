@@ -0,0 +1,181 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Sets the parameters of a statement for one list of parameter mappings and one parameter type, with the way to read
+ * each value, its type handler and its JDBC type resolved once instead of for every execution.
+ * <p>
+ * The values are read exactly as {@link DefaultParameterHandler} reads them: additional parameters first, then the
+ * parameter object itself if it has a type handler, then its properties.
+ *
+ * @since 3.5.6
+ */
+public final class ParameterBinder {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final Configuration configuration;
+  private final Binding[] bindings;
+
+  private ParameterBinder(Configuration configuration, Binding[] bindings) {
+    this.configuration = configuration;
+    this.bindings = bindings;
+  }
+
+  /**
+   * Resolves the bindings of parameter mappings for a parameter type.
+   *
+   * @param configuration
+   *          the configuration
+   * @param parameterMappings
+   *          the parameter mappings of a bound SQL
+   * @param parameterType
+   *          the class of the parameter object
+   * @return the parameter binder
+   */
+  public static ParameterBinder compile(Configuration configuration, List<ParameterMapping> parameterMappings,
+      Class<?> parameterType) {
+    final boolean hasTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterType);
+    final boolean wrapped = configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class;
+    final boolean isMap = Map.class.isAssignableFrom(parameterType);
+    final boolean isBean = !hasTypeHandler && !wrapped && !isMap && !ObjectWrapper.class.isAssignableFrom(parameterType)
+        && !Collection.class.isAssignableFrom(parameterType);
+    final Reflector reflector = isBean ? configuration.getReflectorFactory().findForClass(parameterType) : null;
+    final List<Binding> bindings = new ArrayList<>(parameterMappings.size());
+    for (int i = 0; i < parameterMappings.size(); i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      String property = parameterMapping.getProperty();
+      boolean simple = property.indexOf('.') == -1 && property.indexOf('[') == -1;
+      Binding binding = new Binding(i + 1, parameterMapping);
+      if (hasTypeHandler) {
+        binding.source = Source.PARAMETER;
+      } else if (simple && isMap && !wrapped) {
+        binding.source = Source.MAP;
+      } else if (simple && reflector != null && reflector.hasGetter(property)) {
+        binding.source = Source.GETTER;
+        binding.getter = reflector.getGetInvoker(property);
+      } else {
+        binding.source = Source.META_OBJECT;
+      }
+      bindings.add(binding);
+    }
+    return new ParameterBinder(configuration, bindings.toArray(new Binding[0]));
+  }
+
+  /**
+   * Sets the parameters of a prepared statement.
+   *
+   * @param ps
+   *          the prepared statement
+   * @param boundSql
+   *          the bound SQL the binder was compiled for
+   * @param parameterObject
+   *          the parameter object, of the type the binder was compiled for
+   */
+  @SuppressWarnings("unchecked")
+  public void bind(PreparedStatement ps, BoundSql boundSql, Object parameterObject) {
+    final boolean hasAdditionalParameters = boundSql.hasAdditionalParameters();
+    MetaObject metaObject = null;
+    for (Binding binding : bindings) {
+      final String propertyName = binding.parameterMapping.getProperty();
+      Object value;
+      if (hasAdditionalParameters && boundSql.hasAdditionalParameter(propertyName)) { // issue #448 ask first for additional params
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else if (binding.source == Source.PARAMETER) {
+        value = parameterObject;
+      } else if (binding.source == Source.MAP) {
+        value = ((Map<?, ?>) parameterObject).get(propertyName);
+      } else if (binding.source == Source.GETTER) {
+        value = getProperty(binding, parameterObject);
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(propertyName);
+      }
+      JdbcType jdbcType = binding.jdbcType;
+      if (value == null && jdbcType == null) {
+        jdbcType = configuration.getJdbcTypeForNull();
+      }
+      try {
+        binding.typeHandler.setParameter(ps, binding.position, value, jdbcType);
+      } catch (TypeException | SQLException e) {
+        throw new TypeException("Could not set parameters for mapping: " + binding.parameterMapping + ". Cause: " + e, e);
+      }
+    }
+  }
+
+  private static Object getProperty(Binding binding, Object parameterObject) {
+    try {
+      return binding.getter.invoke(parameterObject, NO_ARGUMENTS);
+    } catch (Throwable t) {
+      Throwable cause = ExceptionUtil.unwrapThrowable(t);
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ReflectionException("Could not get property '" + binding.parameterMapping.getProperty() + "' from "
+          + parameterObject.getClass() + ".  Cause: " + cause.toString(), cause);
+    }
+  }
+
+  private enum Source {
+    PARAMETER, MAP, GETTER, META_OBJECT
+  }
+
+  private static class Binding {
+    private final int position;
+    private final ParameterMapping parameterMapping;
+    @SuppressWarnings("rawtypes")
+    private final TypeHandler typeHandler;
+    private final JdbcType jdbcType;
+    private Source source;
+    private Invoker getter;
+
+    Binding(int position, ParameterMapping parameterMapping) {
+      this.position = position;
+      this.parameterMapping = parameterMapping;
+      this.typeHandler = parameterMapping.getTypeHandler();
+      this.jdbcType = parameterMapping.getJdbcType();
+    }
+  }
+
+}
@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.scripting.xmltags.ExpressionCompiler.CompiledExpression;
+import org.apache.ibatis.scripting.xmltags.ExpressionCompiler.UnsupportedValueException;
+
+/**
+ * Evaluates the common test expressions with evaluators compiled once per expression, and all others with a fallback
+ * engine.
+ * <p>
+ * Supported expressions are made of property paths (e.g. <code>author.name</code>), <code>null</code>, boolean, integer
+ * and string literals, <code>size()</code>, <code>isEmpty()</code> and <code>length()</code> calls, the comparison
+ * operators (<code>==</code>, <code>!=</code>, <code>&lt;</code>, <code>&lt;=</code>, <code>&gt;</code>,
+ * <code>&gt;=</code> and their <code>eq</code>, <code>neq</code>, <code>lt</code>, <code>lte</code>, <code>gt</code>,
+ * <code>gte</code> forms) and the boolean operators (<code>and</code>, <code>or</code>, <code>not</code>,
+ * <code>&amp;&amp;</code>, <code>||</code>, <code>!</code>). Property readers are resolved for the type of the value
+ * they read and reused while it does not change. Properties of the bindings of a {@link DynamicContext} are read with
+ * the reflector factory of its configuration.
+ * <p>
+ * Whether an expression is compiled is decided once, when it is first evaluated. Values that OGNL would convert before
+ * comparing them (e.g. a number compared to a string) are evaluated by the fallback engine, so results are the same as
+ * with OGNL. Exceptions thrown by getters are not: they are reported as a {@link BuilderException}, as OGNL errors are.
+ *
+ * @since 3.5.6
+ */
+public class CompiledExpressionEngine implements ExpressionEngine {
+
+  private final ExpressionEngine fallbackEngine;
+  private final ReflectorFactory reflectorFactory;
+  // empty for the expressions that are always evaluated by the fallback engine
+  private final Map<String, Optional<CompiledExpression>> expressionCache = new ConcurrentHashMap<>();
+
+  public CompiledExpressionEngine() {
+    this(new OgnlExpressionEngine());
+  }
+
+  public CompiledExpressionEngine(ExpressionEngine fallbackEngine) {
+    this(fallbackEngine, new DefaultReflectorFactory());
+  }
+
+  /**
+   * Creates an engine.
+   *
+   * @param fallbackEngine
+   *          the engine that evaluates the expressions and values that are not supported
+   * @param reflectorFactory
+   *          the reflector factory used to read properties when the root is not the bindings of a
+   *          {@link DynamicContext}
+   */
+  public CompiledExpressionEngine(ExpressionEngine fallbackEngine, ReflectorFactory reflectorFactory) {
+    this.fallbackEngine = fallbackEngine;
+    this.reflectorFactory = reflectorFactory;
+  }
+
+  @Override
+  public Object getValue(String expression, Object root) {
+    Optional<CompiledExpression> compiledExpression = expressionCache.computeIfAbsent(expression, this::compile);
+    if (compiledExpression.isPresent()) {
+      try {
+        return compiledExpression.get().getValue(root);
+      } catch (UnsupportedValueException e) {
+        // values that OGNL converts are left to the fallback engine
+      } catch (ReflectionException e) {
+        throw new BuilderException("Error evaluating expression '" + expression + "'. Cause: " + e, e);
+      }
+    }
+    return fallbackEngine.getValue(expression, root);
+  }
+
+  /**
+   * Tells whether an expression is evaluated by a compiled evaluator.
+   *
+   * @param expression
+   *          the expression
+   * @return true if the expression is compiled, false if it is always evaluated by the fallback engine
+   */
+  public boolean isCompiled(String expression) {
+    return expressionCache.computeIfAbsent(expression, this::compile).isPresent();
+  }
+
+  private Optional<CompiledExpression> compile(String expression) {
+    return Optional.ofNullable(ExpressionCompiler.compile(expression, reflectorFactory));
+  }
+
+}
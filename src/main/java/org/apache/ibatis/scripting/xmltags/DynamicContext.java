@@ -19,11 +19,11 @@ import ognl.OgnlContext;
 import ognl.OgnlRuntime;
 import ognl.PropertyAccessor;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.session.Configuration;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.StringJoiner;
 
 /**
  * DynamicContext 是 SQL 语句构建的上下文，每个 SQL 片段解析完成后，都会将解析结 果存入 DynamicContext 中,
@@ -41,8 +41,12 @@ public class DynamicContext {
     }
 
     private final ContextMap bindings;
-    private final StringJoiner sqlBuilder = new StringJoiner(" ");
+    private final StringBuilder sqlBuilder;
+    private final DynamicContext delegate;
+    private boolean sqlAppended;
     private int uniqueNumber = 0;
+    private int chunk = -1;
+    private int chunkCount = 1;
 
     /**
      * 构建ContextMap
@@ -54,13 +58,28 @@ public class DynamicContext {
         if (parameterObject != null && !(parameterObject instanceof Map)) {
             MetaObject metaObject = configuration.newMetaObject(parameterObject);
             boolean existsTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
-            bindings = new ContextMap(metaObject, existsTypeHandler);
+            bindings = new ContextMap(metaObject, existsTypeHandler, configuration.getReflectorFactory());
         } else {
-            bindings = new ContextMap(null, false);
+            bindings = new ContextMap(null, false, configuration.getReflectorFactory());
         }
         // 存放运行时参数 parameterObject 以及 databaseId
         bindings.put(PARAMETER_OBJECT_KEY, parameterObject);
         bindings.put(DATABASE_ID_KEY, configuration.getDatabaseId());
+        sqlBuilder = new StringBuilder();
+        delegate = null;
+    }
+
+    /**
+     * Creates a context sharing the bindings of another context and handing its SQL, unique numbers and chunks over to
+     * it, so that subclasses only override the methods whose behavior they change.
+     *
+     * @param delegate
+     *          the context to hand over to
+     */
+    DynamicContext(DynamicContext delegate) {
+        this.bindings = delegate.bindings;
+        this.sqlBuilder = null;
+        this.delegate = delegate;
     }
 
     public Map<String, Object> getBindings() {
@@ -72,25 +91,85 @@ public class DynamicContext {
     }
 
     public void appendSql(String sql) {
-        sqlBuilder.add(sql);
+        if (delegate != null) {
+            delegate.appendSql(sql);
+            return;
+        }
+        // joined by a space, as StringJoiner did, even when a fragment is empty
+        if (sqlAppended) {
+            sqlBuilder.append(' ');
+        }
+        sqlBuilder.append(sql);
+        sqlAppended = true;
     }
 
     public String getSql() {
+        if (delegate != null) {
+            return delegate.getSql();
+        }
         return sqlBuilder.toString().trim();
     }
 
     public int getUniqueNumber() {
+        if (delegate != null) {
+            return delegate.getUniqueNumber();
+        }
         return uniqueNumber++;
     }
 
+    /**
+     * Returns the chunk of the chunked <code>foreach</code> collections to render, or -1 to render them whole.
+     */
+    int getChunk() {
+        if (delegate != null) {
+            return delegate.getChunk();
+        }
+        return chunk;
+    }
+
+    void setChunk(int chunk) {
+        if (delegate != null) {
+            delegate.setChunk(chunk);
+            return;
+        }
+        this.chunk = chunk;
+    }
+
+    /**
+     * Returns the number of statements needed to render every chunk, at least one.
+     */
+    int getChunkCount() {
+        if (delegate != null) {
+            return delegate.getChunkCount();
+        }
+        return chunkCount;
+    }
+
+    void requireChunks(int count) {
+        if (delegate != null) {
+            delegate.requireChunks(count);
+            return;
+        }
+        chunkCount = Math.max(chunkCount, count);
+    }
+
     static class ContextMap extends HashMap<String, Object> {
         private static final long serialVersionUID = 2977601501966151582L;
         private final MetaObject parameterMetaObject;
         private final boolean fallbackParameterObject;
+        private final ReflectorFactory reflectorFactory;
 
-        public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject) {
+        public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject, ReflectorFactory reflectorFactory) {
             this.parameterMetaObject = parameterMetaObject;
             this.fallbackParameterObject = fallbackParameterObject;
+            this.reflectorFactory = reflectorFactory;
+        }
+
+        /**
+         * Returns the reflector factory of the configuration, used by compiled expressions to read properties.
+         */
+        ReflectorFactory getReflectorFactory() {
+            return reflectorFactory;
         }
 
         @Override
@@ -15,9 +15,20 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -30,10 +41,59 @@ public class DynamicSqlSource implements SqlSource {
 
     private final Configuration configuration;
     private final SqlNode rootSqlNode;
+    private final boolean chunked;
+    // 以渲染后的 SQL 与参数类型为 key，缓存解析出的 StaticSqlSource，超出容量时淘汰最久未使用的
+    private final Map<CacheKey, ParsedSql> parsedSqlCache = Collections.synchronizedMap(
+            new LinkedHashMap<CacheKey, ParsedSql>(16, .75F, true) {
+                private static final long serialVersionUID = -2871390622853915532L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, ParsedSql> eldest) {
+                    return size() > configuration.getDynamicSqlCacheSize();
+                }
+            });
 
     public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
+        this(configuration, rootSqlNode, false);
+    }
+
+    /**
+     * @param chunked
+     *          whether the SQL nodes contain a <code>foreach</code> with a chunk size, whose collection is split across
+     *          statements by {@link #getBoundSqlChunks(Object)}
+     * @since 3.5.6
+     */
+    public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode, boolean chunked) {
         this.configuration = configuration;
         this.rootSqlNode = rootSqlNode;
+        this.chunked = chunked;
+    }
+
+    /**
+     * @since 3.5.6
+     */
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    /**
+     * Renders one statement per chunk of the chunked <code>foreach</code> collections.
+     *
+     * @param parameterObject the parameter object
+     * @return the statements, in chunk order; only one when no collection exceeds its chunk size
+     * @since 3.5.6
+     */
+    public List<BoundSql> getBoundSqlChunks(Object parameterObject) {
+        List<BoundSql> chunks = new ArrayList<>(1);
+        int chunkCount = 1;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            DynamicContext context = new DynamicContext(configuration, parameterObject);
+            context.setChunk(chunk);
+            rootSqlNode.apply(context);
+            chunkCount = context.getChunkCount();
+            chunks.add(getBoundSql(context, parameterObject));
+        }
+        return chunks;
     }
 
     /**
@@ -46,16 +106,141 @@ public class DynamicSqlSource implements SqlSource {
         DynamicContext context = new DynamicContext(configuration, parameterObject);
         // 解析 SQL 片段，并将解析结果存储到 DynamicContext 中
         rootSqlNode.apply(context);
-        SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+        return getBoundSql(context, parameterObject);
+    }
+
+    private BoundSql getBoundSql(DynamicContext context, Object parameterObject) {
         Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-        // 构建 StaticSqlSource，在此过程中将 sql 语句中的占位符 #{} 替换为问号 ?，
-        // 并为每个占位符构建相应的 ParameterMapping
-        SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
-        // 调用 StaticSqlSource 的 getBoundSql 获取 BoundSql
-        BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+        String sql = context.getSql();
+        int cacheSize = configuration.getDynamicSqlCacheSize();
+        CacheKey cacheKey = null;
+        ParsedSql parsedSql = null;
+        BoundSql boundSql = null;
+        if (cacheSize > 0) {
+            cacheKey = new CacheKey(2);
+            cacheKey.update(sql);
+            cacheKey.update(parameterType);
+            parsedSql = parsedSqlCache.get(cacheKey);
+            if (parsedSql != null && parsedSql.matches(context.getBindings())) {
+                boundSql = parsedSql.sqlSource.getBoundSql(parameterObject);
+            }
+        }
+        if (boundSql == null) {
+            SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+            // 构建 StaticSqlSource，在此过程中将 sql 语句中的占位符 #{} 替换为问号 ?，
+            // 并为每个占位符构建相应的 ParameterMapping
+            SqlSource sqlSource = sqlSourceParser.parse(sql, parameterType, context.getBindings(), cacheKey != null);
+            // 调用 StaticSqlSource 的 getBoundSql 获取 BoundSql
+            boundSql = sqlSource.getBoundSql(parameterObject);
+            // 绑定参数类型变化时以最新的解析结果替换旧的
+            if (cacheKey != null) {
+                parsedSqlCache.put(cacheKey, new ParsedSql(sqlSource, boundSql.getParameterMappings(), context.getBindings()));
+            }
+        }
         // 将 DynamicContext 的 ContextMap 中的内容拷贝到 BoundSql 中
         context.getBindings().forEach(boundSql::setAdditionalParameter);
         return boundSql;
     }
 
+    /**
+     * The parameter mappings of a rendered SQL, with the types of the additional parameters they were resolved from.
+     * <p>
+     * The Java type of a parameter bound by the SQL nodes (e.g. a <code>foreach</code> item) comes from its value, so a
+     * parsed SQL is reused only while these parameters resolve to the same types. The class of the bound value decides
+     * the type, except for properties of maps and collections, which are resolved again.
+     */
+    private final class ParsedSql {
+
+        private final SqlSource sqlSource;
+        private final AdditionalParameter[] additionalParameters;
+        private final Class<?>[] types;
+
+        ParsedSql(SqlSource sqlSource, List<ParameterMapping> parameterMappings, Map<String, Object> bindings) {
+            this.sqlSource = sqlSource;
+            List<AdditionalParameter> parameters = new ArrayList<>(parameterMappings.size());
+            for (ParameterMapping parameterMapping : parameterMappings) {
+                if (parameterMapping.getProperty() != null) {
+                    parameters.add(new AdditionalParameter(parameterMapping.getProperty()));
+                }
+            }
+            this.additionalParameters = parameters.toArray(new AdditionalParameter[0]);
+            this.types = new Class<?>[additionalParameters.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = additionalParameters[i].typeOf(bindings);
+            }
+        }
+
+        boolean matches(Map<String, Object> bindings) {
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] != additionalParameters[i].typeOf(bindings)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A property a parameter mapping may read from the additional parameters, split once into its binding name, index
+     * and children.
+     */
+    private final class AdditionalParameter {
+
+        private final String property;
+        private final String name;
+        private final int index;
+        private final boolean nested;
+        private final boolean deeplyNested;
+
+        AdditionalParameter(String property) {
+            PropertyTokenizer prop = new PropertyTokenizer(property);
+            this.property = property;
+            this.name = prop.getName();
+            this.index = prop.getIndex() == null ? -1 : parseIndex(prop.getIndex());
+            this.nested = prop.hasNext();
+            this.deeplyNested = nested && new PropertyTokenizer(prop.getChildren()).hasNext();
+        }
+
+        private int parseIndex(String index) {
+            try {
+                return Integer.parseInt(index);
+            } catch (NumberFormatException e) {
+                return -2;
+            }
+        }
+
+        /**
+         * Returns what the type of the parameter depends on: null if it is not an additional parameter, the class of
+         * its value for simple values and properties of beans, or else the resolved type.
+         */
+        Class<?> typeOf(Map<String, Object> bindings) {
+            if (!bindings.containsKey(name)) {
+                return null;
+            }
+            if (deeplyNested) {
+                return resolveType(bindings);
+            }
+            Object value = bindings.get(name);
+            if (index >= 0 && value instanceof List) {
+                List<?> list = (List<?>) value;
+                value = index < list.size() ? list.get(index) : null;
+            } else if (index != -1) {
+                return resolveType(bindings);
+            }
+            if (value == null) {
+                return Void.class;
+            }
+            if (nested && (value instanceof Map || value instanceof Collection
+                    || configuration.getObjectWrapperFactory().hasWrapperFor(value))) {
+                return resolveType(bindings);
+            }
+            return value.getClass();
+        }
+
+        private Class<?> resolveType(Map<String, Object> bindings) {
+            MetaObject metaParameters = configuration.newMetaObject(bindings);
+            return metaParameters.hasGetter(property) ? metaParameters.getGetterType(property) : null;
+        }
+    }
+
 }
@@ -0,0 +1,563 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+
+/**
+ * Compiles the subset of OGNL supported by {@link CompiledExpressionEngine} into trees of evaluators.
+ */
+final class ExpressionCompiler {
+
+  // OGNL reads these from a Map instead of getting the entries with these keys
+  private static final Set<String> MAP_PROPERTIES = new HashSet<>(Arrays.asList("size", "isEmpty", "keys", "keySet", "values"));
+  private static final Set<String> METHODS = new HashSet<>(Arrays.asList("size", "isEmpty", "length"));
+  private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList("and", "or", "not", "eq", "neq", "lt",
+      "lte", "gt", "gte", "in", "instanceof", "new", "shl", "shr", "ushr", "band", "bor", "xor"));
+
+  private final String expression;
+  private final ReflectorFactory reflectorFactory;
+  private int position;
+
+  private ExpressionCompiler(String expression, ReflectorFactory reflectorFactory) {
+    this.expression = expression;
+    this.reflectorFactory = reflectorFactory;
+  }
+
+  /**
+   * Compiles an expression.
+   *
+   * @param expression
+   *          the expression
+   * @param reflectorFactory
+   *          the reflector factory used to read properties when the root is not the bindings of a {@link DynamicContext}
+   * @return the compiled expression, or null if the expression uses syntax that is not supported
+   */
+  static CompiledExpression compile(String expression, ReflectorFactory reflectorFactory) {
+    ExpressionCompiler compiler = new ExpressionCompiler(expression, reflectorFactory);
+    try {
+      CompiledExpression compiledExpression = compiler.parseOr();
+      compiler.skipWhitespace();
+      return compiler.position == expression.length() ? compiledExpression : null;
+    } catch (UnsupportedExpressionException e) {
+      return null;
+    }
+  }
+
+  private CompiledExpression parseOr() {
+    List<CompiledExpression> operands = new ArrayList<>();
+    operands.add(parseAnd());
+    while (acceptOperator("||") || acceptKeyword("or")) {
+      operands.add(parseAnd());
+    }
+    return operands.size() == 1 ? operands.get(0) : new Or(operands);
+  }
+
+  private CompiledExpression parseAnd() {
+    List<CompiledExpression> operands = new ArrayList<>();
+    operands.add(parseEquality());
+    while (acceptOperator("&&") || acceptKeyword("and")) {
+      operands.add(parseEquality());
+    }
+    return operands.size() == 1 ? operands.get(0) : new And(operands);
+  }
+
+  private CompiledExpression parseEquality() {
+    CompiledExpression left = parseRelational();
+    while (true) {
+      if (acceptOperator("==") || acceptKeyword("eq")) {
+        left = new Equal(left, parseRelational(), false);
+      } else if (acceptOperator("!=") || acceptKeyword("neq")) {
+        left = new Equal(left, parseRelational(), true);
+      } else {
+        return left;
+      }
+    }
+  }
+
+  private CompiledExpression parseRelational() {
+    CompiledExpression left = parseUnary();
+    while (true) {
+      if (acceptOperator("<=") || acceptKeyword("lte")) {
+        left = new Compare(left, parseUnary(), Compare.LESS_OR_EQUAL);
+      } else if (acceptOperator(">=") || acceptKeyword("gte")) {
+        left = new Compare(left, parseUnary(), Compare.GREATER_OR_EQUAL);
+      } else if (acceptOperator("<") || acceptKeyword("lt")) {
+        left = new Compare(left, parseUnary(), Compare.LESS);
+      } else if (acceptOperator(">") || acceptKeyword("gt")) {
+        left = new Compare(left, parseUnary(), Compare.GREATER);
+      } else {
+        return left;
+      }
+    }
+  }
+
+  private CompiledExpression parseUnary() {
+    if (acceptOperator("!") || acceptKeyword("not")) {
+      return new Not(parseUnary());
+    }
+    return parsePrimary();
+  }
+
+  private CompiledExpression parsePrimary() {
+    skipWhitespace();
+    if (position == expression.length()) {
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+    char c = expression.charAt(position);
+    if (c == '(') {
+      position++;
+      CompiledExpression compiledExpression = parseOr();
+      expectOperator(")");
+      return compiledExpression;
+    } else if (c == '"' || c == '\'') {
+      return parseString(c);
+    } else if (Character.isDigit(c)) {
+      return parseInteger();
+    } else if (Character.isJavaIdentifierStart(c)) {
+      return parsePath();
+    }
+    throw UnsupportedExpressionException.INSTANCE;
+  }
+
+  private CompiledExpression parseString(char quote) {
+    int end = expression.indexOf(quote, position + 1);
+    if (end < 0) {
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+    String value = expression.substring(position + 1, end);
+    // OGNL reads a single quoted character as a Character
+    if (value.indexOf('\\') >= 0 || (quote == '\'' && value.length() == 1)) {
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+    position = end + 1;
+    return new Constant(value);
+  }
+
+  private CompiledExpression parseInteger() {
+    int start = position;
+    while (position < expression.length() && Character.isDigit(expression.charAt(position))) {
+      position++;
+    }
+    // decimals, suffixed and octal literals are left to OGNL
+    if ((position < expression.length()
+        && (expression.charAt(position) == '.' || Character.isJavaIdentifierPart(expression.charAt(position))))
+        || (expression.charAt(start) == '0' && position - start > 1)) {
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+    try {
+      return new Constant(Integer.valueOf(expression.substring(start, position)));
+    } catch (NumberFormatException e) {
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+  }
+
+  private CompiledExpression parsePath() {
+    String name = parseIdentifier();
+    if ("null".equals(name)) {
+      return new Constant(null);
+    } else if ("true".equals(name)) {
+      return new Constant(Boolean.TRUE);
+    } else if ("false".equals(name)) {
+      return new Constant(Boolean.FALSE);
+    } else if (RESERVED_WORDS.contains(name)) {
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+    CompiledExpression path = new Property(null, name, reflectorFactory);
+    while (acceptOperator(".")) {
+      skipWhitespace();
+      name = parseIdentifier();
+      if (acceptOperator("(")) {
+        if (!METHODS.contains(name)) {
+          throw UnsupportedExpressionException.INSTANCE;
+        }
+        expectOperator(")");
+        path = new MethodCall(path, name);
+      } else {
+        path = new Property(path, name, reflectorFactory);
+      }
+    }
+    if (path instanceof Property && acceptOperator("(")) {
+      // methods of the root object
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+    return path;
+  }
+
+  private String parseIdentifier() {
+    int start = position;
+    if (position == expression.length() || !Character.isJavaIdentifierStart(expression.charAt(position))) {
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+    while (position < expression.length() && Character.isJavaIdentifierPart(expression.charAt(position))) {
+      position++;
+    }
+    return expression.substring(start, position);
+  }
+
+  private boolean acceptOperator(String operator) {
+    skipWhitespace();
+    if (expression.startsWith(operator, position)) {
+      int end = position + operator.length();
+      // do not take the first character of a longer operator, e.g. '<' of '<<' or '!' of '!='
+      if (end < expression.length() && operator.length() == 1 && "!<>=&|".indexOf(operator.charAt(0)) >= 0
+          && "=<>&|".indexOf(expression.charAt(end)) >= 0) {
+        return false;
+      }
+      position = end;
+      return true;
+    }
+    return false;
+  }
+
+  private void expectOperator(String operator) {
+    if (!acceptOperator(operator)) {
+      throw UnsupportedExpressionException.INSTANCE;
+    }
+  }
+
+  private boolean acceptKeyword(String keyword) {
+    skipWhitespace();
+    int end = position + keyword.length();
+    if (expression.startsWith(keyword, position)
+        && (end == expression.length() || !Character.isJavaIdentifierPart(expression.charAt(end)))) {
+      position = end;
+      return true;
+    }
+    return false;
+  }
+
+  private void skipWhitespace() {
+    while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+      position++;
+    }
+  }
+
+  /**
+   * Converts a value to a boolean the way OGNL does.
+   */
+  private static boolean booleanValue(Object value) {
+    if (value == null) {
+      return false;
+    } else if (value instanceof Boolean) {
+      return (Boolean) value;
+    } else if (value instanceof Number) {
+      return ((Number) value).doubleValue() != 0;
+    } else if (value instanceof CharSequence || value instanceof Character) {
+      throw UnsupportedValueException.INSTANCE;
+    }
+    return true;
+  }
+
+  private static boolean isIntegral(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+
+  /**
+   * An expression compiled into a tree of evaluators.
+   */
+  interface CompiledExpression {
+    Object getValue(Object root);
+  }
+
+  private static final class Constant implements CompiledExpression {
+    private final Object value;
+
+    Constant(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      return value;
+    }
+  }
+
+  private static final class Property implements CompiledExpression {
+    private final CompiledExpression target;
+    private final String name;
+    private final ReflectorFactory reflectorFactory;
+    private volatile PropertyReader reader;
+
+    Property(CompiledExpression target, String name, ReflectorFactory reflectorFactory) {
+      this.target = target;
+      this.name = name;
+      this.reflectorFactory = reflectorFactory;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      if (root instanceof DynamicContext.ContextMap) {
+        DynamicContext.ContextMap bindings = (DynamicContext.ContextMap) root;
+        return target == null ? getBinding(bindings)
+            : getProperty(target.getValue(root), bindings.getReflectorFactory());
+      }
+      return getProperty(target == null ? root : target.getValue(root), reflectorFactory);
+    }
+
+    // same as DynamicContext.ContextAccessor
+    private Object getBinding(Map<?, ?> bindings) {
+      Object value = bindings.get(name);
+      if (value != null || bindings.containsKey(name)) {
+        return value;
+      }
+      Object parameterObject = bindings.get(DynamicContext.PARAMETER_OBJECT_KEY);
+      if (parameterObject instanceof Map) {
+        return ((Map<?, ?>) parameterObject).get(name);
+      }
+      return null;
+    }
+
+    private Object getProperty(Object object, ReflectorFactory reflectorFactory) {
+      if (object instanceof Map) {
+        if (MAP_PROPERTIES.contains(name)) {
+          throw UnsupportedValueException.INSTANCE;
+        }
+        return ((Map<?, ?>) object).get(name);
+      }
+      if (object == null || object instanceof Collection || object instanceof Iterator
+          || object instanceof Enumeration || object instanceof Class || object.getClass().isArray()) {
+        throw UnsupportedValueException.INSTANCE;
+      }
+      PropertyReader propertyReader = reader;
+      if (propertyReader == null || propertyReader.type != object.getClass()) {
+        Reflector reflector = reflectorFactory.findForClass(object.getClass());
+        if (!reflector.hasGetter(name)) {
+          throw UnsupportedValueException.INSTANCE;
+        }
+        propertyReader = new PropertyReader(object.getClass(), reflector.getGetInvoker(name));
+        reader = propertyReader;
+      }
+      try {
+        return propertyReader.invoker.invoke(object, null);
+      } catch (ReflectiveOperationException e) {
+        // a failing getter is not evaluated again by the fallback engine
+        throw new ReflectionException("Could not get property '" + name + "' from " + object.getClass() + ".  Cause: " + e.toString(), e);
+      }
+    }
+  }
+
+  private static final class PropertyReader {
+    private final Class<?> type;
+    private final Invoker invoker;
+
+    PropertyReader(Class<?> type, Invoker invoker) {
+      this.type = type;
+      this.invoker = invoker;
+    }
+  }
+
+  private static final class MethodCall implements CompiledExpression {
+    private final CompiledExpression target;
+    private final String name;
+
+    MethodCall(CompiledExpression target, String name) {
+      this.target = target;
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      Object object = target.getValue(root);
+      if ("size".equals(name)) {
+        if (object instanceof Collection) {
+          return ((Collection<?>) object).size();
+        } else if (object instanceof Map) {
+          return ((Map<?, ?>) object).size();
+        }
+      } else if ("isEmpty".equals(name)) {
+        if (object instanceof Collection) {
+          return ((Collection<?>) object).isEmpty();
+        } else if (object instanceof Map) {
+          return ((Map<?, ?>) object).isEmpty();
+        } else if (object instanceof String) {
+          return ((String) object).isEmpty();
+        }
+      } else if ("length".equals(name) && object instanceof String) {
+        return ((String) object).length();
+      }
+      throw UnsupportedValueException.INSTANCE;
+    }
+  }
+
+  private static final class Not implements CompiledExpression {
+    private final CompiledExpression operand;
+
+    Not(CompiledExpression operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      return booleanValue(operand.getValue(root)) ? Boolean.FALSE : Boolean.TRUE;
+    }
+  }
+
+  /**
+   * Returns the first operand that is false, or the last one, like OGNL does.
+   */
+  private static final class And implements CompiledExpression {
+    private final CompiledExpression[] operands;
+
+    And(List<CompiledExpression> operands) {
+      this.operands = operands.toArray(new CompiledExpression[0]);
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      Object value = null;
+      for (int i = 0; i < operands.length; i++) {
+        value = operands[i].getValue(root);
+        if (i < operands.length - 1 && !booleanValue(value)) {
+          break;
+        }
+      }
+      return value;
+    }
+  }
+
+  /**
+   * Returns the first operand that is true, or the last one, like OGNL does.
+   */
+  private static final class Or implements CompiledExpression {
+    private final CompiledExpression[] operands;
+
+    Or(List<CompiledExpression> operands) {
+      this.operands = operands.toArray(new CompiledExpression[0]);
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      Object value = null;
+      for (int i = 0; i < operands.length; i++) {
+        value = operands[i].getValue(root);
+        if (i < operands.length - 1 && booleanValue(value)) {
+          break;
+        }
+      }
+      return value;
+    }
+  }
+
+  private static final class Equal implements CompiledExpression {
+    private final CompiledExpression left;
+    private final CompiledExpression right;
+    private final boolean negated;
+
+    Equal(CompiledExpression left, CompiledExpression right, boolean negated) {
+      this.left = left;
+      this.right = right;
+      this.negated = negated;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      Object leftValue = left.getValue(root);
+      Object rightValue = right.getValue(root);
+      boolean equal;
+      if (leftValue == rightValue) {
+        equal = true;
+      } else if (leftValue == null || rightValue == null) {
+        equal = false;
+      } else if (isIntegral(leftValue) && isIntegral(rightValue)) {
+        equal = ((Number) leftValue).longValue() == ((Number) rightValue).longValue();
+      } else if (leftValue.getClass() == rightValue.getClass()
+          && (leftValue instanceof String || leftValue instanceof Boolean)) {
+        equal = leftValue.equals(rightValue);
+      } else {
+        // OGNL converts the values before comparing them
+        throw UnsupportedValueException.INSTANCE;
+      }
+      return equal != negated;
+    }
+  }
+
+  private static final class Compare implements CompiledExpression {
+    static final int LESS = 0;
+    static final int LESS_OR_EQUAL = 1;
+    static final int GREATER = 2;
+    static final int GREATER_OR_EQUAL = 3;
+
+    private final CompiledExpression left;
+    private final CompiledExpression right;
+    private final int operator;
+
+    Compare(CompiledExpression left, CompiledExpression right, int operator) {
+      this.left = left;
+      this.right = right;
+      this.operator = operator;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      Object leftValue = left.getValue(root);
+      Object rightValue = right.getValue(root);
+      int comparison;
+      if (isIntegral(leftValue) && isIntegral(rightValue)) {
+        comparison = Long.compare(((Number) leftValue).longValue(), ((Number) rightValue).longValue());
+      } else if (leftValue instanceof String && rightValue instanceof String) {
+        comparison = ((String) leftValue).compareTo((String) rightValue);
+      } else {
+        throw UnsupportedValueException.INSTANCE;
+      }
+      switch (operator) {
+        case LESS:
+          return comparison < 0;
+        case LESS_OR_EQUAL:
+          return comparison <= 0;
+        case GREATER:
+          return comparison > 0;
+        default:
+          return comparison >= 0;
+      }
+    }
+  }
+
+  private static final class UnsupportedExpressionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private static final UnsupportedExpressionException INSTANCE = new UnsupportedExpressionException();
+
+    private UnsupportedExpressionException() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Thrown when a compiled expression meets a value that OGNL would not handle the same way.
+   */
+  static final class UnsupportedValueException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    static final UnsupportedValueException INSTANCE = new UnsupportedValueException();
+
+    private UnsupportedValueException() {
+      super(null, null, false, false);
+    }
+  }
+
+}
@@ -28,8 +28,22 @@ import org.apache.ibatis.builder.BuilderException;
  */
 public class ExpressionEvaluator {
 
+  private final ExpressionEngine expressionEngine;
+
+  public ExpressionEvaluator() {
+    this(new OgnlExpressionEngine());
+  }
+
+  /**
+   * @param expressionEngine the engine that evaluates the expressions
+   * @since 3.5.6
+   */
+  public ExpressionEvaluator(ExpressionEngine expressionEngine) {
+    this.expressionEngine = expressionEngine;
+  }
+
   public boolean evaluateBoolean(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = expressionEngine.getValue(expression, parameterObject);
     if (value instanceof Boolean) {
       return (Boolean) value;
     }
@@ -40,7 +54,7 @@ public class ExpressionEvaluator {
   }
 
   public Iterable<?> evaluateIterable(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = expressionEngine.getValue(expression, parameterObject);
     if (value == null) {
       throw new BuilderException("The expression '" + expression + "' evaluated to a null value.");
     }
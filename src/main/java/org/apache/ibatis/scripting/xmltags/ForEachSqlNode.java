@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2020 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,7 +15,12 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
 import org.apache.ibatis.session.Configuration;
@@ -25,6 +30,9 @@ import org.apache.ibatis.session.Configuration;
  */
 public class ForEachSqlNode implements SqlNode {
   public static final String ITEM_PREFIX = "__frch_";
+  private static final int MAX_CACHED_TEMPLATES = 64;
+  // marks the tokens in the text parsed into a template, it cannot appear in SQL read from XML
+  private static final char TOKEN_MARK = '\u0000';
 
   private final ExpressionEvaluator evaluator;
   private final String collectionExpression;
@@ -35,9 +43,36 @@ public class ForEachSqlNode implements SqlNode {
   private final String item;
   private final String index;
   private final Configuration configuration;
+  private final Integer chunkSize;
+  private final boolean padding;
+  private final Pattern itemPattern;
+  private final Pattern indexPattern;
+  private final Map<String, ItemTemplate> itemTemplates = new ConcurrentHashMap<>();
 
   public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator) {
-    this.evaluator = new ExpressionEvaluator();
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, null, false);
+  }
+
+  /**
+   * Creates a foreach node that binds its items positionally, so that statements built from collections of varying
+   * sizes share their SQL.
+   *
+   * @param chunkSize
+   *          the maximum number of items rendered in one statement, or <code>null</code> to render them all. Longer
+   *          collections are split into several statements, that are run one after the other when the SQL source is
+   *          created as chunked
+   * @param padding
+   *          whether the items are padded to the next power of two by repeating the last one, which suits
+   *          <code>IN</code> lists only
+   * @since 3.5.6
+   * @see DynamicSqlSource#isChunked()
+   */
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator,
+      Integer chunkSize, boolean padding) {
+    if (chunkSize != null && chunkSize <= 0) {
+      throw new IllegalArgumentException("The chunk size of a foreach must be positive but was " + chunkSize);
+    }
+    this.evaluator = new ExpressionEvaluator(configuration.getExpressionEngine());
     this.collectionExpression = collectionExpression;
     this.contents = contents;
     this.open = open;
@@ -46,6 +81,10 @@ public class ForEachSqlNode implements SqlNode {
     this.index = index;
     this.item = item;
     this.configuration = configuration;
+    this.chunkSize = chunkSize;
+    this.padding = padding;
+    this.itemPattern = Pattern.compile("^\\s*" + item + "(?![^.,:\\s])");
+    this.indexPattern = index == null ? null : Pattern.compile("^\\s*" + index + "(?![^.,:\\s])");
   }
 
   @Override
@@ -55,6 +94,9 @@ public class ForEachSqlNode implements SqlNode {
     if (!iterable.iterator().hasNext()) {
       return true;
     }
+    if (chunkSize != null || padding) {
+      return applyPositionally(context, iterable);
+    }
     boolean first = true;
     applyOpen(context);
     int i = 0;
@@ -76,7 +118,7 @@ public class ForEachSqlNode implements SqlNode {
         applyIndex(context, i, uniqueNumber);
         applyItem(context, o, uniqueNumber);
       }
-      contents.apply(new FilteredDynamicContext(configuration, context, index, item, uniqueNumber));
+      contents.apply(new FilteredDynamicContext(context, uniqueNumber, -1));
       if (first) {
         first = !((PrefixedContext) context).isPrefixApplied();
       }
@@ -89,6 +131,78 @@ public class ForEachSqlNode implements SqlNode {
     return true;
   }
 
+  /**
+   * Renders the items of the current chunk, binding them to one list per variable that the SQL refers to by position
+   * instead of to one entry per item.
+   */
+  private boolean applyPositionally(DynamicContext context, Iterable<?> iterable) {
+    List<?> elements;
+    if (iterable instanceof List) {
+      elements = (List<?>) iterable;
+    } else {
+      List<Object> list = new ArrayList<>();
+      iterable.forEach(list::add);
+      elements = list;
+    }
+    int from = 0;
+    int to = elements.size();
+    int maxCount = Integer.MAX_VALUE;
+    if (chunkSize != null && context.getChunk() >= 0) {
+      context.requireChunks((to + chunkSize - 1) / chunkSize);
+      from = context.getChunk() * chunkSize;
+      if (from >= to) {
+        // another foreach of the statement has more chunks than this one
+        return true;
+      }
+      to = Math.min(to, from + chunkSize);
+      maxCount = chunkSize;
+    }
+    int count = to - from;
+    int paddedCount = padding ? Math.min(bucketSize(count), maxCount) : count;
+    int uniqueNumber = context.getUniqueNumber();
+    List<Object> items = new ArrayList<>(paddedCount);
+    List<Object> indexes = new ArrayList<>(paddedCount);
+    if (item != null) {
+      context.bind(itemizeItem(item, uniqueNumber), items);
+    }
+    if (index != null) {
+      context.bind(itemizeItem(index, uniqueNumber), indexes);
+    }
+    boolean first = true;
+    applyOpen(context);
+    for (int position = 0; position < paddedCount; position++) {
+      int i = from + Math.min(position, count - 1);
+      Object o = elements.get(i);
+      Object key = i;
+      if (o instanceof Map.Entry) {
+        Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) o;
+        key = mapEntry.getKey();
+        o = mapEntry.getValue();
+      }
+      if (index != null) {
+        context.bind(index, key);
+        indexes.add(key);
+      }
+      if (item != null) {
+        context.bind(item, o);
+        items.add(o);
+      }
+      PrefixedContext prefixedContext = new PrefixedContext(context, first || separator == null ? "" : separator);
+      contents.apply(new FilteredDynamicContext(prefixedContext, uniqueNumber, position));
+      if (first) {
+        first = !prefixedContext.isPrefixApplied();
+      }
+    }
+    applyClose(context);
+    context.getBindings().remove(item);
+    context.getBindings().remove(index);
+    return true;
+  }
+
+  private static int bucketSize(int count) {
+    return count <= 1 ? count : Integer.highestOneBit(count - 1) << 1;
+  }
+
   private void applyIndex(DynamicContext context, Object o, int i) {
     if (index != null) {
       context.bind(index, o);
@@ -119,64 +233,125 @@ public class ForEachSqlNode implements SqlNode {
     return ITEM_PREFIX + item + "_" + i;
   }
 
-  private static class FilteredDynamicContext extends DynamicContext {
-    private final DynamicContext delegate;
-    private final int index;
-    private final String itemIndex;
-    private final String item;
-
-    public FilteredDynamicContext(Configuration configuration,DynamicContext delegate, String itemIndex, String item, int i) {
-      super(configuration, null);
-      this.delegate = delegate;
-      this.index = i;
-      this.itemIndex = itemIndex;
-      this.item = item;
+  // same as sql.trim().length() > 0, without the copy
+  private static boolean hasText(String sql) {
+    for (int i = 0; i < sql.length(); i++) {
+      if (sql.charAt(i) > ' ') {
+        return true;
+      }
     }
+    return false;
+  }
 
-    @Override
-    public Map<String, Object> getBindings() {
-      return delegate.getBindings();
+  private ItemTemplate getItemTemplate(String sql) {
+    ItemTemplate template = itemTemplates.get(sql);
+    if (template == null) {
+      template = new ItemTemplate(sql);
+      if (itemTemplates.size() < MAX_CACHED_TEMPLATES) {
+        itemTemplates.put(sql, template);
+      }
     }
+    return template;
+  }
 
-    @Override
-    public void bind(String name, Object value) {
-      delegate.bind(name, value);
+  /**
+   * The SQL appended for an item, with its <code>#{}</code> references to the item or the index resolved once.
+   */
+  private class ItemTemplate {
+    private final String sql;
+    private final boolean marked;
+    private final List<String> texts = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<String> tokenTails = new ArrayList<>();
+
+    ItemTemplate(String sql) {
+      this.sql = sql;
+      this.marked = sql.indexOf(TOKEN_MARK) >= 0;
+      if (marked) {
+        return;
+      }
+      List<String> tokens = new ArrayList<>();
+      String marked = new GenericTokenParser("#{", "}", content -> {
+        tokens.add(content);
+        return String.valueOf(TOKEN_MARK);
+      }).parse(sql);
+      int textStart = 0;
+      for (String content : tokens) {
+        int mark = marked.indexOf(TOKEN_MARK, textStart);
+        texts.add(marked.substring(textStart, mark));
+        textStart = mark + 1;
+        Matcher matcher = itemPattern.matcher(content);
+        if (matcher.find()) {
+          names.add(item);
+          tokenTails.add(content.substring(matcher.end()));
+        } else if (indexPattern != null && (matcher = indexPattern.matcher(content)).find()) {
+          names.add(index);
+          tokenTails.add(content.substring(matcher.end()));
+        } else {
+          names.add(null);
+          tokenTails.add(content);
+        }
+      }
+      texts.add(marked.substring(textStart));
     }
 
-    @Override
-    public String getSql() {
-      return delegate.getSql();
+    String apply(int i, int position) {
+      if (marked) {
+        return rewrite(i, position);
+      }
+      if (names.isEmpty()) {
+        return sql;
+      }
+      StringBuilder builder = new StringBuilder(sql.length() + names.size() * 16);
+      for (int k = 0; k < names.size(); k++) {
+        builder.append(texts.get(k)).append("#{");
+        if (names.get(k) != null) {
+          builder.append(ITEM_PREFIX).append(names.get(k)).append('_').append(i);
+          if (position >= 0) {
+            builder.append('[').append(position).append(']');
+          }
+        }
+        builder.append(tokenTails.get(k)).append('}');
+      }
+      return builder.append(texts.get(names.size())).toString();
     }
 
-    @Override
-    public void appendSql(String sql) {
-      GenericTokenParser parser = new GenericTokenParser("#{", "}", content -> {
-        String newContent = content.replaceFirst("^\\s*" + item + "(?![^.,:\\s])", itemizeItem(item, index));
-        if (itemIndex != null && newContent.equals(content)) {
-          newContent = content.replaceFirst("^\\s*" + itemIndex + "(?![^.,:\\s])", itemizeItem(itemIndex, index));
+    private String rewrite(int i, int position) {
+      String suffix = position >= 0 ? "[" + position + "]" : "";
+      return new GenericTokenParser("#{", "}", content -> {
+        String newContent = itemPattern.matcher(content).replaceFirst(Matcher.quoteReplacement(itemizeItem(item, i) + suffix));
+        if (indexPattern != null && newContent.equals(content)) {
+          newContent = indexPattern.matcher(content).replaceFirst(Matcher.quoteReplacement(itemizeItem(index, i) + suffix));
         }
         return "#{" + newContent + "}";
-      });
+      }).parse(sql);
+    }
+  }
 
-      delegate.appendSql(parser.parse(sql));
+  private class FilteredDynamicContext extends DynamicContext {
+    private final int index;
+    private final int position;
+
+    public FilteredDynamicContext(DynamicContext delegate, int i, int position) {
+      super(delegate);
+      this.index = i;
+      this.position = position;
     }
 
     @Override
-    public int getUniqueNumber() {
-      return delegate.getUniqueNumber();
+    public void appendSql(String sql) {
+      super.appendSql(getItemTemplate(sql).apply(index, position));
     }
 
   }
 
 
   private class PrefixedContext extends DynamicContext {
-    private final DynamicContext delegate;
     private final String prefix;
     private boolean prefixApplied;
 
     public PrefixedContext(DynamicContext delegate, String prefix) {
-      super(configuration, null);
-      this.delegate = delegate;
+      super(delegate);
       this.prefix = prefix;
       this.prefixApplied = false;
     }
@@ -185,33 +360,13 @@ public class ForEachSqlNode implements SqlNode {
       return prefixApplied;
     }
 
-    @Override
-    public Map<String, Object> getBindings() {
-      return delegate.getBindings();
-    }
-
-    @Override
-    public void bind(String name, Object value) {
-      delegate.bind(name, value);
-    }
-
     @Override
     public void appendSql(String sql) {
-      if (!prefixApplied && sql != null && sql.trim().length() > 0) {
-        delegate.appendSql(prefix);
+      if (!prefixApplied && sql != null && hasText(sql)) {
+        super.appendSql(prefix);
         prefixApplied = true;
       }
-      delegate.appendSql(sql);
-    }
-
-    @Override
-    public String getSql() {
-      return delegate.getSql();
-    }
-
-    @Override
-    public int getUniqueNumber() {
-      return delegate.getUniqueNumber();
+      super.appendSql(sql);
     }
   }
 
@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import org.apache.ibatis.session.Configuration;
+
 /**
  * @author Clinton Begin
  */
@@ -24,9 +26,23 @@ public class IfSqlNode implements SqlNode {
   private final SqlNode contents;
 
   public IfSqlNode(SqlNode contents, String test) {
+    this(contents, test, new ExpressionEvaluator());
+  }
+
+  /**
+   * @param configuration the configuration whose expression engine evaluates the test
+   * @param contents the contents applied when the test is true
+   * @param test the test expression
+   * @since 3.5.6
+   */
+  public IfSqlNode(Configuration configuration, SqlNode contents, String test) {
+    this(contents, test, new ExpressionEvaluator(configuration.getExpressionEngine()));
+  }
+
+  private IfSqlNode(SqlNode contents, String test, ExpressionEvaluator evaluator) {
     this.test = test;
     this.contents = contents;
-    this.evaluator = new ExpressionEvaluator();
+    this.evaluator = evaluator;
   }
 
   @Override
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2020 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,7 +19,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.StringTokenizer;
 
 import org.apache.ibatis.session.Configuration;
@@ -70,42 +69,39 @@ public class TrimSqlNode implements SqlNode {
   }
 
   private class FilteredDynamicContext extends DynamicContext {
-    private DynamicContext delegate;
-    private boolean prefixApplied;
-    private boolean suffixApplied;
-    private StringBuilder sqlBuffer;
+    private final StringBuilder sqlBuffer;
 
     public FilteredDynamicContext(DynamicContext delegate) {
-      super(configuration, null);
-      this.delegate = delegate;
-      this.prefixApplied = false;
-      this.suffixApplied = false;
+      super(delegate);
       this.sqlBuffer = new StringBuilder();
     }
 
     public void applyAll() {
-      sqlBuffer = new StringBuilder(sqlBuffer.toString().trim());
-      String trimmedUppercaseSql = sqlBuffer.toString().toUpperCase(Locale.ENGLISH);
-      if (trimmedUppercaseSql.length() > 0) {
-        applyPrefix(sqlBuffer, trimmedUppercaseSql);
-        applySuffix(sqlBuffer, trimmedUppercaseSql);
+      // bounds of the trimmed fragment, the overrides are matched in place instead of on an upper-cased copy
+      int start = 0;
+      int end = sqlBuffer.length();
+      while (start < end && sqlBuffer.charAt(start) <= ' ') {
+        start++;
       }
-      delegate.appendSql(sqlBuffer.toString());
-    }
-
-    @Override
-    public Map<String, Object> getBindings() {
-      return delegate.getBindings();
-    }
-
-    @Override
-    public void bind(String name, Object value) {
-      delegate.bind(name, value);
-    }
-
-    @Override
-    public int getUniqueNumber() {
-      return delegate.getUniqueNumber();
+      while (start < end && sqlBuffer.charAt(end - 1) <= ' ') {
+        end--;
+      }
+      if (start == end) {
+        super.appendSql("");
+        return;
+      }
+      int contentStart = start + removedPrefixLength(start, end);
+      int contentEnd = Math.max(contentStart, end - removedSuffixLength(start, end));
+      StringBuilder sql = new StringBuilder(contentEnd - contentStart
+          + (prefix == null ? 0 : prefix.length() + 1) + (suffix == null ? 0 : suffix.length() + 1));
+      if (prefix != null) {
+        sql.append(prefix).append(' ');
+      }
+      sql.append(sqlBuffer, contentStart, contentEnd);
+      if (suffix != null) {
+        sql.append(' ').append(suffix);
+      }
+      super.appendSql(sql.toString());
     }
 
     @Override
@@ -113,47 +109,40 @@ public class TrimSqlNode implements SqlNode {
       sqlBuffer.append(sql);
     }
 
-    @Override
-    public String getSql() {
-      return delegate.getSql();
-    }
-
-    private void applyPrefix(StringBuilder sql, String trimmedUppercaseSql) {
-      if (!prefixApplied) {
-        prefixApplied = true;
-        if (prefixesToOverride != null) {
-          for (String toRemove : prefixesToOverride) {
-            if (trimmedUppercaseSql.startsWith(toRemove)) {
-              sql.delete(0, toRemove.trim().length());
-              break;
-            }
+    private int removedPrefixLength(int start, int end) {
+      if (prefixesToOverride != null) {
+        for (String toRemove : prefixesToOverride) {
+          if (regionMatchesUpperCase(start, end, start, toRemove)) {
+            return toRemove.trim().length();
           }
         }
-        if (prefix != null) {
-          sql.insert(0, " ");
-          sql.insert(0, prefix);
-        }
       }
+      return 0;
     }
 
-    private void applySuffix(StringBuilder sql, String trimmedUppercaseSql) {
-      if (!suffixApplied) {
-        suffixApplied = true;
-        if (suffixesToOverride != null) {
-          for (String toRemove : suffixesToOverride) {
-            if (trimmedUppercaseSql.endsWith(toRemove) || trimmedUppercaseSql.endsWith(toRemove.trim())) {
-              int start = sql.length() - toRemove.trim().length();
-              int end = sql.length();
-              sql.delete(start, end);
-              break;
-            }
+    private int removedSuffixLength(int start, int end) {
+      if (suffixesToOverride != null) {
+        for (String toRemove : suffixesToOverride) {
+          String trimmed = toRemove.trim();
+          if (regionMatchesUpperCase(start, end, end - toRemove.length(), toRemove)
+              || regionMatchesUpperCase(start, end, end - trimmed.length(), trimmed)) {
+            return trimmed.length();
           }
         }
-        if (suffix != null) {
-          sql.append(" ");
-          sql.append(suffix);
+      }
+      return 0;
+    }
+
+    private boolean regionMatchesUpperCase(int start, int end, int offset, String upperCase) {
+      if (offset < start || offset + upperCase.length() > end) {
+        return false;
+      }
+      for (int i = 0; i < upperCase.length(); i++) {
+        if (Character.toUpperCase(sqlBuffer.charAt(offset + i)) != upperCase.charAt(i)) {
+          return false;
         }
       }
+      return true;
     }
 
   }
@@ -36,6 +36,7 @@ public class XMLScriptBuilder extends BaseBuilder {
 
     private final XNode context;
     private boolean isDynamic;
+    private boolean isChunked;
     private final Class<?> parameterType;
     private final Map<String, NodeHandler> nodeHandlerMap = new HashMap<>();
 
@@ -67,7 +68,7 @@ public class XMLScriptBuilder extends BaseBuilder {
         MixedSqlNode rootSqlNode = parseDynamicTags(context);
         SqlSource sqlSource;
         if (isDynamic) {
-            sqlSource = new DynamicSqlSource(configuration, rootSqlNode);
+            sqlSource = new DynamicSqlSource(configuration, rootSqlNode, isChunked);
         } else {
             sqlSource = new RawSqlSource(configuration, rootSqlNode, parameterType);
         }
@@ -176,7 +177,13 @@ public class XMLScriptBuilder extends BaseBuilder {
             String open = nodeToHandle.getStringAttribute("open");
             String close = nodeToHandle.getStringAttribute("close");
             String separator = nodeToHandle.getStringAttribute("separator");
-            ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator);
+            Integer chunkSize = nodeToHandle.getIntAttribute("chunkSize");
+            boolean padding = nodeToHandle.getBooleanAttribute("padding", false);
+            if (chunkSize != null && chunkSize <= 0) {
+                throw new BuilderException("The chunkSize of <foreach> must be positive but was " + chunkSize + ".");
+            }
+            isChunked |= chunkSize != null;
+            ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator, chunkSize, padding);
             targetContents.add(forEachSqlNode);
         }
     }
@@ -190,7 +197,7 @@ public class XMLScriptBuilder extends BaseBuilder {
         public void handleNode(XNode nodeToHandle, List<SqlNode> targetContents) {
             MixedSqlNode mixedSqlNode = parseDynamicTags(nodeToHandle);
             String test = nodeToHandle.getStringAttribute("test");
-            IfSqlNode ifSqlNode = new IfSqlNode(mixedSqlNode, test);
+            IfSqlNode ifSqlNode = new IfSqlNode(configuration, mixedSqlNode, test);
             targetContents.add(ifSqlNode);
         }
     }
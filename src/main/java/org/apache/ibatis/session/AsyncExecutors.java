@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+
+/**
+ * Creates the executor that runs asynchronous statements when none is set on the {@link Configuration}.
+ * <p>
+ * Runs every statement on a virtual thread when the JVM supports them (JDK 21+). Otherwise runs them on a bounded pool
+ * of daemon threads, sized to the connection pool of the environment, and queues the statements beyond it.
+ *
+ * @since 3.5.6
+ */
+final class AsyncExecutors {
+
+  private static final long KEEP_ALIVE_SECONDS = 60L;
+
+  private AsyncExecutors() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static Executor newDefault(Configuration configuration) {
+    if (VirtualThreads.EXECUTOR != null) {
+      return VirtualThreads.EXECUTOR;
+    }
+    int poolSize = getPoolSize(configuration);
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, "mybatis-async-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    // idle threads end, so that a discarded configuration does not keep any
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Returns the number of statements that can run at once: the maximum number of active connections of a pooled data
+   * source, otherwise the number of processors.
+   */
+  static int getPoolSize(Configuration configuration) {
+    Environment environment = configuration.getEnvironment();
+    if (environment != null && environment.getDataSource() instanceof PooledDataSource) {
+      return Math.max(1, ((PooledDataSource) environment.getDataSource()).getPoolMaximumActiveConnections());
+    }
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  private static class VirtualThreads {
+    private static final Executor EXECUTOR = newVirtualThreadPerTaskExecutor();
+
+    private static Executor newVirtualThreadPerTaskExecutor() {
+      try {
+        Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        return null;
+      }
+    }
+  }
+
+}
@@ -22,12 +22,15 @@ import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheStats;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 import org.apache.ibatis.executor.*;
@@ -35,6 +38,8 @@ import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.metrics.SlowQueryLog;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
@@ -64,6 +69,9 @@ import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.CompiledExpressionEngine;
+import org.apache.ibatis.scripting.xmltags.ExpressionEngine;
+import org.apache.ibatis.scripting.xmltags.OgnlExpressionEngine;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
@@ -74,6 +82,7 @@ import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 /**
@@ -110,6 +119,20 @@ public class Configuration {
     protected boolean useActualParamName = true;
     protected boolean returnInstanceForEmptyRow;
     protected boolean shrinkWhitespacesInSql;
+    protected boolean compileRowMappers;
+    protected int dynamicSqlCacheSize = 32;
+    protected ExpressionEngine expressionEngine = new OgnlExpressionEngine();
+    protected boolean batchGrouping;
+    protected Integer batchFlushRows;
+    protected Integer batchFlushBytes;
+    protected boolean streamNestedCursorResults;
+    protected boolean parallelResultMapping;
+    protected volatile int statementLogSampleRate = 1;
+    protected volatile boolean statementLogResultSets = true;
+    protected StatementMetrics statementMetrics;
+    protected Integer slowQueryThreshold;
+    protected boolean slowQueryRedactParameters;
+    protected SlowQueryLog slowQueryLog = new SlowQueryLog(100);
 
     protected String logPrefix;
     protected Class<? extends Log> logImpl;
@@ -135,6 +158,8 @@ public class Configuration {
     protected ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
     protected ObjectFactory objectFactory = new DefaultObjectFactory();
     protected ObjectWrapperFactory objectWrapperFactory = new DefaultObjectWrapperFactory();
+    protected java.util.concurrent.Executor asyncExecutor;
+    private volatile java.util.concurrent.Executor defaultAsyncExecutor;
 
     protected boolean lazyLoadingEnabled = false;
     protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
@@ -163,6 +188,8 @@ public class Configuration {
 
     protected final Map<String, Cache> caches = new StrictMap<>("Caches collection");
 
+    protected final Map<String, CacheStats> localCacheStats = new ConcurrentHashMap<>();
+
     protected final Map<String, ResultMap> resultMaps = new StrictMap<>("Result Maps collection");
 
     protected final Map<String, ParameterMap> parameterMaps = new StrictMap<>("Parameter Maps collection");
@@ -195,6 +222,7 @@ public class Configuration {
 
         typeAliasRegistry.registerAlias("JNDI", JndiDataSourceFactory.class);
         typeAliasRegistry.registerAlias("POOLED", PooledDataSourceFactory.class);
+        typeAliasRegistry.registerAlias("CONCURRENT_POOLED", ConcurrentPooledDataSourceFactory.class);
         typeAliasRegistry.registerAlias("UNPOOLED", UnpooledDataSourceFactory.class);
 
         typeAliasRegistry.registerAlias("PERPETUAL", PerpetualCache.class);
@@ -202,6 +230,7 @@ public class Configuration {
         typeAliasRegistry.registerAlias("LRU", LruCache.class);
         typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
         typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
+        typeAliasRegistry.registerAlias("TINY_LFU", TinyLfuCache.class);
 
         typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
@@ -216,6 +245,9 @@ public class Configuration {
         typeAliasRegistry.registerAlias("STDOUT_LOGGING", StdOutImpl.class);
         typeAliasRegistry.registerAlias("NO_LOGGING", NoLoggingImpl.class);
 
+        typeAliasRegistry.registerAlias("OGNL", OgnlExpressionEngine.class);
+        typeAliasRegistry.registerAlias("COMPILED", CompiledExpressionEngine.class);
+
         typeAliasRegistry.registerAlias("CGLIB", CglibProxyFactory.class);
         typeAliasRegistry.registerAlias("JAVASSIST", JavassistProxyFactory.class);
 
@@ -305,6 +337,212 @@ public class Configuration {
         this.shrinkWhitespacesInSql = shrinkWhitespacesInSql;
     }
 
+    /**
+     * @return true if the properties of simple result maps are set through row mappers compiled once per result set
+     * @since 3.5.6
+     */
+    public boolean isCompileRowMappers() {
+        return compileRowMappers;
+    }
+
+    public void setCompileRowMappers(boolean compileRowMappers) {
+        this.compileRowMappers = compileRowMappers;
+    }
+
+    /**
+     * @return the maximum number of distinct rendered SQL texts each dynamic statement keeps parsed, dropping the least
+     *         recently used first, 0 if none
+     * @since 3.5.6
+     */
+    public int getDynamicSqlCacheSize() {
+        return dynamicSqlCacheSize;
+    }
+
+    public void setDynamicSqlCacheSize(int dynamicSqlCacheSize) {
+        this.dynamicSqlCacheSize = dynamicSqlCacheSize;
+    }
+
+    /**
+     * @return the engine that evaluates the test and collection expressions of dynamic SQL
+     * @since 3.5.6
+     */
+    public ExpressionEngine getExpressionEngine() {
+        return expressionEngine;
+    }
+
+    public void setExpressionEngine(ExpressionEngine expressionEngine) {
+        if (expressionEngine == null) {
+            expressionEngine = new OgnlExpressionEngine();
+        }
+        this.expressionEngine = expressionEngine;
+    }
+
+    /**
+     * @return true if the batch executor adds a statement to an earlier batch of the same SQL, across other batches of
+     *         the same command type
+     * @since 3.5.6
+     */
+    public boolean isBatchGrouping() {
+        return batchGrouping;
+    }
+
+    public void setBatchGrouping(boolean batchGrouping) {
+        this.batchGrouping = batchGrouping;
+    }
+
+    /**
+     * @return the number of pending batched rows at which the batch executor executes its batches, null if unbounded
+     * @since 3.5.6
+     */
+    public Integer getBatchFlushRows() {
+        return batchFlushRows;
+    }
+
+    public void setBatchFlushRows(Integer batchFlushRows) {
+        this.batchFlushRows = batchFlushRows;
+    }
+
+    /**
+     * @return the estimated size in bytes of the pending batched parameters at which the batch executor executes its
+     *         batches, null if unbounded
+     * @since 3.5.6
+     */
+    public Integer getBatchFlushBytes() {
+        return batchFlushBytes;
+    }
+
+    public void setBatchFlushBytes(Integer batchFlushBytes) {
+        this.batchFlushBytes = batchFlushBytes;
+    }
+
+    /**
+     * @return true if a cursor over a nested result map emits each parent as soon as its group key changes
+     * @since 3.5.6
+     */
+    public boolean isStreamNestedCursorResults() {
+        return streamNestedCursorResults;
+    }
+
+    public void setStreamNestedCursorResults(boolean streamNestedCursorResults) {
+        this.streamNestedCursorResults = streamNestedCursorResults;
+    }
+
+    /**
+     * @return true if the rows of a list result are mapped on the common fork join pool once they are read
+     * @since 3.5.6
+     */
+    public boolean isParallelResultMapping() {
+        return parallelResultMapping;
+    }
+
+    public void setParallelResultMapping(boolean parallelResultMapping) {
+        this.parallelResultMapping = parallelResultMapping;
+    }
+
+    /**
+     * @return the rate at which statements are logged while their statement log is debug enabled, 1 logs every
+     *         statement and n logs one statement out of n
+     * @since 3.5.6
+     */
+    public int getStatementLogSampleRate() {
+        return statementLogSampleRate;
+    }
+
+    public void setStatementLogSampleRate(int statementLogSampleRate) {
+        this.statementLogSampleRate = Math.max(statementLogSampleRate, 1);
+    }
+
+    /**
+     * @return true if the result sets of logged statements are wrapped to log their totals and rows
+     * @since 3.5.6
+     */
+    public boolean isStatementLogResultSets() {
+        return statementLogResultSets;
+    }
+
+    public void setStatementLogResultSets(boolean statementLogResultSets) {
+        this.statementLogResultSets = statementLogResultSets;
+    }
+
+    /**
+     * @return the metrics receiving the timings and row counts of the executed statements, null if they are not
+     *         collected
+     * @since 3.5.6
+     */
+    public StatementMetrics getStatementMetrics() {
+        return statementMetrics;
+    }
+
+    public void setStatementMetrics(StatementMetrics statementMetrics) {
+        this.statementMetrics = statementMetrics;
+    }
+
+    /**
+     * @return the time in milliseconds above which an execution of a statement without a threshold of its own is
+     *         recorded in the slow query log, null if such executions are not checked
+     * @since 3.5.6
+     */
+    public Integer getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Integer slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    /**
+     * Returns the slow query threshold of a statement, which is the threshold of the statement if it has one and the
+     * threshold of this configuration otherwise.
+     *
+     * @param ms
+     *          the mapped statement
+     * @return the threshold in milliseconds, null if the executions of the statement are not checked
+     * @since 3.5.6
+     */
+    public Integer getSlowQueryThreshold(MappedStatement ms) {
+        Integer threshold = ms.getSlowQueryThreshold();
+        return threshold != null ? threshold : slowQueryThreshold;
+    }
+
+    /**
+     * @return true if the parameters of slow queries are not recorded
+     * @since 3.5.6
+     */
+    public boolean isSlowQueryRedactParameters() {
+        return slowQueryRedactParameters;
+    }
+
+    public void setSlowQueryRedactParameters(boolean slowQueryRedactParameters) {
+        this.slowQueryRedactParameters = slowQueryRedactParameters;
+    }
+
+    /**
+     * @return the number of slow queries kept by the slow query log
+     * @since 3.5.6
+     */
+    public int getSlowQueryLogSize() {
+        return slowQueryLog.getCapacity();
+    }
+
+    /**
+     * Replaces the slow query log with an empty one keeping the given number of slow queries.
+     *
+     * @param slowQueryLogSize
+     *          the number of slow queries kept
+     * @since 3.5.6
+     */
+    public void setSlowQueryLogSize(int slowQueryLogSize) {
+        this.slowQueryLog = new SlowQueryLog(slowQueryLogSize);
+    }
+
+    /**
+     * @return the log of the latest executions that exceeded their slow query threshold
+     * @since 3.5.6
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
     public String getDatabaseId() {
         return databaseId;
     }
@@ -449,6 +687,44 @@ public class Configuration {
         this.defaultExecutorType = defaultExecutorType;
     }
 
+    /**
+     * Gets the executor that runs asynchronous statements.
+     *
+     * @return the executor set through {@link #setAsyncExecutor(java.util.concurrent.Executor)}, or an executor that
+     *         uses virtual threads when the JVM supports them and otherwise a pool of daemon threads that is as large as
+     *         the maximum number of active connections of a
+     *         {@link org.apache.ibatis.datasource.pooled.PooledDataSource} (the number of processors for other
+     *         data sources)
+     * @since 3.5.6
+     */
+    public java.util.concurrent.Executor getAsyncExecutor() {
+        if (asyncExecutor != null) {
+            return asyncExecutor;
+        }
+        java.util.concurrent.Executor executor = defaultAsyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = defaultAsyncExecutor;
+                if (executor == null) {
+                    executor = AsyncExecutors.newDefault(this);
+                    defaultAsyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Sets the executor that runs asynchronous statements. Every task opens its own session, so the number of tasks
+     * running at once should not exceed the size of the connection pool.
+     *
+     * @param asyncExecutor the executor, or {@code null} to use the default one
+     * @since 3.5.6
+     */
+    public void setAsyncExecutor(java.util.concurrent.Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
     public boolean isCacheEnabled() {
         return cacheEnabled;
     }
@@ -684,6 +960,8 @@ public class Configuration {
         Executor executor;
         if (ExecutorType.BATCH == executorType) {
             executor = new BatchExecutor(this, transaction);
+        } else if (ExecutorType.PIPELINE == executorType) {
+            executor = new PipelineExecutor(this, transaction);
         } else if (ExecutorType.REUSE == executorType) {
             executor = new ReuseExecutor(this, transaction);
         } else {
@@ -736,6 +1014,43 @@ public class Configuration {
         return caches.get(id);
     }
 
+    /**
+     * Gets the statistics of the session local caches for the statements of a namespace, summed over all sessions.
+     * A clear of a local cache is recorded for every namespace that put entries into it; the size is not tracked.
+     *
+     * @param namespace the namespace of the statements
+     * @return the local cache statistics, with the id <code>LocalCache[namespace]</code>
+     * @since 3.5.6
+     */
+    public CacheStats getLocalCacheStats(String namespace) {
+        return localCacheStats.computeIfAbsent(namespace, ns -> new CacheStats("LocalCache[" + ns + "]", null));
+    }
+
+    /**
+     * Gets the statistics of the local caches of every namespace and of every second level cache, keyed by id.
+     *
+     * @return the cache statistics
+     * @since 3.5.6
+     */
+    public Map<String, CacheStats> getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        for (CacheStats cacheStats : localCacheStats.values()) {
+            stats.put(cacheStats.getId(), cacheStats);
+        }
+        for (Object value : caches.values()) {
+            // short names shared by several namespaces map to an Ambiguity
+            if (!(value instanceof Cache)) {
+                continue;
+            }
+            Cache cache = (Cache) value;
+            CacheStats cacheStats = cache.getStats();
+            if (cacheStats != null) {
+                stats.putIfAbsent(cache.getId(), cacheStats);
+            }
+        }
+        return stats;
+    }
+
     public boolean hasCache(String id) {
         return caches.containsKey(id);
     }
@@ -1118,6 +1433,20 @@ public class Configuration {
                 ", useActualParamName=" + useActualParamName +
                 ", returnInstanceForEmptyRow=" + returnInstanceForEmptyRow +
                 ", shrinkWhitespacesInSql=" + shrinkWhitespacesInSql +
+                ", compileRowMappers=" + compileRowMappers +
+                ", dynamicSqlCacheSize=" + dynamicSqlCacheSize +
+                ", expressionEngine=" + expressionEngine +
+                ", batchGrouping=" + batchGrouping +
+                ", batchFlushRows=" + batchFlushRows +
+                ", batchFlushBytes=" + batchFlushBytes +
+                ", streamNestedCursorResults=" + streamNestedCursorResults +
+                ", parallelResultMapping=" + parallelResultMapping +
+                ", statementLogSampleRate=" + statementLogSampleRate +
+                ", statementLogResultSets=" + statementLogResultSets +
+                ", statementMetrics=" + statementMetrics +
+                ", slowQueryThreshold=" + slowQueryThreshold +
+                ", slowQueryRedactParameters=" + slowQueryRedactParameters +
+                ", slowQueryLogSize=" + getSlowQueryLogSize() +
                 ", logPrefix='" + logPrefix + '\'' +
                 ", logImpl=" + logImpl +
                 ", vfsImpl=" + vfsImpl +
@@ -22,6 +22,8 @@ import java.io.Closeable;
 import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * The primary Java interface for working with MyBatis.
@@ -287,4 +289,19 @@ public interface SqlSession extends Closeable {
    * @return Connection
    */
   Connection getConnection();
+
+  /**
+   * Runs an action asynchronously in a session of its own, opened by the factory of this session with the same
+   * executor type and auto-commit mode. Mapper methods returning a {@link CompletableFuture} run through this method.
+   *
+   * @param <T> the result type
+   * @param action the action to run
+   * @return a future completed with the result of the action
+   * @throws UnsupportedOperationException if the session does not know the factory it was opened by
+   * @see SqlSessionFactory#executeAsync(ExecutorType, boolean, Function)
+   * @since 3.5.6
+   */
+  default <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> action) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support asynchronous execution.");
+  }
 }
@@ -16,6 +16,9 @@
 package org.apache.ibatis.session;
 
 import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * 建造者模式在mybatits的应用
@@ -51,4 +54,71 @@ public interface SqlSessionFactory {
 
     Configuration getConfiguration();
 
+    /**
+     * Runs an action on the async executor of the configuration with a session of its own.
+     * <p>
+     * The session is committed when the action completes normally and is closed in any case, so the action must not
+     * return cursors or lazy loaded objects that still need it. Calls made this way run on different connections and
+     * do not see uncommitted changes of each other or of the caller.
+     *
+     * @param <T> the result type
+     * @param action the action to run
+     * @return a future completed with the result of the action
+     * @see Configuration#getAsyncExecutor()
+     * @since 3.5.6
+     */
+    default <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> action) {
+        return executeAsync(getConfiguration().getDefaultExecutorType(), false, action);
+    }
+
+    /**
+     * Runs an action on the async executor of the configuration with a session of its own, opened with the given
+     * executor type and auto-commit mode.
+     *
+     * @param <T> the result type
+     * @param execType the executor type of the session
+     * @param autoCommit whether the session commits every statement
+     * @param action the action to run
+     * @return a future completed with the result of the action
+     * @see #executeAsync(Function)
+     * @since 3.5.6
+     */
+    default <T> CompletableFuture<T> executeAsync(ExecutorType execType, boolean autoCommit, Function<SqlSession, T> action) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (SqlSession session = openSession(execType, autoCommit)) {
+                T result = action.apply(session);
+                session.commit();
+                return result;
+            }
+        }, getConfiguration().getAsyncExecutor());
+    }
+
+    /**
+     * Retrieves a single row mapped from the statement key and parameter in a session of its own.
+     *
+     * @param <T> the returned object type
+     * @param statement Unique identifier matching the statement to use.
+     * @param parameter A parameter object to pass to the statement.
+     * @return a future completed with the mapped object
+     * @see #executeAsync(Function)
+     * @since 3.5.6
+     */
+    default <T> CompletableFuture<T> selectOneAsync(String statement, Object parameter) {
+        return executeAsync(session -> session.selectOne(statement, parameter));
+    }
+
+    /**
+     * Retrieves a list of mapped objects from the statement key and parameter in a session of its own.
+     *
+     * @param <E> the returned list element type
+     * @param statement Unique identifier matching the statement to use.
+     * @param parameter A parameter object to pass to the statement.
+     * @return a future completed with the list of mapped objects
+     * @see #executeAsync(Function)
+     * @since 3.5.6
+     */
+    default <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter) {
+        return executeAsync(session -> session.selectList(statement, parameter));
+    }
+
 }
@@ -24,6 +24,8 @@ import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
@@ -261,6 +263,14 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return getConfiguration().getMapper(type, this);
   }
 
+  /**
+   * Runs an action on a session of its own, opened by the wrapped factory with its default settings.
+   */
+  @Override
+  public <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> action) {
+    return sqlSessionFactory.executeAsync(action);
+  }
+
   @Override
   public Connection getConnection() {
     final SqlSession sqlSession = localSqlSession.get();
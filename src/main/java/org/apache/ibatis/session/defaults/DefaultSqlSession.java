@@ -19,25 +19,36 @@ import org.apache.ibatis.binding.BindingException;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.BatchExecutor;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * The default implementation for {@link SqlSession}.
@@ -53,12 +64,28 @@ public class DefaultSqlSession implements SqlSession {
     private final boolean autoCommit;
     private boolean dirty;
     private List<Cursor<?>> cursorList;
+    private final SqlSessionFactory sessionFactory;
+    private final ExecutorType executorType;
 
-    public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
+    /**
+     * @param sessionFactory
+     *          the factory that opened the session, which opens the sessions of {@link #executeAsync(Function)}
+     * @param executorType
+     *          the executor type the session was opened with
+     * @since 3.5.6
+     */
+    public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit,
+            SqlSessionFactory sessionFactory, ExecutorType executorType) {
         this.configuration = configuration;
         this.executor = executor;
         this.dirty = false;
         this.autoCommit = autoCommit;
+        this.sessionFactory = sessionFactory;
+        this.executorType = executorType;
+    }
+
+    public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
+        this(configuration, executor, autoCommit, null, null);
     }
 
     public DefaultSqlSession(Configuration configuration, Executor executor) {
@@ -177,8 +204,17 @@ public class DefaultSqlSession implements SqlSession {
         try {
             // 获取 MappedStatement
             MappedStatement ms = configuration.getMappedStatement(statement);
-            // 调用 Executor 实现类中的 query 方法
-            return executor.query(ms, wrapCollection(parameter), rowBounds, Executor.NO_RESULT_HANDLER);
+            Object param = wrapCollection(parameter);
+            List<MappedStatement> chunks = chunk(ms, param, rowBounds);
+            if (chunks.size() == 1) {
+                // 调用 Executor 实现类中的 query 方法
+                return executor.query(chunks.get(0), param, rowBounds, Executor.NO_RESULT_HANDLER);
+            }
+            List<E> results = new ArrayList<>();
+            for (MappedStatement chunk : chunks) {
+                results.addAll(executor.query(chunk, param, rowBounds, Executor.NO_RESULT_HANDLER));
+            }
+            return results;
         } catch (Exception e) {
             throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
         } finally {
@@ -200,7 +236,19 @@ public class DefaultSqlSession implements SqlSession {
     public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
         try {
             MappedStatement ms = configuration.getMappedStatement(statement);
-            executor.query(ms, wrapCollection(parameter), rowBounds, handler);
+            Object param = wrapCollection(parameter);
+            List<MappedStatement> chunks = chunk(ms, param, rowBounds);
+            if (chunks.size() == 1) {
+                executor.query(chunks.get(0), param, rowBounds, handler);
+                return;
+            }
+            ChunkedResultHandler chunkedHandler = new ChunkedResultHandler(handler);
+            for (MappedStatement chunk : chunks) {
+                executor.query(chunk, param, rowBounds, chunkedHandler);
+                if (chunkedHandler.stopped) {
+                    break;
+                }
+            }
         } catch (Exception e) {
             throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
         } finally {
@@ -208,6 +256,14 @@ public class DefaultSqlSession implements SqlSession {
         }
     }
 
+    @Override
+    public <T> CompletableFuture<T> executeAsync(Function<SqlSession, T> action) {
+        if (sessionFactory == null) {
+            return SqlSession.super.executeAsync(action);
+        }
+        return sessionFactory.executeAsync(executorType, autoCommit, action);
+    }
+
     @Override
     public int insert(String statement) {
         return insert(statement, null);
@@ -228,7 +284,30 @@ public class DefaultSqlSession implements SqlSession {
         try {
             dirty = true;
             MappedStatement ms = configuration.getMappedStatement(statement);
-            return executor.update(ms, wrapCollection(parameter));
+            Object param = wrapCollection(parameter);
+            List<MappedStatement> chunks = chunk(ms, param, RowBounds.DEFAULT);
+            if (chunks.size() == 1) {
+                return executor.update(chunks.get(0), param);
+            }
+            if (!(ms.getKeyGenerator() instanceof NoKeyGenerator)) {
+                throw new ExecutorException("Statement '" + ms.getId() + "' splits its foreach collection into "
+                        + chunks.size() + " chunks, which cannot be combined with key generation.");
+            }
+            if (autoCommit) {
+                // each chunk would be committed on its own
+                throw new ExecutorException("Statement '" + ms.getId() + "' splits its foreach collection into "
+                        + chunks.size() + " chunks, which must run in a transaction. Open the session without auto-commit.");
+            }
+            int count = 0;
+            for (MappedStatement chunk : chunks) {
+                int updated = executor.update(chunk, param);
+                if (updated == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+                    count = updated;
+                } else if (count != BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+                    count += updated;
+                }
+            }
+            return count;
         } catch (Exception e) {
             throw ExceptionFactory.wrapException("Error updating database.  Cause: " + e, e);
         } finally {
@@ -358,6 +437,44 @@ public class DefaultSqlSession implements SqlSession {
         return (!autoCommit && dirty) || force;
     }
 
+    /**
+     * Passes the results of the chunks on and remembers when the handler stops fetching, so that the remaining chunks are
+     * not run.
+     */
+    private static class ChunkedResultHandler implements ResultHandler<Object> {
+
+        private final ResultHandler<Object> delegate;
+        private boolean stopped;
+
+        @SuppressWarnings("unchecked")
+        ChunkedResultHandler(ResultHandler<?> delegate) {
+            this.delegate = (ResultHandler<Object>) delegate;
+        }
+
+        @Override
+        public void handleResult(ResultContext<?> context) {
+            delegate.handleResult(context);
+            stopped = context.isStopped();
+        }
+    }
+
+    /**
+     * Splits a statement whose chunked foreach collection is too long into one statement per chunk. Row bounds apply to
+     * a whole result, so statements fetching a range are not split.
+     */
+    private List<MappedStatement> chunk(MappedStatement ms, Object parameter, RowBounds rowBounds) {
+        if (!(ms.getSqlSource() instanceof DynamicSqlSource) || !((DynamicSqlSource) ms.getSqlSource()).isChunked()
+                || rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+            return Collections.singletonList(ms);
+        }
+        List<BoundSql> boundSqls = ((DynamicSqlSource) ms.getSqlSource()).getBoundSqlChunks(parameter);
+        List<MappedStatement> chunks = new ArrayList<>(boundSqls.size());
+        for (BoundSql boundSql : boundSqls) {
+            chunks.add(ms.withSqlSource(parameterObject -> boundSql));
+        }
+        return chunks;
+    }
+
     private Object wrapCollection(final Object object) {
         return ParamNameResolver.wrapToMapIfCollection(object, null);
     }
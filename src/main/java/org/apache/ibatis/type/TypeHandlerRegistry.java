@@ -42,6 +42,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.io.ResolverUtil;
@@ -61,6 +62,11 @@ public final class TypeHandlerRegistry {
 
   private static final Map<JdbcType, TypeHandler<?>> NULL_TYPE_HANDLER_MAP = Collections.emptyMap();
 
+  // fully resolved handlers by java type, indexed by JDBC type ordinal + 1 (0 for no JDBC type), cleared on register
+  private final Map<Type, AtomicReferenceArray<Object>> resolvedTypeHandlers = new ConcurrentHashMap<>();
+  private static final int JDBC_TYPE_SLOTS = JdbcType.values().length + 1;
+  private static final Object NO_TYPE_HANDLER = new Object();
+
   private Class<? extends TypeHandler> defaultEnumTypeHandler = EnumTypeHandler.class;
 
   /**
@@ -187,6 +193,7 @@ public final class TypeHandlerRegistry {
    */
   public void setDefaultEnumTypeHandler(Class<? extends TypeHandler> typeHandler) {
     this.defaultEnumTypeHandler = typeHandler;
+    resolvedTypeHandlers.clear();
   }
 
   public boolean hasTypeHandler(Class<?> javaType) {
@@ -234,6 +241,25 @@ public final class TypeHandlerRegistry {
     if (ParamMap.class.equals(type)) {
       return null;
     }
+    AtomicReferenceArray<Object> handlers = resolvedTypeHandlers.get(type);
+    if (handlers == null) {
+      handlers = new AtomicReferenceArray<>(JDBC_TYPE_SLOTS);
+      AtomicReferenceArray<Object> existing = resolvedTypeHandlers.putIfAbsent(type, handlers);
+      if (existing != null) {
+        handlers = existing;
+      }
+    }
+    final int slot = jdbcType == null ? 0 : jdbcType.ordinal() + 1;
+    Object handler = handlers.get(slot);
+    if (handler == null) {
+      handler = resolveTypeHandler(type, jdbcType);
+      handlers.set(slot, handler == null ? NO_TYPE_HANDLER : handler);
+    }
+    // type drives generics here
+    return handler == NO_TYPE_HANDLER ? null : (TypeHandler<T>) handler;
+  }
+
+  private TypeHandler<?> resolveTypeHandler(Type type, JdbcType jdbcType) {
     Map<JdbcType, TypeHandler<?>> jdbcHandlerMap = getJdbcHandlerMap(type);
     TypeHandler<?> handler = null;
     if (jdbcHandlerMap != null) {
@@ -246,8 +272,7 @@ public final class TypeHandlerRegistry {
         handler = pickSoleHandler(jdbcHandlerMap);
       }
     }
-    // type drives generics here
-    return (TypeHandler<T>) handler;
+    return handler;
   }
 
   private Map<JdbcType, TypeHandler<?>> getJdbcHandlerMap(Type type) {
@@ -396,6 +421,7 @@ public final class TypeHandlerRegistry {
       }
       map.put(jdbcType, handler);
       typeHandlerMap.put(javaType, map);
+      resolvedTypeHandlers.clear();
     }
     allTypeHandlersMap.put(handler.getClass(), handler);
   }
@@ -45,12 +45,15 @@ import org.apache.ibatis.domain.blog.mappers.NestedBlogMapper;
 import org.apache.ibatis.domain.jpetstore.Cart;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.metrics.DefaultStatementMetrics;
 import org.apache.ibatis.io.JBoss6VFS;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.ResultSetType;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.CompiledExpressionEngine;
+import org.apache.ibatis.scripting.xmltags.OgnlExpressionEngine;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
@@ -101,6 +104,20 @@ class XmlConfigBuilderTest {
       assertNull(config.getConfigurationFactory());
       assertThat(config.getTypeHandlerRegistry().getTypeHandler(RoundingMode.class)).isInstanceOf(EnumTypeHandler.class);
       assertThat(config.isShrinkWhitespacesInSql()).isFalse();
+      assertThat(config.isCompileRowMappers()).isFalse();
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(32);
+      assertThat(config.getExpressionEngine()).isInstanceOf(OgnlExpressionEngine.class);
+      assertThat(config.isBatchGrouping()).isFalse();
+      assertThat(config.getBatchFlushRows()).isNull();
+      assertThat(config.getBatchFlushBytes()).isNull();
+      assertThat(config.isStreamNestedCursorResults()).isFalse();
+      assertThat(config.isParallelResultMapping()).isFalse();
+      assertThat(config.getStatementLogSampleRate()).isEqualTo(1);
+      assertThat(config.isStatementLogResultSets()).isTrue();
+      assertThat(config.getStatementMetrics()).isNull();
+      assertThat(config.getSlowQueryThreshold()).isNull();
+      assertThat(config.isSlowQueryRedactParameters()).isFalse();
+      assertThat(config.getSlowQueryLogSize()).isEqualTo(100);
       assertThat(config.getDefaultSqlProviderType()).isNull();
     }
   }
@@ -197,6 +214,20 @@ class XmlConfigBuilderTest {
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
       assertThat(config.getConfigurationFactory().getName()).isEqualTo(String.class.getName());
       assertThat(config.isShrinkWhitespacesInSql()).isTrue();
+      assertThat(config.isCompileRowMappers()).isTrue();
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(8);
+      assertThat(config.getExpressionEngine()).isInstanceOf(CompiledExpressionEngine.class);
+      assertThat(config.isBatchGrouping()).isTrue();
+      assertThat(config.getBatchFlushRows()).isEqualTo(1000);
+      assertThat(config.getBatchFlushBytes()).isEqualTo(1048576);
+      assertThat(config.isStreamNestedCursorResults()).isTrue();
+      assertThat(config.isParallelResultMapping()).isTrue();
+      assertThat(config.getStatementLogSampleRate()).isEqualTo(100);
+      assertThat(config.isStatementLogResultSets()).isFalse();
+      assertThat(config.getStatementMetrics()).isInstanceOf(DefaultStatementMetrics.class);
+      assertThat(config.getSlowQueryThreshold()).isEqualTo(500);
+      assertThat(config.isSlowQueryRedactParameters()).isTrue();
+      assertThat(config.getSlowQueryLogSize()).isEqualTo(20);
       assertThat(config.getDefaultSqlProviderType().getName()).isEqualTo(MySqlProvider.class.getName());
 
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor")).isEqualTo(Author.class);
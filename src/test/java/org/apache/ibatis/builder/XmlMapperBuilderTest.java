@@ -55,6 +55,7 @@ class XmlMapperBuilderTest {
       MappedStatement mappedStatement = configuration.getMappedStatement("selectWithOptions");
       assertThat(mappedStatement.getFetchSize()).isEqualTo(200);
       assertThat(mappedStatement.getTimeout()).isEqualTo(10);
+      assertThat(mappedStatement.getSlowQueryThreshold()).isEqualTo(250);
       assertThat(mappedStatement.getStatementType()).isEqualTo(StatementType.PREPARED);
       assertThat(mappedStatement.getResultSetType()).isEqualTo(ResultSetType.SCROLL_SENSITIVE);
       assertThat(mappedStatement.isFlushCacheRequired()).isFalse();
@@ -22,6 +22,7 @@ import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,7 +30,9 @@ import java.util.Map;
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
+import org.apache.ibatis.scripting.xmltags.CompiledExpressionEngine;
 import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
 import org.apache.ibatis.scripting.xmltags.IfSqlNode;
@@ -41,6 +44,7 @@ import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.type.StringTypeHandler;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -399,6 +403,178 @@ class DynamicSqlSourceTest extends BaseDataTest {
     Assertions.assertEquals("id=", sql);
   }
 
+  @Test
+  void shouldReuseParameterMappingsOfTheSameRenderedSql() {
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(),
+        mixedContents(new TextSqlNode("select * from blog where id = #{id}")));
+    BoundSql first = source.getBoundSql(new Bean("1"));
+    BoundSql second = source.getBoundSql(new Bean("2"));
+    Assertions.assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals("2", ((Bean) second.getParameterObject()).getId());
+  }
+
+  @Test
+  void shouldNotReuseParameterMappingsWhenBoundParameterTypesChange() {
+    final Object[] value = new Object[1];
+    final SqlNode bindingNode = context -> {
+      context.bind("__frch_item_0", value[0]);
+      context.appendSql("select * from blog where id = #{__frch_item_0}");
+      return true;
+    };
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(bindingNode));
+    value[0] = 1;
+    BoundSql first = source.getBoundSql(null);
+    value[0] = "1";
+    BoundSql second = source.getBoundSql(null);
+    value[0] = "2";
+    BoundSql third = source.getBoundSql(null);
+    assertEquals(Integer.class, first.getParameterMappings().get(0).getJavaType());
+    assertEquals(String.class, second.getParameterMappings().get(0).getJavaType());
+    Assertions.assertSame(second.getParameterMappings(), third.getParameterMappings());
+    assertEquals("2", third.getAdditionalParameter("__frch_item_0"));
+  }
+
+  @Test
+  void shouldParseEveryCallWhenDynamicSqlCacheIsDisabled() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(0);
+    final DynamicSqlSource source = new DynamicSqlSource(configuration,
+        mixedContents(new TextSqlNode("select * from blog where id = #{id}")));
+    Assertions.assertNotSame(source.getBoundSql(new Bean("1")).getParameterMappings(),
+        source.getBoundSql(new Bean("1")).getParameterMappings());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedParsedSql() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(2);
+    final String[] table = new String[1];
+    final SqlNode sqlNode = context -> {
+      context.appendSql("select * from " + table[0] + " where id = #{id}");
+      return true;
+    };
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(sqlNode));
+    table[0] = "blog";
+    List<ParameterMapping> blog = source.getBoundSql(new Bean("1")).getParameterMappings();
+    table[0] = "post";
+    List<ParameterMapping> post = source.getBoundSql(new Bean("1")).getParameterMappings();
+    table[0] = "blog";
+    Assertions.assertSame(blog, source.getBoundSql(new Bean("1")).getParameterMappings());
+    table[0] = "author";
+    source.getBoundSql(new Bean("1"));
+    table[0] = "blog";
+    Assertions.assertSame(blog, source.getBoundSql(new Bean("1")).getParameterMappings());
+    table[0] = "post";
+    Assertions.assertNotSame(post, source.getBoundSql(new Bean("1")).getParameterMappings());
+  }
+
+  @Test
+  void shouldNotReuseParameterMappingsWhenNestedBoundParameterTypesChange() {
+    final Object[] value = new Object[1];
+    final SqlNode bindingNode = context -> {
+      context.bind("__frch_item_0", Collections.singletonList(value[0]));
+      context.appendSql("select * from blog where id = #{__frch_item_0[0].id}");
+      return true;
+    };
+    final DynamicSqlSource source = new DynamicSqlSource(new Configuration(), mixedContents(bindingNode));
+    value[0] = new Bean("1");
+    BoundSql bean = source.getBoundSql(null);
+    value[0] = Collections.singletonMap("id", 1);
+    BoundSql map = source.getBoundSql(null);
+    value[0] = Collections.singletonMap("id", "2");
+    BoundSql otherMap = source.getBoundSql(null);
+    value[0] = Collections.singletonMap("id", "3");
+    assertEquals(String.class, bean.getParameterMappings().get(0).getJavaType());
+    assertEquals(Integer.class, map.getParameterMappings().get(0).getJavaType());
+    assertEquals(String.class, otherMap.getParameterMappings().get(0).getJavaType());
+    Assertions.assertSame(otherMap.getParameterMappings(), source.getBoundSql(null).getParameterMappings());
+  }
+
+  @Test
+  void shouldRenderForEachItemsAndTrimOverridesConsistentlyAcrossCalls() {
+    final Configuration configuration = new Configuration();
+    configuration.setExpressionEngine(new CompiledExpressionEngine());
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("select * from blog"),
+        new WhereSqlNode(configuration, mixedContents(
+            new ForEachSqlNode(configuration, mixedContents(
+                new TextSqlNode(" and (id = #{ item.id } or ord = #{idx} or name = #{name})")),
+                "list", "idx", "item", null, null, null)))));
+    final Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList(new Bean("1"), new Bean("2")));
+    param.put("name", "x");
+    for (int i = 0; i < 2; i++) {
+      BoundSql boundSql = source.getBoundSql(param);
+      assertEquals("select * from blog WHERE (id = ? or ord = ? or name = ?) and (id = ? or ord = ? or name = ?)",
+          boundSql.getSql().replaceAll("\\s+", " "));
+      assertEquals("__frch_item_0.id", boundSql.getParameterMappings().get(0).getProperty());
+      assertEquals("__frch_idx_0", boundSql.getParameterMappings().get(1).getProperty());
+      assertEquals("name", boundSql.getParameterMappings().get(2).getProperty());
+      assertEquals("__frch_item_1.id", boundSql.getParameterMappings().get(3).getProperty());
+      assertEquals(1, boundSql.getAdditionalParameter("__frch_idx_1"));
+    }
+  }
+
+  @Test
+  void shouldBindForEachItemsPositionallyAndPadThemToBuckets() {
+    final Configuration configuration = new Configuration();
+    configuration.setExpressionEngine(new CompiledExpressionEngine());
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("select * from blog where id in"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{id}")),
+            "list", null, "id", "(", ")", ",", null, true)));
+    final Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList(1, 2, 3, 4, 5));
+    BoundSql fiveIds = source.getBoundSql(param);
+    param.put("list", Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+    BoundSql sevenIds = source.getBoundSql(param);
+    assertEquals("select * from blog where id in ( ? , ? , ? , ? , ? , ? , ? , ? )",
+        fiveIds.getSql().replaceAll("\\s+", " "));
+    assertEquals(fiveIds.getSql(), sevenIds.getSql());
+    assertEquals("__frch_id_0[7]", fiveIds.getParameterMappings().get(7).getProperty());
+    assertEquals(5, fiveIds.getAdditionalParameter("__frch_id_0[7]"));
+    assertEquals(7, sevenIds.getAdditionalParameter("__frch_id_0[7]"));
+  }
+
+  @Test
+  void shouldResolvePositionalForEachItemTypesFromTheirValues() {
+    final Configuration configuration = new Configuration();
+    configuration.setExpressionEngine(new CompiledExpressionEngine());
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("select * from blog where id in"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{id}")),
+            "list", null, "id", "(", ")", ",", null, true)));
+    final Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList(1, 2));
+    assertEquals(Integer.class, source.getBoundSql(param).getParameterMappings().get(1).getJavaType());
+    param.put("list", Arrays.asList("a", "b"));
+    BoundSql strings = source.getBoundSql(param);
+    assertEquals(String.class, strings.getParameterMappings().get(1).getJavaType());
+    assertEquals(StringTypeHandler.class, strings.getParameterMappings().get(1).getTypeHandler().getClass());
+  }
+
+  @Test
+  void shouldSplitChunkedForEachIntoStatements() {
+    final Configuration configuration = new Configuration();
+    configuration.setExpressionEngine(new CompiledExpressionEngine());
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("insert into blog (id, title) values"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("(#{index}, #{item.id})")),
+            "list", "index", "item", null, null, ",", 2, false)), true);
+    final Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList(new Bean("a"), new Bean("b"), new Bean("c")));
+    List<BoundSql> chunks = source.getBoundSqlChunks(param);
+    assertEquals(2, chunks.size());
+    assertEquals("insert into blog (id, title) values (?, ?) , (?, ?)",
+        chunks.get(0).getSql().replaceAll("\\s+", " "));
+    assertEquals("insert into blog (id, title) values (?, ?)", chunks.get(1).getSql().replaceAll("\\s+", " "));
+    assertEquals(2, chunks.get(1).getAdditionalParameter("__frch_index_0[0]"));
+    assertEquals("c", chunks.get(1).getAdditionalParameter("__frch_item_0[0].id"));
+    assertEquals(Integer.class, chunks.get(1).getParameterMappings().get(0).getJavaType());
+    assertEquals(String.class, chunks.get(1).getParameterMappings().get(1).getJavaType());
+    assertEquals(3, source.getBoundSql(param).getParameterMappings().size() / 2);
+  }
+
   public static class Bean {
     public String id;
     Bean(String property) {
@@ -42,6 +42,7 @@ class XmlMapperBuilderTest {
       MappedStatement mappedStatement = configuration.getMappedStatement("selectWithOptions");
       Assertions.assertEquals(Integer.valueOf(200), mappedStatement.getFetchSize());
       Assertions.assertEquals(Integer.valueOf(10), mappedStatement.getTimeout());
+      Assertions.assertEquals(Integer.valueOf(250), mappedStatement.getSlowQueryThreshold());
       Assertions.assertEquals(StatementType.PREPARED, mappedStatement.getStatementType());
       Assertions.assertEquals(ResultSetType.SCROLL_SENSITIVE, mappedStatement.getResultSetType());
       Assertions.assertFalse(mappedStatement.isFlushCacheRequired());
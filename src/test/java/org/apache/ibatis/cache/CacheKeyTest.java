@@ -103,6 +103,32 @@ class CacheKeyTest {
     Assertions.assertEquals(cacheKey, serialize(cacheKey));
   }
 
+  @Test
+  void shouldGrowBeyondExpectedUpdateCount() {
+    CacheKey presized = new CacheKey(2);
+    CacheKey grown = new CacheKey();
+    for (int i = 0; i < 20; i++) {
+      presized.update(i);
+      grown.update(i);
+    }
+    assertEquals(20, presized.getUpdateCount());
+    assertEquals(presized, grown);
+    assertEquals(presized.hashCode(), grown.hashCode());
+    assertEquals(presized.toString(), grown.toString());
+  }
+
+  @Test
+  void shouldNotShareUpdatesWithClone() throws Exception {
+    CacheKey key = new CacheKey(new Object[] { "a", 1 });
+    CacheKey clone = key.clone();
+    clone.update("b");
+    key.update("c");
+    assertEquals(3, clone.getUpdateCount());
+    assertNotEquals(key, clone);
+    CacheKey expected = new CacheKey(new Object[] { "a", 1, "b" });
+    assertEquals(expected, clone);
+  }
+
   private static <T> T serialize(T object) throws Exception {
       ByteArrayOutputStream baos = new ByteArrayOutputStream();
       new ObjectOutputStream(baos).writeObject(object);
@@ -0,0 +1,169 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BaseExecutor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class CacheStatsTest {
+
+  @Test
+  void shouldRecordHitsMissesPutsAndEvictions() {
+    LruCache lru = new LruCache(new PerpetualCache("default"));
+    lru.setSize(2);
+    Cache cache = new LoggingCache(lru);
+    cache.putObject(1, 1);
+    cache.putObject(2, 2);
+    cache.getObject(1);
+    cache.putObject(3, 3);
+    assertNull(cache.getObject(2));
+    assertEquals(1, cache.getObject(1));
+
+    CacheStats stats = cache.getStats();
+    assertSame(lru.getStats(), stats);
+    assertEquals(2, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(3, stats.getPutCount());
+    assertEquals(1, stats.getEvictionCount());
+    assertEquals(2, stats.getSize());
+    assertEquals(2.0 / 3, stats.getHitRatio(), 0.0001);
+  }
+
+  @Test
+  void shouldShareStatsAlongTheBuiltDecoratorChain() {
+    Cache cache = new CacheBuilder("default").addDecorator(TinyLfuCache.class).size(10).build();
+    for (int i = 0; i < 20; i++) {
+      cache.putObject(i, i);
+    }
+    cache.getObject(-1);
+    CacheStats stats = cache.getStats();
+    assertNotNull(stats);
+    assertEquals("default", stats.getId());
+    assertEquals(20, stats.getPutCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(10, stats.getEvictionCount());
+    assertEquals(10, stats.getSize());
+  }
+
+  @Test
+  void shouldCountClearsSeparatelyFromEvictions() {
+    Cache cache = new LoggingCache(new PerpetualCache("default"));
+    cache.putObject(1, 1);
+    cache.putObject(2, 2);
+    cache.getObject(1);
+    cache.clear();
+    assertNull(cache.getObject(1));
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getClearCount());
+    assertEquals(0, stats.getEvictionCount());
+    assertEquals(2, stats.getRequestCount());
+  }
+
+  @Test
+  void shouldRecordLocalCacheStatsPerNamespace() throws SQLException {
+    Configuration configuration = new Configuration();
+    MappedStatement blogs = select(configuration, "org.example.BlogMapper.selectBlogs");
+    MappedStatement authors = select(configuration, "org.example.AuthorMapper.selectAuthors");
+    Executor executor = new BaseExecutor(configuration, null) {
+      @Override
+      protected int doUpdate(MappedStatement ms, Object parameter) {
+        return 0;
+      }
+
+      @Override
+      protected List<BatchResult> doFlushStatements(boolean isRollback) {
+        return Collections.emptyList();
+      }
+
+      @Override
+      protected <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds,
+          ResultHandler resultHandler, BoundSql boundSql) {
+        return new ArrayList<>();
+      }
+
+      @Override
+      protected <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds,
+          BoundSql boundSql) {
+        return null;
+      }
+    };
+    executor.query(blogs, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    executor.query(blogs, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    executor.query(authors, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    executor.clearLocalCache();
+    executor.clearLocalCache();
+
+    CacheStats blogStats = configuration.getLocalCacheStats("org.example.BlogMapper");
+    assertSame(blogStats, blogs.getLocalCacheStats());
+    assertSame(blogStats, configuration.getCacheStats().get("LocalCache[org.example.BlogMapper]"));
+    assertEquals(1, blogStats.getHitCount());
+    assertEquals(1, blogStats.getMissCount());
+    assertEquals(1, blogStats.getPutCount());
+    assertEquals(1, blogStats.getClearCount());
+    assertEquals(0, blogStats.getEvictionCount());
+
+    CacheStats authorStats = authors.getLocalCacheStats();
+    assertEquals(0, authorStats.getHitCount());
+    assertEquals(1, authorStats.getMissCount());
+    assertEquals(1, authorStats.getClearCount());
+  }
+
+  @Test
+  void shouldReportNoStatsForUndecoratedCache() {
+    assertNull(new PerpetualCache("default").getStats());
+  }
+
+  @Test
+  void shouldAverageLoadPenalty() {
+    CacheStats stats = new CacheStats("default", null);
+    assertEquals(0.0, stats.getAverageLoadPenalty());
+    assertEquals(-1, stats.getSize());
+    stats.recordLoad(100);
+    stats.recordLoad(300);
+    assertEquals(2, stats.getLoadCount());
+    assertEquals(400, stats.getTotalLoadTime());
+    assertEquals(200.0, stats.getAverageLoadPenalty());
+  }
+
+  private static MappedStatement select(Configuration configuration, String id) {
+    StaticSqlSource sqlSource = new StaticSqlSource(configuration, "select * from blog");
+    return new MappedStatement.Builder(configuration, id, sqlSource, SqlCommandType.SELECT).build();
+  }
+
+}
@@ -0,0 +1,167 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+  @Test
+  void shouldEvictLeastRecentlyUsedItemAmongEquallyUsedOnes() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(5);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(0, cache.getObject(0));
+    cache.putObject(5, 5);
+    assertNull(cache.getObject(1));
+    assertEquals(5, cache.getSize());
+  }
+
+  @Test
+  void shouldKeepFrequentlyUsedItemsWhenScanned() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(100);
+    for (int i = 0; i < 500; i++) {
+      load(cache, i % 100);
+    }
+    for (int i = 1000; i < 3000; i++) {
+      load(cache, i % 100);
+      load(cache, i);
+    }
+    int retained = 0;
+    for (int i = 0; i < 100; i++) {
+      if (cache.getObject(i) != null) {
+        retained++;
+      }
+    }
+    assertTrue(retained > 90, "retained " + retained);
+    assertEquals(100, cache.getSize());
+  }
+
+  @Test
+  void shouldBoundTotalWeight() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setMaxWeight(10);
+    cache.putObject(0, Arrays.asList(1, 2, 3, 4, 5, 6));
+    cache.putObject(1, Arrays.asList(1, 2, 3));
+    assertEquals(9, cache.getWeightedSize());
+    cache.putObject(2, Arrays.asList(1, 2, 3));
+    assertTrue(cache.getWeightedSize() <= 10);
+    cache.putObject(1, null);
+    cache.clear();
+    assertEquals(0, cache.getSize());
+    assertEquals(0, cache.getWeightedSize());
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    Cache cache = new TinyLfuCache("default");
+    cache.putObject(0, 0);
+    assertNotNull(cache.getObject(0));
+    cache.removeObject(0);
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    Cache cache = new TinyLfuCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+  }
+
+  @Test
+  void shouldStayBoundedUnderConcurrentAccess() throws Exception {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(100);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int offset = t * 1000;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            Integer key = offset + i % 500;
+            if (cache.getObject(key) == null) {
+              cache.putObject(key, key);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      cache.putObject(-1, -1);
+      assertTrue(cache.getSize() <= 100);
+      assertEquals(cache.getSize(), cache.getWeightedSize());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldBeSelectableAsEvictionPolicyWithoutSynchronization() {
+    Cache cache = new CacheBuilder("default").addDecorator(TinyLfuCache.class).size(10).build();
+    assertTrue(cache instanceof LoggingCache);
+    Cache lruCache = new CacheBuilder("default").addDecorator(LruCache.class).build();
+    assertFalse(lruCache instanceof LoggingCache);
+  }
+
+  @Test
+  void shouldWeighRowsOfReadWriteCachesBeforeSerialization() {
+    Properties properties = new Properties();
+    properties.setProperty("maxWeight", "10");
+    // readOnly="false", the default of a mapper cache
+    Cache cache = new CacheBuilder("default").addDecorator(TinyLfuCache.class).readWrite(true)
+        .properties(properties).build();
+    cache.putObject(0, new ArrayList<>(Arrays.asList(1, 2, 3, 4, 5, 6)));
+    cache.putObject(1, new ArrayList<>(Arrays.asList(1, 2, 3)));
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), cache.getObject(0));
+    assertEquals(Arrays.asList(1, 2, 3), cache.getObject(1));
+    assertEquals(2, cache.getSize());
+
+    cache.putObject(2, new ArrayList<>(Arrays.asList(1, 2, 3)));
+    assertEquals(2, cache.getSize());
+  }
+
+  private void load(Cache cache, Integer key) {
+    if (cache.getObject(key) == null) {
+      cache.putObject(key, key);
+    }
+  }
+
+}
@@ -0,0 +1,198 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.util.Properties;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.junit.jupiter.api.Test;
+
+class PooledDataSourceHousekeepingTest extends BaseDataTest {
+
+  @Test
+  void shouldPrefillAndRetireIdleConnections() throws Exception {
+    PooledDataSource ds = createManualPool(null);
+    try {
+      ds.setPoolMaximumIdleConnections(2);
+      ds.setPoolMinimumIdleConnections(2);
+      ds.setPoolMaximumLifetime(200);
+      ds.housekeep();
+      assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+
+      Connection c = ds.getConnection();
+      Connection realConnection = PooledDataSource.unwrapConnection(c);
+      ds.getPoolState().activeConnections.get(0).setCreatedTimestamp(System.currentTimeMillis() - 1000);
+      c.close();
+      assertTrue(realConnection.isClosed());
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+
+      PooledConnection idle = ds.getPoolState().idleConnections.get(0);
+      idle.setCreatedTimestamp(System.currentTimeMillis() - 1000);
+      ds.housekeep();
+      assertTrue(idle.getRealConnection().isClosed());
+      assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+      assertEquals(0, ds.getPoolState().getHadToWaitCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotPingOnBorrowWhileHousekeeping() throws Exception {
+    PooledDataSource ds = createManualPool(null);
+    try {
+      ds.setPoolPingEnabled(true);
+      ds.setPoolPingQuery("SELECT * FROM NOT_EXISTING_TABLE");
+      ds.setPoolPingConnectionsNotUsedFor(0);
+      ds.getConnection().close();
+      ds.getConnection().close();
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+
+      markIdleConnectionsUnused(ds);
+      ds.housekeep();
+      assertEquals(1, ds.getPoolState().getBadConnectionCount());
+      assertEquals(0, ds.getPoolState().getIdleConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCountConnectionsBeingValidated() throws Exception {
+    PooledDataSource ds = createManualPool(ping -> {
+      PoolState state = ping.getPoolState();
+      assertEquals(0, state.getIdleConnectionCount());
+      assertEquals(1, state.validatingConnections.size());
+      ping.housekeep();
+      assertEquals(0, state.getIdleConnectionCount(), "must not open a connection over the maximum");
+    });
+    try {
+      ds.setPoolMaximumActiveConnections(1);
+      ds.setPoolMinimumIdleConnections(1);
+      ds.setPoolPingEnabled(true);
+      ds.setPoolPingQuery("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+      ds.setPoolPingConnectionsNotUsedFor(0);
+      ds.getConnection().close();
+      markIdleConnectionsUnused(ds);
+      ds.housekeep();
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+      assertEquals(0, ds.getPoolState().validatingConnections.size());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCloseConnectionsBeingValidated() throws Exception {
+    Connection[] pinged = new Connection[1];
+    PooledDataSource ds = createManualPool(ping -> {
+      pinged[0] = ping.getPoolState().validatingConnections.get(0).getRealConnection();
+      ping.forceCloseAll();
+    });
+    ds.setPoolPingEnabled(true);
+    ds.setPoolPingQuery("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+    ds.setPoolPingConnectionsNotUsedFor(0);
+    ds.getConnection().close();
+    markIdleConnectionsUnused(ds);
+    ds.housekeep();
+    assertTrue(pinged[0].isClosed());
+    assertEquals(0, ds.getPoolState().getIdleConnectionCount());
+    assertEquals(0, ds.getPoolState().validatingConnections.size());
+  }
+
+  @Test
+  void shouldNotRestartStoppedHousekeepingOnBorrow() throws Exception {
+    Properties props = Resources.getResourceAsProperties(JPETSTORE_PROPERTIES);
+    Thread testThread = Thread.currentThread();
+    int[] borrowerPings = new int[1];
+    PooledDataSource ds = new PooledDataSource(props.getProperty("driver"), props.getProperty("url"),
+        props.getProperty("username"), props.getProperty("password")) {
+      @Override
+      protected boolean pingConnection(PooledConnection conn, boolean runPingQuery) {
+        if (runPingQuery && Thread.currentThread() == testThread) {
+          borrowerPings[0]++;
+        }
+        return super.pingConnection(conn, runPingQuery);
+      }
+    };
+    try {
+      ds.setPoolPingEnabled(true);
+      ds.setPoolPingQuery("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+      ds.setPoolPingConnectionsNotUsedFor(0);
+      ds.setPoolHousekeepingInterval(60000);
+      ds.getConnection().close();
+      assertTrue(ds.isHousekeepingActive());
+
+      ds.stopHousekeeping();
+      markIdleConnectionsUnused(ds);
+      ds.getConnection().close();
+      assertFalse(ds.isHousekeepingActive());
+      assertEquals(1, borrowerPings[0], "the borrowing thread must ping again");
+
+      ds.startHousekeeping();
+      assertTrue(ds.isHousekeepingActive());
+    } finally {
+      ds.stopHousekeeping();
+      ds.forceCloseAll();
+    }
+  }
+
+  private static void markIdleConnectionsUnused(PooledDataSource ds) {
+    for (PooledConnection conn : ds.getPoolState().idleConnections) {
+      conn.setLastUsedTimestamp(System.currentTimeMillis() - 1000);
+    }
+  }
+
+  /**
+   * Creates a pool that behaves as if housekeeping was running, without scheduling it, so that the tests control when
+   * {@link PooledDataSource#housekeep()} runs. The callback, if any, is run once before the first housekeeping ping.
+   */
+  private static PooledDataSource createManualPool(PingCallback callback) throws Exception {
+    Properties props = Resources.getResourceAsProperties(JPETSTORE_PROPERTIES);
+    PooledDataSource ds = new PooledDataSource() {
+      private PingCallback pending = callback;
+
+      @Override
+      protected boolean isHousekeepingActive() {
+        return true;
+      }
+
+      @Override
+      protected boolean pingConnection(PooledConnection conn, boolean runPingQuery) {
+        if (runPingQuery && pending != null) {
+          PingCallback current = pending;
+          pending = null;
+          current.beforePing(this);
+        }
+        return super.pingConnection(conn, runPingQuery);
+      }
+    };
+    ds.setDriver(props.getProperty("driver"));
+    ds.setUrl(props.getProperty("url"));
+    ds.setUsername(props.getProperty("username"));
+    ds.setPassword(props.getProperty("password"));
+    return ds;
+  }
+
+  private interface PingCallback {
+    void beforePing(PooledDataSource ds);
+  }
+
+}
@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.BaseDataTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PreparedStatementCacheTest extends BaseDataTest {
+
+  private PooledDataSource ds;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    runScript(ds, JPETSTORE_DDL);
+    runScript(ds, JPETSTORE_DATA);
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolPreparedStatementCacheSize(2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ds.forceCloseAll();
+  }
+
+  @Test
+  void shouldReuseStatementsAcrossCheckouts() throws Exception {
+    PreparedStatement first = prepareAndClose("SELECT * FROM PRODUCT WHERE PRODUCTID = ?", "FI-SW-01");
+    PreparedStatement second = prepareAndClose("SELECT * FROM PRODUCT WHERE PRODUCTID = ?", "K9-BD-01");
+    assertSame(first, second);
+    assertFalse(first.isClosed());
+    assertEquals(1, ds.getPoolState().getStatementCacheHitCount());
+    assertEquals(1, ds.getPoolState().getStatementCacheMissCount());
+    assertEquals(0.5, ds.getPoolState().getStatementCacheHitRatio());
+  }
+
+  @Test
+  void shouldNotShareStatementsInUse() throws Exception {
+    try (Connection c = ds.getConnection()) {
+      PreparedStatement first = c.prepareStatement("SELECT * FROM PRODUCT");
+      PreparedStatement second = c.prepareStatement("SELECT * FROM PRODUCT");
+      PreparedStatement secondStatement = unwrap(second);
+      assertNotSame(unwrap(first), secondStatement);
+      first.close();
+      second.close();
+      assertTrue(first.isClosed());
+      assertThrows(SQLException.class, first::executeQuery);
+      assertTrue(secondStatement.isClosed());
+      assertEquals(1, ds.getPoolState().activeConnections.get(0).getStatementCache().getIdleStatementCount());
+    }
+  }
+
+  @Test
+  void shouldCloseLeastRecentlyUsedStatements() throws Exception {
+    PreparedStatement product = prepareAndClose("SELECT * FROM PRODUCT WHERE PRODUCTID = ?", "FI-SW-01");
+    prepareAndClose("SELECT * FROM ITEM WHERE ITEMID = ?", "EST-1");
+    prepareAndClose("SELECT * FROM CATEGORY WHERE CATID = ?", "FISH");
+    assertTrue(product.isClosed());
+  }
+
+  @Test
+  void shouldRestoreStatementSettings() throws Exception {
+    try (Connection c = ds.getConnection()) {
+      try (PreparedStatement statement = c.prepareStatement("SELECT * FROM PRODUCT")) {
+        statement.setMaxRows(1);
+      }
+      try (PreparedStatement statement = c.prepareStatement("SELECT * FROM PRODUCT")) {
+        assertEquals(0, statement.getMaxRows());
+      }
+    }
+  }
+
+  /**
+   * Runs a query and returns the driver statement it ran with.
+   */
+  private PreparedStatement prepareAndClose(String sql, String id) throws SQLException {
+    try (Connection c = ds.getConnection(); PreparedStatement statement = c.prepareStatement(sql)) {
+      statement.setString(1, id);
+      try (ResultSet rs = statement.executeQuery()) {
+        assertTrue(rs.next());
+      }
+      return unwrap(statement);
+    }
+  }
+
+  private PreparedStatement unwrap(PreparedStatement statement) throws SQLException {
+    return statement.unwrap(PreparedStatement.class);
+  }
+
+}
@@ -0,0 +1,155 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchExecutorGroupingTest {
+
+  private final List<String> executedBatches = new ArrayList<>();
+  private Configuration config;
+  private Executor executor;
+  private MappedStatement insertAuthor;
+  private MappedStatement insertPost;
+  private MappedStatement deleteAuthor;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    config = new Configuration();
+    Connection connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+    executor = new BatchExecutor(config, new JdbcTransaction(connection));
+    insertAuthor = statement("insertAuthor", "insert into author values (?)", SqlCommandType.INSERT);
+    insertPost = statement("insertPost", "insert into post values (?)", SqlCommandType.INSERT);
+    deleteAuthor = statement("deleteAuthor", "delete from author where id = ?", SqlCommandType.DELETE);
+  }
+
+  @Test
+  void shouldBatchEachRunOfTheSameStatementByDefault() throws Exception {
+    executor.update(insertAuthor, 1);
+    executor.update(insertPost, 1);
+    executor.update(insertAuthor, 2);
+    executor.update(insertPost, 2);
+    List<BatchResult> results = executor.flushStatements();
+
+    assertEquals(4, results.size());
+    assertEquals(Arrays.asList("insert into author values (?) x1", "insert into post values (?) x1",
+        "insert into author values (?) x1", "insert into post values (?) x1"), executedBatches);
+  }
+
+  @Test
+  void shouldGroupInterleavedStatementsOfTheSameCommandType() throws Exception {
+    config.setBatchGrouping(true);
+    executor.update(insertAuthor, 1);
+    executor.update(insertPost, 1);
+    executor.update(insertAuthor, 2);
+    executor.update(insertPost, 2);
+    executor.update(deleteAuthor, 1);
+    executor.update(insertAuthor, 3);
+    List<BatchResult> results = executor.flushStatements();
+
+    assertEquals(Arrays.asList("insert into author values (?) x2", "insert into post values (?) x2",
+        "delete from author where id = ? x1", "insert into author values (?) x1"), executedBatches);
+    assertEquals(4, results.size());
+    assertEquals(Arrays.asList(1, 2), results.get(0).getParameterObjects());
+    assertArrayEquals(new int[] { 1, 1 }, results.get(0).getUpdateCounts());
+    assertTrue(results.get(0).getExecutionTime() >= 0);
+  }
+
+  @Test
+  void shouldFlushWhenRowThresholdIsReached() throws Exception {
+    config.setBatchFlushRows(3);
+    for (int i = 0; i < 7; i++) {
+      executor.update(insertAuthor, i);
+    }
+    assertEquals(Arrays.asList("insert into author values (?) x3", "insert into author values (?) x3"), executedBatches);
+    List<BatchResult> results = executor.flushStatements();
+
+    assertEquals(3, results.size());
+    assertEquals(Arrays.asList(6), results.get(2).getParameterObjects());
+    assertEquals(Collections.emptyList(), executor.flushStatements());
+  }
+
+  @Test
+  void shouldFlushWhenByteThresholdIsReached() throws Exception {
+    config.setBatchFlushBytes(10);
+    MappedStatement updateName = statement("updateName", "update author set name = ?", SqlCommandType.UPDATE);
+    executor.update(updateName, "12345");
+    executor.update(updateName, "1234");
+    assertTrue(executedBatches.isEmpty());
+    executor.update(updateName, "1");
+    assertEquals(Collections.singletonList("update author set name = ? x3"), executedBatches);
+  }
+
+  @Test
+  void shouldDiscardPendingBatchesOnRollback() throws Exception {
+    config.setBatchFlushRows(2);
+    executor.update(insertAuthor, 1);
+    executor.update(insertAuthor, 2);
+    executor.update(insertAuthor, 3);
+    executor.rollback(false);
+    assertEquals(Collections.emptyList(), executor.flushStatements());
+    assertEquals(Collections.singletonList("insert into author values (?) x2"), executedBatches);
+  }
+
+  private MappedStatement statement(String id, String sql, SqlCommandType type) {
+    Class<?> javaType = type == SqlCommandType.UPDATE ? String.class : Integer.class;
+    ParameterMapping mapping = new ParameterMapping.Builder(config, "value", javaType).build();
+    return new MappedStatement.Builder(config, id,
+        new StaticSqlSource(config, sql, Collections.singletonList(mapping)), type).build();
+  }
+
+  private PreparedStatement statement(String sql) throws SQLException {
+    PreparedStatement statement = mock(PreparedStatement.class);
+    int[] rows = new int[1];
+    doAnswer(invocation -> {
+      rows[0]++;
+      return null;
+    }).when(statement).addBatch();
+    when(statement.executeBatch()).thenAnswer(invocation -> {
+      executedBatches.add(sql + " x" + rows[0]);
+      int[] counts = new int[rows[0]];
+      Arrays.fill(counts, 1);
+      rows[0] = 0;
+      return counts;
+    });
+    return statement;
+  }
+
+}
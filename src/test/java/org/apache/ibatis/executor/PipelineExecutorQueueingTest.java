@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PipelineExecutorQueueingTest {
+
+  private final List<String> executed = new ArrayList<>();
+  private Configuration config;
+  private Connection connection;
+  private DatabaseMetaData metaData;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    config = new Configuration();
+    connection = mock(Connection.class);
+    metaData = mock(DatabaseMetaData.class);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(connection.prepareStatement(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+  }
+
+  @Test
+  void shouldBatchInterleavedStatementsUntilCommit() throws Exception {
+    when(metaData.supportsBatchUpdates()).thenReturn(true);
+    Executor executor = config.newExecutor(new JdbcTransaction(connection), ExecutorType.PIPELINE);
+    MappedStatement insertOrder = statement("insertOrder", "insert into orders values (?)", SqlCommandType.INSERT);
+    MappedStatement insertLine = statement("insertLine", "insert into lines values (?)", SqlCommandType.INSERT);
+    MappedStatement updateStock = statement("updateStock", "update stock set qty = qty - 1 where id = ?",
+        SqlCommandType.UPDATE);
+    for (int i = 0; i < 3; i++) {
+      executor.update(insertOrder, i);
+      executor.update(insertLine, i);
+      executor.update(insertLine, i);
+    }
+    for (int i = 0; i < 3; i++) {
+      executor.update(updateStock, i);
+    }
+    executor.update(insertOrder, 3);
+    assertTrue(executed.isEmpty());
+    executor.commit(true);
+
+    assertEquals(Arrays.asList("insert into orders values (?) x3", "insert into lines values (?) x6",
+        "update stock set qty = qty - 1 where id = ? x3", "insert into orders values (?) x1"), executed);
+  }
+
+  @Test
+  void shouldExecuteImmediatelyWhenDriverDoesNotSupportBatchUpdates() throws Exception {
+    when(metaData.supportsBatchUpdates()).thenReturn(false);
+    Executor executor = config.newExecutor(new JdbcTransaction(connection), ExecutorType.PIPELINE);
+    MappedStatement insertOrder = statement("insertOrder", "insert into orders values (?)", SqlCommandType.INSERT);
+    assertEquals(1, executor.update(insertOrder, 1));
+    assertEquals(1, executor.update(insertOrder, 2));
+    assertEquals(Arrays.asList("insert into orders values (?)", "insert into orders values (?)"), executed);
+    assertEquals(Collections.emptyList(), executor.flushStatements());
+  }
+
+  @Test
+  void shouldCheckBatchSupportOnTheConnectionOfTheTransaction() throws Exception {
+    when(metaData.supportsBatchUpdates()).thenReturn(true);
+    int[] borrowed = new int[1];
+    Executor executor = new PipelineExecutor(config, new JdbcTransaction(connection)) {
+      @Override
+      protected Connection getConnection(Log statementLog) throws SQLException {
+        // each call may wrap the connection in a statement logger and take a log sample
+        borrowed[0]++;
+        return super.getConnection(statementLog);
+      }
+    };
+    MappedStatement insertOrder = statement("insertOrder", "insert into orders values (?)", SqlCommandType.INSERT);
+    executor.update(insertOrder, 1);
+    executor.update(insertOrder, 2);
+    assertEquals(1, borrowed[0]);
+  }
+
+  private MappedStatement statement(String id, String sql, SqlCommandType type) {
+    ParameterMapping mapping = new ParameterMapping.Builder(config, "value", Integer.class).build();
+    return new MappedStatement.Builder(config, id,
+        new StaticSqlSource(config, sql, Collections.singletonList(mapping)), type).build();
+  }
+
+  private PreparedStatement statement(String sql) throws SQLException {
+    PreparedStatement statement = mock(PreparedStatement.class);
+    int[] rows = new int[1];
+    doAnswer(invocation -> {
+      rows[0]++;
+      return null;
+    }).when(statement).addBatch();
+    when(statement.executeBatch()).thenAnswer(invocation -> {
+      executed.add(sql + " x" + rows[0]);
+      int[] counts = new int[rows[0]];
+      Arrays.fill(counts, 1);
+      rows[0] = 0;
+      return counts;
+    });
+    when(statement.execute()).thenAnswer(invocation -> {
+      executed.add(sql);
+      return false;
+    });
+    when(statement.getUpdateCount()).thenReturn(1);
+    return statement;
+  }
+
+}
@@ -0,0 +1,185 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.metrics.SlowQuery;
+import org.apache.ibatis.executor.metrics.StatementPhase;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryDetectionTest {
+
+  private Configuration config;
+  private Connection connection;
+  private Executor executor;
+
+  @BeforeEach
+  void setUp() {
+    config = new Configuration();
+    connection = mock(Connection.class);
+    executor = new SimpleExecutor(config, new JdbcTransaction(connection));
+  }
+
+  @Test
+  void shouldRecordExecutionsAboveTheThresholdOfTheStatement() throws Exception {
+    MappedStatement slowUpdate = statement("slowUpdate", "update author set slow = ?", 1);
+    MappedStatement fastUpdate = statement("fastUpdate", "update author set fast = ?", 1000);
+    prepare("update author set slow = ?", 5);
+    prepare("update author set fast = ?", 0);
+
+    assertEquals(3, executor.update(slowUpdate, 42));
+    assertEquals(3, executor.update(fastUpdate, 42));
+
+    List<SlowQuery> slowQueries = config.getSlowQueryLog().getSlowQueries();
+    assertEquals(1, slowQueries.size());
+    SlowQuery slowQuery = slowQueries.get(0);
+    assertEquals("slowUpdate", slowQuery.getStatementId());
+    assertEquals("update author set slow = ?", slowQuery.getSql());
+    assertEquals(Collections.singletonList("42"), slowQuery.getParameters());
+    assertEquals(3, slowQuery.getRows());
+    assertNull(slowQuery.getFetchSize());
+    assertTrue(slowQuery.getElapsedTime() >= 5_000_000L);
+    assertTrue(slowQuery.getPhaseTime(StatementPhase.EXECUTION) >= 5_000_000L);
+    assertTrue(slowQuery.getElapsedTime() >= slowQuery.getPhaseTime(StatementPhase.EXECUTION));
+  }
+
+  @Test
+  void shouldApplyTheThresholdOfTheConfigurationAndRedactParameters() throws Exception {
+    MappedStatement slowUpdate = statement("slowUpdate", "update author set slow = ?", null);
+    prepare("update author set slow = ?", 5);
+    executor.update(slowUpdate, 42);
+    assertEquals(0, config.getSlowQueryLog().getRecordCount());
+
+    config.setSlowQueryThreshold(1);
+    config.setSlowQueryRedactParameters(true);
+    config.setDefaultFetchSize(100);
+    executor.update(slowUpdate, 42);
+
+    List<SlowQuery> slowQueries = config.getSlowQueryLog().getSlowQueries("slowUpdate");
+    assertEquals(1, slowQueries.size());
+    assertNull(slowQueries.get(0).getParameters());
+    assertEquals(Integer.valueOf(100), slowQueries.get(0).getFetchSize());
+  }
+
+  @Test
+  void shouldRecordFailedExecutions() throws Exception {
+    MappedStatement slowUpdate = statement("slowUpdate", "update author set slow = ?", 1);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement("update author set slow = ?")).thenReturn(statement);
+    when(statement.execute()).thenAnswer(invocation -> {
+      Thread.sleep(5);
+      throw new SQLTimeoutException("timed out");
+    });
+
+    assertThrows(SQLTimeoutException.class, () -> executor.update(slowUpdate, 42));
+
+    List<SlowQuery> slowQueries = config.getSlowQueryLog().getSlowQueries();
+    assertEquals(1, slowQueries.size());
+    assertEquals(-1, slowQueries.get(0).getRows());
+    assertEquals(Collections.singletonList("42"), slowQueries.get(0).getParameters());
+    assertTrue(slowQueries.get(0).getElapsedTime() >= 5_000_000L);
+  }
+
+  @Test
+  void shouldKeepParametersAsTheyWereWhenRecorded() throws Exception {
+    MappedStatement slowUpdate = statement("slowUpdate", "update author set slow = ?", Object.class, 1);
+    prepare("update author set slow = ?", 5);
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("value", new int[] { 1, 2 });
+    executor.update(slowUpdate, parameter);
+    parameter.put("value", 3);
+
+    assertEquals(Collections.singletonList("[1, 2]"), config.getSlowQueryLog().getSlowQueries().get(0).getParameters());
+  }
+
+  @Test
+  void shouldRecordBatchesAboveTheThresholdWhenTheyAreExecuted() throws Exception {
+    executor = new BatchExecutor(config, new JdbcTransaction(connection));
+    MappedStatement slowUpdate = statement("slowUpdate", "update author set slow = ?", 1);
+    MappedStatement fastUpdate = statement("fastUpdate", "update author set fast = ?", 1000);
+    prepareBatch("update author set slow = ?", 5);
+    prepareBatch("update author set fast = ?", 0);
+
+    executor.update(slowUpdate, 1);
+    executor.update(slowUpdate, 2);
+    executor.update(fastUpdate, 3);
+    assertEquals(0, config.getSlowQueryLog().getRecordCount());
+    executor.flushStatements();
+
+    List<SlowQuery> slowQueries = config.getSlowQueryLog().getSlowQueries();
+    assertEquals(1, slowQueries.size());
+    SlowQuery slowQuery = slowQueries.get(0);
+    assertEquals("slowUpdate", slowQuery.getStatementId());
+    assertEquals("update author set slow = ?", slowQuery.getSql());
+    assertNull(slowQuery.getParameters());
+    assertEquals(2, slowQuery.getRows());
+    assertTrue(slowQuery.getElapsedTime() >= 5_000_000L);
+    assertEquals(slowQuery.getElapsedTime(), slowQuery.getPhaseTime(StatementPhase.EXECUTION));
+  }
+
+  private MappedStatement statement(String id, String sql, Integer slowQueryThreshold) {
+    return statement(id, sql, Integer.class, slowQueryThreshold);
+  }
+
+  private MappedStatement statement(String id, String sql, Class<?> parameterType, Integer slowQueryThreshold) {
+    ParameterMapping mapping = new ParameterMapping.Builder(config, "value", parameterType).build();
+    return new MappedStatement.Builder(config, id,
+        new StaticSqlSource(config, sql, Collections.singletonList(mapping)), SqlCommandType.UPDATE)
+            .slowQueryThreshold(slowQueryThreshold).build();
+  }
+
+  private void prepare(String sql, long executionMillis) throws SQLException {
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement(sql)).thenReturn(statement);
+    when(statement.execute()).thenAnswer(invocation -> {
+      Thread.sleep(executionMillis);
+      return false;
+    });
+    when(statement.getUpdateCount()).thenReturn(3);
+  }
+
+  private void prepareBatch(String sql, long executionMillis) throws SQLException {
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement(sql)).thenReturn(statement);
+    when(statement.executeBatch()).thenAnswer(invocation -> {
+      Thread.sleep(executionMillis);
+      return new int[] { 1, 1 };
+    });
+  }
+
+}
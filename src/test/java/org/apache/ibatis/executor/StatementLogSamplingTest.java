@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.jdbc.ConnectionLogger;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementLogSamplingTest {
+
+  private Configuration config;
+  private Connection connection;
+  private BaseExecutor executor;
+  private Log statementLog;
+
+  @BeforeEach
+  void setUp() {
+    config = new Configuration();
+    connection = mock(Connection.class);
+    executor = new SimpleExecutor(config, new JdbcTransaction(connection));
+    statementLog = mock(Log.class);
+    when(statementLog.isDebugEnabled()).thenReturn(true);
+  }
+
+  @Test
+  void shouldLogEveryStatementByDefault() throws SQLException {
+    for (int i = 0; i < 3; i++) {
+      assertTrue(isLogged(executor.getConnection(statementLog)));
+    }
+  }
+
+  @Test
+  void shouldLogOneStatementOutOfSampleRate() throws SQLException {
+    config.setStatementLogSampleRate(3);
+    int logged = 0;
+    for (int i = 0; i < 9; i++) {
+      if (isLogged(executor.getConnection(statementLog))) {
+        logged++;
+      }
+    }
+    assertEquals(3, logged);
+  }
+
+  @Test
+  void shouldNotSampleWhenStatementLogIsNotDebugEnabled() throws SQLException {
+    config.setStatementLogSampleRate(2);
+    boolean logged = isLogged(executor.getConnection(statementLog));
+    assertSame(connection, executor.getConnection(mock(Log.class)));
+    // the statement that was not logged did not take a sample, so logging still alternates
+    assertNotEquals(logged, isLogged(executor.getConnection(statementLog)));
+  }
+
+  private boolean isLogged(Connection obtained) {
+    return obtained != connection && Proxy.isProxyClass(obtained.getClass())
+        && Proxy.getInvocationHandler(obtained) instanceof ConnectionLogger;
+  }
+
+}
@@ -0,0 +1,170 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.metrics.DefaultStatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementPhase;
+import org.apache.ibatis.executor.metrics.StatementStats;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementMetricsTest {
+
+  private Configuration config;
+  private Connection connection;
+  private DefaultStatementMetrics metrics;
+  private Executor executor;
+
+  @BeforeEach
+  void setUp() {
+    config = new Configuration();
+    metrics = new DefaultStatementMetrics();
+    config.setStatementMetrics(metrics);
+    connection = mock(Connection.class);
+    executor = new SimpleExecutor(config, new JdbcTransaction(connection));
+  }
+
+  @Test
+  void shouldRecordLatencyRowsAndPhasesOfUpdates() throws Exception {
+    MappedStatement update = statement("updateAuthor", "update author set name = ?", SqlCommandType.UPDATE);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement("update author set name = ?")).thenReturn(statement);
+    when(statement.execute()).thenAnswer(invocation -> {
+      Thread.sleep(5);
+      return false;
+    });
+    when(statement.getUpdateCount()).thenReturn(3);
+
+    assertEquals(3, executor.update(update, 42));
+
+    StatementStats stats = metrics.getStats("updateAuthor");
+    assertEquals(1, stats.getLatency().getCount());
+    assertEquals(1, stats.getRows().getCount());
+    assertEquals(3, stats.getRows().getTotal());
+    long execution = stats.getPhaseTime(StatementPhase.EXECUTION);
+    assertTrue(execution >= 5_000_000L);
+    assertTrue(stats.getPhaseTime(StatementPhase.PARAMETERS) > 0);
+    assertEquals(0, stats.getPhaseTime(StatementPhase.RESULTS));
+    assertTrue(stats.getLatency().getTotal() >= execution);
+  }
+
+  @Test
+  void shouldRecordLatencyRowsAndPhasesOfQueriesThatReachTheDatabase() throws Exception {
+    MappedStatement select = statement("selectAuthorIds", "select id from author where id > ?",
+        SqlCommandType.SELECT);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet rs = mock(ResultSet.class);
+    ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+    when(connection.prepareStatement("select id from author where id > ?")).thenReturn(statement);
+    when(statement.execute()).thenAnswer(invocation -> {
+      Thread.sleep(5);
+      return true;
+    });
+    when(statement.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getName());
+    when(rs.next()).thenReturn(true, true, false);
+    when(rs.getInt(1)).thenReturn(1, 2);
+
+    assertEquals(Arrays.asList(1, 2), executor.query(select, 0, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER));
+    // served from the local cache, so it is not recorded again
+    assertEquals(Arrays.asList(1, 2), executor.query(select, 0, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER));
+
+    StatementStats stats = metrics.getStats("selectAuthorIds");
+    assertEquals(1, stats.getLatency().getCount());
+    assertEquals(1, stats.getRows().getCount());
+    assertEquals(2, stats.getRows().getTotal());
+    long execution = stats.getPhaseTime(StatementPhase.EXECUTION);
+    assertTrue(execution >= 5_000_000L);
+    assertTrue(stats.getPhaseTime(StatementPhase.PARAMETERS) > 0);
+    assertTrue(stats.getPhaseTime(StatementPhase.RESULTS) > 0);
+    assertTrue(stats.getLatency().getTotal() >= execution + stats.getPhaseTime(StatementPhase.RESULTS));
+  }
+
+  @Test
+  void shouldRecordLatencyAndRowsOfBatchesWhenTheyAreExecuted() throws Exception {
+    executor = new BatchExecutor(config, new JdbcTransaction(connection));
+    MappedStatement update = statement("updateAuthor", "update author set name = ?", SqlCommandType.UPDATE);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement("update author set name = ?")).thenReturn(statement);
+    when(statement.executeBatch()).thenAnswer(invocation -> {
+      Thread.sleep(5);
+      return new int[] { 2, 1, Statement.SUCCESS_NO_INFO };
+    });
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(BatchExecutor.BATCH_UPDATE_RETURN_VALUE, executor.update(update, i));
+    }
+    assertEquals(0, metrics.getStats("updateAuthor").getLatency().getCount());
+    executor.flushStatements();
+
+    StatementStats stats = metrics.getStats("updateAuthor");
+    assertEquals(1, stats.getLatency().getCount());
+    assertTrue(stats.getLatency().getTotal() >= 5_000_000L);
+    assertEquals(stats.getPhaseTime(StatementPhase.EXECUTION), stats.getLatency().getTotal());
+    assertEquals(1, stats.getRows().getCount());
+    assertEquals(3, stats.getRows().getTotal());
+  }
+
+  @Test
+  void shouldNotRecordWhenStatementMetricsAreNotSet() throws Exception {
+    config.setStatementMetrics(null);
+    MappedStatement update = statement("updateAuthor", "update author set name = ?", SqlCommandType.UPDATE);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement("update author set name = ?")).thenReturn(statement);
+    when(statement.getUpdateCount()).thenReturn(1);
+
+    assertEquals(1, executor.update(update, 42));
+    assertNull(metrics.getStats("updateAuthor"));
+  }
+
+  private MappedStatement statement(String id, String sql, SqlCommandType sqlCommandType) {
+    ParameterMapping mapping = new ParameterMapping.Builder(config, "value", Integer.class).build();
+    List<ResultMap> resultMaps = Collections.singletonList(
+        new ResultMap.Builder(config, id + "-Inline", Integer.class, Collections.emptyList()).build());
+    return new MappedStatement.Builder(config, id,
+        new StaticSqlSource(config, sql, Collections.singletonList(mapping)), sqlCommandType)
+            .resultMaps(resultMaps).build();
+  }
+
+}
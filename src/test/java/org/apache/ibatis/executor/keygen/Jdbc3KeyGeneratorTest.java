@@ -0,0 +1,157 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.keygen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.Test;
+
+class Jdbc3KeyGeneratorTest {
+
+  private final Configuration config = new Configuration();
+
+  @Test
+  void shouldAssignKeysToBeansOfABatch() throws Exception {
+    List<Object> params = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      params.add(new Item());
+    }
+    Map<String, Object> map = new HashMap<>();
+    params.add(map);
+    Jdbc3KeyGenerator.INSTANCE.processBatch(statement("id"), generatedKeys(10, 11, 12, 13), params);
+
+    assertEquals(Integer.valueOf(10), ((Item) params.get(0)).getId());
+    assertEquals(Integer.valueOf(11), ((Item) params.get(1)).getId());
+    assertEquals(Integer.valueOf(12), ((Item) params.get(2)).getId());
+    assertEquals(13, map.get("id"));
+  }
+
+  @Test
+  void shouldAssignKeysToParamMapsOfABatch() throws Exception {
+    List<ParamMap<Object>> params = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      ParamMap<Object> paramMap = new ParamMap<>();
+      paramMap.put("item", new Item());
+      paramMap.put("param1", paramMap.get("item"));
+      params.add(paramMap);
+    }
+    Jdbc3KeyGenerator.INSTANCE.processBatch(statement("item.id"), generatedKeys(5, 6), params);
+
+    assertEquals(Integer.valueOf(5), ((Item) params.get(0).get("item")).getId());
+    assertEquals(Integer.valueOf(6), ((Item) params.get(1).get("item")).getId());
+  }
+
+  @Test
+  void shouldRejectMoreKeysThanParameters() throws Exception {
+    List<Item> params = Arrays.asList(new Item(), new Item());
+    assertThrows(ExecutorException.class,
+        () -> Jdbc3KeyGenerator.INSTANCE.processBatch(statement("id"), generatedKeys(1, 2, 3), params));
+  }
+
+  @Test
+  void shouldAssignKeysWhenTheBatchIsFlushed() throws Exception {
+    Connection connection = mock(Connection.class);
+    PreparedStatement stmt = mock(PreparedStatement.class);
+    when(connection.prepareStatement("insert", Statement.RETURN_GENERATED_KEYS)).thenReturn(stmt);
+    when(stmt.executeBatch()).thenReturn(new int[] { 1, 1 });
+    ResultSet rs = generatedKeysResultSet(7, 8);
+    when(stmt.getGeneratedKeys()).thenReturn(rs);
+    Executor executor = new BatchExecutor(config, new JdbcTransaction(connection));
+    MappedStatement ms = statement("id");
+    Item first = new Item();
+    Item second = new Item();
+
+    executor.update(ms, first);
+    executor.update(ms, second);
+    assertNull(first.getId());
+    List<BatchResult> results = executor.flushStatements();
+
+    assertEquals(1, results.size());
+    assertEquals(Integer.valueOf(7), first.getId());
+    assertEquals(Integer.valueOf(8), second.getId());
+    verify(stmt, times(2)).addBatch();
+    verify(rs).close();
+  }
+
+  private MappedStatement statement(String keyProperty) {
+    return new MappedStatement.Builder(config, "insertItem", new StaticSqlSource(config, "insert"),
+        SqlCommandType.INSERT).keyGenerator(Jdbc3KeyGenerator.INSTANCE).keyProperty(keyProperty).build();
+  }
+
+  private Statement generatedKeys(int... keys) throws SQLException {
+    Statement stmt = mock(Statement.class);
+    ResultSet rs = generatedKeysResultSet(keys);
+    when(stmt.getGeneratedKeys()).thenReturn(rs);
+    return stmt;
+  }
+
+  private ResultSet generatedKeysResultSet(int... keys) throws SQLException {
+    ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    Boolean[] hasNext = new Boolean[keys.length];
+    Arrays.fill(hasNext, true);
+    hasNext[hasNext.length - 1] = false;
+    when(rs.next()).thenReturn(true, hasNext);
+    Integer[] values = Arrays.stream(keys).boxed().toArray(Integer[]::new);
+    when(rs.getInt(1)).thenReturn(values[0], Arrays.copyOfRange(values, 1, values.length));
+    return rs;
+  }
+
+  public static class Item {
+    private Integer id;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+  }
+
+}
@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class DefaultStatementMetricsTest {
+
+  @Test
+  void shouldCollectMetricsPerStatement() {
+    DefaultStatementMetrics metrics = new DefaultStatementMetrics();
+    metrics.recordLatency("selectAuthor", 2000);
+    metrics.recordLatency("selectAuthor", 4000);
+    metrics.recordPhase("selectAuthor", StatementPhase.EXECUTION, 1500);
+    metrics.recordPhase("selectAuthor", StatementPhase.EXECUTION, 2500);
+    metrics.recordPhase("selectAuthor", StatementPhase.RESULTS, 300);
+    metrics.recordRows("selectAuthor", 1);
+    metrics.recordRows("updateAuthor", 3);
+
+    StatementStats stats = metrics.getStats("selectAuthor");
+    assertEquals("selectAuthor", stats.getId());
+    assertEquals(2, stats.getLatency().getCount());
+    assertEquals(4000, stats.getLatency().getMax());
+    assertEquals(4000, stats.getPhaseTime(StatementPhase.EXECUTION));
+    assertEquals(300, stats.getPhaseTime(StatementPhase.RESULTS));
+    assertEquals(0, stats.getPhaseTime(StatementPhase.PARAMETERS));
+    assertEquals(1, stats.getRows().getTotal());
+    assertEquals(3, metrics.getStats("updateAuthor").getRows().getTotal());
+    assertEquals(2, metrics.getAllStats().size());
+
+    metrics.reset();
+    assertNull(metrics.getStats("selectAuthor"));
+  }
+
+}
@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+  @Test
+  void shouldMapEveryValueIntoABucketHoldingIt() {
+    long[] values = { 0, 1, 7, 8, 15, 16, 17, 100, 1000, 123456789, (1L << 41) - 1 };
+    for (long value : values) {
+      int index = Histogram.bucketIndex(value);
+      assertTrue(Histogram.highestValueOf(index) >= value, "bucket of " + value);
+      assertTrue(index == 0 || Histogram.highestValueOf(index - 1) < value, "bucket of " + value);
+    }
+  }
+
+  @Test
+  void shouldReportPercentilesWithinBucketPrecision() {
+    Histogram histogram = new Histogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1000000, histogram.getMax());
+    assertEquals(500500.0, histogram.getMean());
+    assertWithin(500000, histogram.getValueAtPercentile(50));
+    assertWithin(990000, histogram.getValueAtPercentile(99));
+    assertEquals(1000000, histogram.getValueAtPercentile(100));
+    assertWithin(1000, histogram.getValueAtPercentile(0));
+  }
+
+  @Test
+  void shouldClampOutOfRangeValues() {
+    Histogram histogram = new Histogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  void shouldReportZeroWhenEmpty() {
+    Histogram histogram = new Histogram();
+    assertEquals(0, histogram.getValueAtPercentile(99));
+    assertEquals(0.0, histogram.getMean());
+  }
+
+  private void assertWithin(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected * 1.125, expected + " ~ " + actual);
+  }
+
+}
@@ -0,0 +1,59 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLogTest {
+
+  @Test
+  void shouldKeepTheLatestSlowQueriesOldestFirst() {
+    SlowQueryLog log = new SlowQueryLog(3);
+    for (int i = 0; i < 5; i++) {
+      log.record(slowQuery(i % 2 == 0 ? "even" : "odd", "select " + i));
+    }
+
+    assertEquals(5, log.getRecordCount());
+    assertEquals("[select 2, select 3, select 4]", sqlOf(log.getSlowQueries()));
+    assertEquals("[select 2, select 4]", sqlOf(log.getSlowQueries("even")));
+
+    log.clear();
+    assertTrue(log.getSlowQueries().isEmpty());
+    log.record(slowQuery("odd", "select 5"));
+    assertEquals("[select 5]", sqlOf(log.getSlowQueries()));
+  }
+
+  @Test
+  void shouldRejectNonPositiveCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(0));
+  }
+
+  private SlowQuery slowQuery(String statementId, String sql) {
+    return new SlowQuery(statementId, sql, null, 0, null, 0, new long[StatementPhase.values().length]);
+  }
+
+  private String sqlOf(List<SlowQuery> slowQueries) {
+    return slowQueries.stream().map(SlowQuery::getSql).collect(Collectors.toList()).toString();
+  }
+
+}
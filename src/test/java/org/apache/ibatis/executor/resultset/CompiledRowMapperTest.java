@@ -0,0 +1,170 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CompiledRowMapperTest {
+
+  @Mock
+  private Statement stmt;
+  @Mock
+  private ResultSet rs;
+  @Mock
+  private ResultSetMetaData rsmd;
+  @Mock
+  private Connection conn;
+  @Mock
+  private DatabaseMetaData dbmd;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true, true, false);
+    when(rsmd.getColumnCount()).thenReturn(3);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnLabel(2)).thenReturn("NAME");
+    when(rsmd.getColumnLabel(3)).thenReturn("EMAIL");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnType(3)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getName());
+    when(rsmd.getColumnClassName(2)).thenReturn(String.class.getName());
+    when(rsmd.getColumnClassName(3)).thenReturn(String.class.getName());
+    when(rs.getInt(1)).thenReturn(1, 2);
+    when(rs.getString(2)).thenReturn("jane", "john");
+    when(rs.getString(3)).thenReturn("jane@example.com", null);
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+  }
+
+  @Test
+  void shouldMapBeansByColumnIndex() throws Exception {
+    Configuration config = new Configuration();
+    config.setCompileRowMappers(true);
+    ResultMap resultMap = new ResultMap.Builder(config, "authorMap", Author.class, new ArrayList<ResultMapping>() {
+      {
+        add(new ResultMapping.Builder(config, "id", "id", config.getTypeHandlerRegistry().getTypeHandler(Integer.class)).build());
+        add(new ResultMapping.Builder(config, "name", "name", config.getTypeHandlerRegistry().getTypeHandler(String.class)).build());
+      }
+    }).build();
+
+    List<Object> results = handleResultSets(config, resultMap);
+
+    assertEquals(2, results.size());
+    Author jane = (Author) results.get(0);
+    assertEquals(Integer.valueOf(1), jane.getId());
+    assertEquals("jane", jane.getName());
+    assertEquals("jane@example.com", jane.getEmail());
+    Author john = (Author) results.get(1);
+    assertEquals(Integer.valueOf(2), john.getId());
+    assertEquals("john", john.getName());
+    assertNull(john.getEmail());
+    verify(rs, times(2)).getString(3);
+    verify(rs, never()).getString(anyString());
+  }
+
+  @Test
+  void shouldMapMapsByColumnIndex() throws Exception {
+    Configuration config = new Configuration();
+    config.setCompileRowMappers(true);
+    config.setCallSettersOnNulls(true);
+    ResultMap resultMap = new ResultMap.Builder(config, "authorMap", Map.class, Collections.emptyList()).build();
+
+    List<Object> results = handleResultSets(config, resultMap);
+
+    assertEquals(2, results.size());
+    Map<?, ?> john = (Map<?, ?>) results.get(1);
+    assertEquals(2, john.get("ID"));
+    assertEquals("john", john.get("NAME"));
+    assertNull(john.get("EMAIL"));
+    assertEquals(3, john.size());
+    verify(rs, never()).getString(anyString());
+  }
+
+  private List<Object> handleResultSets(Configuration config, ResultMap resultMap) throws Exception {
+    MappedStatement ms = new MappedStatement.Builder(config, "selectAuthors", new StaticSqlSource(config, "select"),
+        SqlCommandType.SELECT).resultMaps(Collections.singletonList(resultMap)).build();
+    DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null,
+        new RowBounds(0, 100));
+    return resultSetHandler.handleResultSets(stmt);
+  }
+
+  public static class Author {
+    private Integer id;
+    private String name;
+    private String email;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public String getEmail() {
+      return email;
+    }
+
+    public void setEmail(String email) {
+      this.email = email;
+    }
+  }
+
+}
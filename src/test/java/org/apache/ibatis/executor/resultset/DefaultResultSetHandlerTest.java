@@ -87,7 +87,7 @@ class DefaultResultSetHandlerTest {
     when(rs.getMetaData()).thenReturn(rsmd);
     when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
     when(rs.next()).thenReturn(true).thenReturn(false);
-    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rs.getInt(1)).thenReturn(100);
     when(rsmd.getColumnCount()).thenReturn(1);
     when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
     when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
@@ -129,6 +129,22 @@ class DefaultResultSetHandlerTest {
     }
   }
 
+  @Test
+  void shouldResolveColumnIndexesIgnoringCase() throws Exception {
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(3);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnLabel(2)).thenReturn("author_NAME");
+    when(rsmd.getColumnLabel(3)).thenReturn("id");
+
+    final ResultSetWrapper rsw = new ResultSetWrapper(rs, new Configuration());
+    assertEquals(1, rsw.getColumnIndex("id"));
+    assertEquals(1, rsw.getColumnIndex("Id"));
+    assertEquals(2, rsw.getColumnIndex("AUTHOR_name"));
+    assertEquals(0, rsw.getColumnIndex("missing"));
+    assertEquals(0, rsw.getColumnIndex(null));
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
@@ -0,0 +1,132 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class ParallelResultMappingTest {
+
+  @Test
+  void shouldMapRowsInParallelInRowOrder() throws Exception {
+    List<Object> results = handleResultSets(1000, RowBounds.DEFAULT);
+
+    assertEquals(1000, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      Author author = (Author) results.get(i);
+      assertEquals(Integer.valueOf(i), author.getId());
+      assertEquals(i % 3 == 0 ? null : "author" + i, author.getName());
+    }
+  }
+
+  @Test
+  void shouldApplyRowBoundsLimit() throws Exception {
+    List<Object> results = handleResultSets(1000, new RowBounds(10, 600));
+
+    assertEquals(600, results.size());
+    assertEquals(Integer.valueOf(10), ((Author) results.get(0)).getId());
+    assertEquals(Integer.valueOf(609), ((Author) results.get(599)).getId());
+    assertNull(((Author) results.get(2)).getName());
+  }
+
+  private List<Object> handleResultSets(int rowCount, RowBounds rowBounds) throws Exception {
+    Configuration config = new Configuration();
+    config.setCompileRowMappers(true);
+    config.setParallelResultMapping(true);
+    ResultMap resultMap = new ResultMap.Builder(config, "authorMap", Author.class, Collections.emptyList()).build();
+    MappedStatement ms = new MappedStatement.Builder(config, "selectAuthors", new StaticSqlSource(config, "select"),
+        SqlCommandType.SELECT).resultMaps(Collections.singletonList(resultMap)).build();
+    DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, rowBounds);
+    return resultSetHandler.handleResultSets(statement(rowCount));
+  }
+
+  private Statement statement(int rowCount) throws SQLException {
+    ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnLabel(2)).thenReturn("NAME");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getName());
+    when(rsmd.getColumnClassName(2)).thenReturn(String.class.getName());
+    int[] row = { -1 };
+    boolean[] wasNull = new boolean[1];
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenAnswer(invocation -> ++row[0] < rowCount);
+    when(rs.getInt(anyInt())).thenAnswer(invocation -> {
+      wasNull[0] = false;
+      return row[0];
+    });
+    when(rs.getString(anyInt())).thenAnswer(invocation -> {
+      wasNull[0] = row[0] % 3 == 0;
+      return wasNull[0] ? null : "author" + row[0];
+    });
+    when(rs.wasNull()).thenAnswer(invocation -> wasNull[0]);
+    Connection conn = mock(Connection.class);
+    DatabaseMetaData dbmd = mock(DatabaseMetaData.class);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    Statement stmt = mock(Statement.class);
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(stmt.getConnection()).thenReturn(conn);
+    when(stmt.getUpdateCount()).thenReturn(-1);
+    return stmt;
+  }
+
+  public static class Author {
+    private Integer id;
+    private String name;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+}
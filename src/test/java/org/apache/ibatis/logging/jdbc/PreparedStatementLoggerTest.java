@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2020 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -66,6 +66,19 @@ class PreparedStatementLoggerTest {
     Assertions.assertNotSame(resultSet, rs);
   }
 
+  @Test
+  void shouldPrintParametersWithoutWrappingResultSet() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+    when(preparedStatement.executeQuery(anyString())).thenReturn(resultSet);
+    PreparedStatement ps = PreparedStatementLogger.newInstance(this.preparedStatement, log, 1, false);
+
+    ps.setInt(1, 10);
+    ResultSet rs = ps.executeQuery("select 1 limit ?");
+
+    verify(log).debug(contains("Parameters: 10(Integer)"));
+    Assertions.assertSame(resultSet, rs);
+  }
+
   @Test
   void shouldPrintNullParameters() throws SQLException {
     when(log.isDebugEnabled()).thenReturn(true);
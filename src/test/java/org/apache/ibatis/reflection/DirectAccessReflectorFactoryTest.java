@@ -0,0 +1,170 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.invoker.DirectGetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.DirectMethodInvoker;
+import org.apache.ibatis.reflection.invoker.DirectSetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.junit.jupiter.api.Test;
+
+class DirectAccessReflectorFactoryTest {
+
+  private final ReflectorFactory reflectorFactory = new DirectAccessReflectorFactory();
+
+  @Test
+  void shouldAccessPropertiesDirectly() {
+    Reflector reflector = reflectorFactory.findForClass(Account.class);
+    assertTrue(reflector.getGetInvoker("name") instanceof DirectMethodInvoker);
+    assertTrue(reflector.getSetInvoker("balance") instanceof DirectMethodInvoker);
+    assertTrue(reflector.getGetInvoker("secret") instanceof DirectGetFieldInvoker);
+    assertTrue(reflector.getSetInvoker("secret") instanceof DirectSetFieldInvoker);
+  }
+
+  @Test
+  void shouldFallBackToReflectionForFinalFields() {
+    Reflector reflector = reflectorFactory.findForClass(Account.class);
+    assertTrue(reflector.getGetInvoker("number") instanceof DirectGetFieldInvoker);
+    SetFieldInvoker invoker = (SetFieldInvoker) reflector.getSetInvoker("number");
+    assertFalse(invoker instanceof DirectSetFieldInvoker);
+  }
+
+  @Test
+  void shouldGetAndSetThroughMetaObject() {
+    Account account = new Account();
+    MetaObject metaObject = MetaObject.forObject(account, new DefaultObjectFactory(),
+        new DefaultObjectWrapperFactory(), reflectorFactory);
+    metaObject.setValue("name", "savings");
+    metaObject.setValue("balance", 42);
+    metaObject.setValue("active", true);
+    metaObject.setValue("secret", "s3cr3t");
+    metaObject.setValue("owner", "jane");
+
+    assertEquals("savings", account.getName());
+    assertEquals(42, account.getBalance());
+    assertTrue(account.isActive());
+    assertEquals("s3cr3t", account.secret);
+    assertEquals("jane", account.getOwner());
+    assertEquals("savings", metaObject.getValue("name"));
+    assertEquals(42, metaObject.getValue("balance"));
+    assertEquals(true, metaObject.getValue("active"));
+    assertEquals("s3cr3t", metaObject.getValue("secret"));
+    assertEquals("jane", metaObject.getValue("owner"));
+  }
+
+  @Test
+  void shouldPropagateExceptionsThrownByAccessors() {
+    MetaObject metaObject = MetaObject.forObject(new Account(), new DefaultObjectFactory(),
+        new DefaultObjectWrapperFactory(), reflectorFactory);
+    ReflectionException e = assertThrows(ReflectionException.class, () -> metaObject.setValue("balance", -1));
+    assertTrue(e.getCause() instanceof IllegalArgumentException);
+    assertEquals("negative balance", e.getCause().getMessage());
+  }
+
+  @Test
+  void shouldReportArgumentErrorsAsReflectionDoes() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Account.class);
+    Account account = new Account();
+    Invoker setBalance = reflector.getSetInvoker("balance");
+    assertThrows(IllegalArgumentException.class, () -> setBalance.invoke(account, new Object[] { "42" }));
+    assertThrows(IllegalArgumentException.class, () -> setBalance.invoke(account, new Object[] { null }));
+    assertThrows(IllegalArgumentException.class, () -> reflector.getGetInvoker("name").invoke(new Party(), null));
+
+    setBalance.invoke(account, new Object[] { (short) 42 });
+    assertEquals(42, account.getBalance());
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> setBalance.invoke(account, new Object[] { -1 }));
+    assertTrue(e.getCause() instanceof IllegalArgumentException);
+  }
+
+  @Test
+  void shouldReportFieldArgumentErrorsAsReflectionDoes() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Account.class);
+    Account account = new Account();
+    Invoker setVisits = reflector.getSetInvoker("visits");
+    Invoker setSecret = reflector.getSetInvoker("secret");
+    assertTrue(setVisits instanceof DirectSetFieldInvoker);
+    assertThrows(IllegalArgumentException.class, () -> setVisits.invoke(account, new Object[] { "42" }));
+    assertThrows(IllegalArgumentException.class, () -> setVisits.invoke(account, new Object[] { null }));
+    assertThrows(IllegalArgumentException.class, () -> setVisits.invoke(new Party(), new Object[] { 42 }));
+    assertThrows(IllegalArgumentException.class, () -> setSecret.invoke(account, new Object[] { 42 }));
+    assertThrows(IllegalArgumentException.class, () -> reflector.getGetInvoker("visits").invoke(new Party(), null));
+
+    setVisits.invoke(account, new Object[] { (short) 42 });
+    assertEquals(42, account.visits);
+    setSecret.invoke(account, new Object[] { "s3cr3t" });
+    setSecret.invoke(account, new Object[] { null });
+    assertNull(account.secret);
+    assertEquals(42, reflector.getGetInvoker("visits").invoke(account, null));
+  }
+
+  static class Party {
+    private String owner;
+
+    protected String getOwner() {
+      return owner;
+    }
+
+    protected void setOwner(String owner) {
+      this.owner = owner;
+    }
+  }
+
+  private static class Account extends Party {
+    private final long number = 1L;
+    private String secret;
+    private int visits;
+    private String name;
+    private int balance;
+    private boolean active;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getBalance() {
+      return balance;
+    }
+
+    public Account setBalance(int balance) {
+      if (balance < 0) {
+        throw new IllegalArgumentException("negative balance");
+      }
+      this.balance = balance;
+      return this;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+  }
+
+}
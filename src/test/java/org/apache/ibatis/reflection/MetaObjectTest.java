@@ -300,4 +300,20 @@ class MetaObjectTest {
     assertTrue(meta.hasGetter("filterParams[2]"));
   }
 
+  @Test
+  void shouldResolveTypesOfListElementsInMap() {
+    List<Object> authors = new ArrayList<>();
+    authors.add(new Author(1, "jane", null, null, null, null));
+    authors.add(2);
+    Map<String, Object> map = new HashMap<>();
+    map.put("authors", authors);
+
+    MetaObject meta = SystemMetaObject.forObject(map);
+
+    assertEquals(Author.class, meta.getGetterType("authors[0]"));
+    assertEquals(Integer.class, meta.getGetterType("authors[1]"));
+    assertTrue(meta.hasGetter("authors[0].username"));
+    assertEquals(String.class, meta.getGetterType("authors[0].username"));
+  }
+
 }
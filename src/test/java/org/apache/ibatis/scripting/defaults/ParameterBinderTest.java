@@ -0,0 +1,169 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.TextSqlNode;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class ParameterBinderTest {
+
+  private final Configuration config = new Configuration();
+
+  @Test
+  void shouldBindBeanPropertiesThroughCompiledBinder() throws Exception {
+    StaticSqlSource sqlSource = sqlSource("id", "name", "address.city");
+    Author author = new Author(1, "jane", "Paris");
+
+    PreparedStatement first = setParameters(sqlSource, author);
+    PreparedStatement second = setParameters(sqlSource, new Author(2, null, "Rome"));
+
+    verify(first).setInt(1, 1);
+    verify(first).setString(2, "jane");
+    verify(first).setString(3, "Paris");
+    verify(second).setInt(1, 2);
+    verify(second).setNull(2, Types.OTHER);
+    verify(second).setString(3, "Rome");
+    BoundSql boundSql = sqlSource.getBoundSql(author);
+    assertSame(boundSql.getParameterBinder(Author.class), sqlSource.getBoundSql(author).getParameterBinder(Author.class));
+  }
+
+  @Test
+  void shouldBindMapEntriesAndSimpleParameters() throws Exception {
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", 3);
+    map.put("name", "john");
+    PreparedStatement first = setParameters(sqlSource("id", "name"), map);
+    PreparedStatement second = setParameters(sqlSource("anything"), 4);
+
+    verify(first).setInt(1, 3);
+    verify(first).setString(2, "john");
+    verify(second).setInt(1, 4);
+  }
+
+  @Test
+  void shouldPreferAdditionalParameters() throws Exception {
+    StaticSqlSource sqlSource = sqlSource("id", "name");
+    BoundSql boundSql = sqlSource.getBoundSql(new Author(5, "jane", null));
+    boundSql.setAdditionalParameter("name", "bound");
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(statement(sqlSource), boundSql.getParameterObject(), boundSql).setParameters(ps);
+
+    verify(ps).setInt(1, 5);
+    verify(ps).setString(2, "bound");
+    verify(ps, never()).setString(2, "jane");
+  }
+
+  @Test
+  void shouldReportMissingGetter() {
+    assertThrows(ReflectionException.class, () -> setParameters(sqlSource("unknown"), new Author(6, null, null)));
+  }
+
+  @Test
+  void shouldNotCompileWithoutSharedParameterMappings() {
+    BoundSql boundSql = new BoundSql(config, "select", new ArrayList<>(), new Author(7, null, null));
+    assertNull(boundSql.getParameterBinder(Author.class));
+  }
+
+  @Test
+  void shouldNotCompileForSourcesUsedOnce() {
+    Author author = new Author(8, null, null);
+    assertNull(new StaticSqlSource(config, "select", new ArrayList<>()).getBoundSql(author).getParameterBinder(Author.class));
+    assertNull(sqlSource("id").getBoundSql(author).withoutParameterBinders().getParameterBinder(Author.class));
+    config.setDynamicSqlCacheSize(0);
+    DynamicSqlSource dynamicSqlSource = new DynamicSqlSource(config, new TextSqlNode("select #{id}"));
+    assertNull(dynamicSqlSource.getBoundSql(author).getParameterBinder(Author.class));
+    assertNotNull(new RawSqlSource(config, "select #{id}", Author.class).getBoundSql(author).getParameterBinder(Author.class));
+  }
+
+  private PreparedStatement setParameters(StaticSqlSource sqlSource, Object parameterObject) throws Exception {
+    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(statement(sqlSource), parameterObject, boundSql).setParameters(ps);
+    return ps;
+  }
+
+  private StaticSqlSource sqlSource(String... properties) {
+    List<ParameterMapping> mappings = new ArrayList<>();
+    for (String property : properties) {
+      mappings.add(new ParameterMapping.Builder(config, property, Object.class).build());
+    }
+    return new StaticSqlSource(config, "select", mappings, true);
+  }
+
+  private MappedStatement statement(StaticSqlSource sqlSource) {
+    return new MappedStatement.Builder(config, "select", sqlSource, SqlCommandType.SELECT).build();
+  }
+
+  public static class Author {
+    private final Integer id;
+    private final String name;
+    private final Address address;
+
+    Author(Integer id, String name, String city) {
+      this.id = id;
+      this.name = name;
+      this.address = new Address(city);
+    }
+
+    public Integer getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Address getAddress() {
+      return address;
+    }
+  }
+
+  public static class Address {
+    private final String city;
+
+    Address(String city) {
+      this.city = city;
+    }
+
+    public String getCity() {
+      return city;
+    }
+  }
+
+}
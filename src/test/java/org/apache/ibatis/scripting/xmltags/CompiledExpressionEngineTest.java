@@ -0,0 +1,165 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CompiledExpressionEngineTest {
+
+  private final CompiledExpressionEngine engine = new CompiledExpressionEngine((expression, root) -> {
+    throw new AssertionError("Unexpected fallback for " + expression);
+  });
+
+  @Test
+  void shouldCompileCommonTestExpressions() {
+    assertTrue(engine.isCompiled("username != null"));
+    assertTrue(engine.isCompiled("username != null and username != ''"));
+    assertTrue(engine.isCompiled("ids != null && ids.size() > 0"));
+    assertTrue(engine.isCompiled("!ids.isEmpty() || name.length() gte 3"));
+    assertTrue(engine.isCompiled("not (author.id == 1 or author.id eq 2) and active == true"));
+    assertTrue(engine.isCompiled("_parameter.username neq \"x\""));
+  }
+
+  @Test
+  void shouldNotCompileOtherExpressions() {
+    assertFalse(engine.isCompiled("username == 'c'"));
+    assertFalse(engine.isCompiled("username.trim() != ''"));
+    assertFalse(engine.isCompiled("ids[0] != null"));
+    assertFalse(engine.isCompiled("id + 1 > 2"));
+    assertFalse(engine.isCompiled("amount > 1.5"));
+    assertFalse(engine.isCompiled("status in {1, 2}"));
+    assertFalse(engine.isCompiled("@java.lang.Math@max(a, b)"));
+    assertFalse(engine.isCompiled("#this != null"));
+    assertFalse(engine.isCompiled("username != null and"));
+  }
+
+  @Test
+  void shouldEvaluatePropertyPathsOfBindings() {
+    Map<String, Object> bindings = bindings(new Author(1, "cbegin", null, "cbegin@apache.org", "N/A", Section.NEWS));
+    bindings.put("ids", Arrays.asList(1, 2, 3));
+    bindings.put("empty", Collections.emptyMap());
+
+    assertEquals(Boolean.TRUE, engine.getValue("username != null and username != ''", bindings));
+    assertEquals(Boolean.FALSE, engine.getValue("password != null", bindings));
+    assertEquals(Boolean.TRUE, engine.getValue("id == 1 && id < 2 && (id >= 2) == false", bindings));
+    assertEquals(Boolean.TRUE, engine.getValue("ids != null and ids.size() > 2", bindings));
+    assertEquals(Boolean.TRUE, engine.getValue("empty.isEmpty() and !ids.isEmpty()", bindings));
+    assertEquals(Boolean.TRUE, engine.getValue("_parameter.favouriteSection != null", bindings));
+    assertEquals(6, engine.getValue("username.length()", bindings));
+  }
+
+  @Test
+  void shouldReturnOperandsOfBooleanOperatorsLikeOgnl() {
+    Map<String, Object> bindings = bindings(null);
+    bindings.put("zero", 0);
+    bindings.put("name", "x");
+    assertEquals(0, engine.getValue("zero and name", bindings));
+    assertEquals("x", engine.getValue("zero or name", bindings));
+    assertEquals(Boolean.TRUE, engine.getValue("not zero", bindings));
+  }
+
+  @Test
+  void shouldReadEntriesOfMapParameters() {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("name", "x");
+    parameter.put("author", new Author(2));
+    Map<String, Object> bindings = bindings(parameter);
+    assertEquals(Boolean.TRUE, engine.getValue("name == 'xy' or name == \"x\"", bindings));
+    assertEquals(2, engine.getValue("author.id", bindings));
+    assertNull(engine.getValue("missing", bindings));
+  }
+
+  @Test
+  void shouldFallBackForValuesThatOgnlConverts() {
+    CompiledExpressionEngine engine = new CompiledExpressionEngine((expression, root) -> "fallback");
+    Map<String, Object> bindings = bindings(new Author(1));
+    bindings.put("name", "x");
+    assertEquals("fallback", engine.getValue("id == '1'", bindings));
+    assertEquals("fallback", engine.getValue("name and id", bindings));
+    assertEquals("fallback", engine.getValue("favouriteSection.size() > 0", bindings));
+    assertEquals(Boolean.TRUE, engine.getValue("id == 1", bindings));
+  }
+
+  @Test
+  void shouldNotEvaluateFailingGettersAgain() {
+    FailingBean bean = new FailingBean();
+    Map<String, Object> bindings = bindings(null);
+    bindings.put("bean", bean);
+    BuilderException e = assertThrows(BuilderException.class, () -> engine.getValue("bean.value != null", bindings));
+    assertTrue(e.getMessage().contains("bean.value != null"));
+    assertEquals(1, bean.calls);
+    assertThrows(BuilderException.class, () -> engine.getValue("unknown.id != null", bindings(new Author(1))));
+  }
+
+  @Test
+  void shouldReadPropertiesWithReflectorFactoryOfConfiguration() {
+    AtomicInteger lookups = new AtomicInteger();
+    Configuration configuration = new Configuration();
+    configuration.setReflectorFactory(new DefaultReflectorFactory() {
+      @Override
+      public Reflector findForClass(Class<?> type) {
+        lookups.incrementAndGet();
+        return super.findForClass(type);
+      }
+    });
+    Map<String, Object> bindings = new DynamicContext(configuration, new Author(1)).getBindings();
+    lookups.set(0);
+    assertEquals(Boolean.TRUE, engine.getValue("_parameter.id == 1", bindings));
+    assertEquals(1, lookups.get());
+  }
+
+  @Test
+  void shouldEvaluateIfAndForEachExpressions() {
+    ExpressionEvaluator evaluator = new ExpressionEvaluator(engine);
+    Map<String, Object> bindings = bindings(new Author(3));
+    bindings.put("array", new String[] { "1", "2" });
+    assertTrue(evaluator.evaluateBoolean("id", bindings));
+    assertFalse(evaluator.evaluateBoolean("username", bindings));
+    Iterator<?> iterator = evaluator.evaluateIterable("array", bindings).iterator();
+    assertEquals("1", iterator.next());
+    assertEquals("2", iterator.next());
+    assertFalse(iterator.hasNext());
+  }
+
+  private Map<String, Object> bindings(Object parameterObject) {
+    return new DynamicContext(new Configuration(), parameterObject).getBindings();
+  }
+
+  public static class FailingBean {
+    private int calls;
+
+    public String getValue() {
+      calls++;
+      throw new IllegalStateException("value is not available");
+    }
+  }
+
+}
@@ -0,0 +1,53 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+class AsyncExecutorsTest {
+
+  @Test
+  void shouldSizeDefaultExecutorToConnectionPool() {
+    PooledDataSource dataSource = new PooledDataSource();
+    dataSource.setPoolMaximumActiveConnections(3);
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+    assertEquals(3, AsyncExecutors.getPoolSize(configuration));
+    Executor executor = configuration.getAsyncExecutor();
+    assertSame(executor, configuration.getAsyncExecutor());
+    if (executor instanceof ThreadPoolExecutor) {
+      // JVMs without virtual threads
+      assertEquals(3, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+    }
+  }
+
+  @Test
+  void shouldSizeDefaultExecutorToProcessorsWithoutConnectionPool() {
+    Configuration configuration = new Configuration(
+        new Environment("test", new JdbcTransactionFactory(), new UnpooledDataSource()));
+    assertEquals(Runtime.getRuntime().availableProcessors(), AsyncExecutors.getPoolSize(configuration));
+    assertEquals(Runtime.getRuntime().availableProcessors(), AsyncExecutors.getPoolSize(new Configuration()));
+  }
+
+}
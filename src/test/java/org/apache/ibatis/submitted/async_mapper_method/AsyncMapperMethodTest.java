@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_mapper_method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for support the {@code java.util.concurrent.CompletableFuture} as return type of mapper method.
+ *
+ * @since 3.5.6
+ */
+class AsyncMapperMethodTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // create an SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/async_mapper_method/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/async_mapper_method/CreateDB.sql");
+  }
+
+  @Test
+  void shouldSelectInFutures() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<User> user = mapper.getUser(1);
+      CompletableFuture<Optional<User>> missingUser = mapper.getOptionalUser(3);
+      CompletableFuture<List<User>> users = mapper.getUsers();
+      CompletableFuture<User[]> userArray = mapper.getUserArray();
+      CompletableFuture<Map<Integer, User>> userMap = mapper.getUserMap();
+
+      assertEquals("User1", user.join().getName());
+      assertFalse(missingUser.join().isPresent());
+      assertEquals(2, users.join().size());
+      assertEquals("User2", userArray.join()[1].getName());
+      assertEquals("User2", userMap.join().get(2).getName());
+    }
+  }
+
+  @Test
+  void shouldCommitWritesOfFutures() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(3);
+      user.setName("User3");
+      assertEquals(Integer.valueOf(1), mapper.insertUser(user).join());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Integer.valueOf(3), sqlSession.getMapper(Mapper.class).countUsers().join());
+    }
+  }
+
+  @Test
+  void shouldOpenSessionsLikeTheCallingSession() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(3);
+      user.setName("User3");
+      assertEquals(Integer.valueOf(BatchExecutor.BATCH_UPDATE_RETURN_VALUE), mapper.insertUser(user).join());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Integer.valueOf(3), sqlSession.getMapper(Mapper.class).countUsers().join());
+    }
+  }
+
+  @Test
+  void shouldRunOnConfiguredExecutor() {
+    AtomicInteger tasks = new AtomicInteger();
+    Executor executor = command -> {
+      tasks.incrementAndGet();
+      command.run();
+    };
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(executor);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Integer.valueOf(2), sqlSession.getMapper(Mapper.class).countUsers().join());
+    }
+    List<User> users = sqlSessionFactory.<User>selectListAsync(
+        "org.apache.ibatis.submitted.async_mapper_method.Mapper.getUsers", null).join();
+    assertEquals(2, users.size());
+    assertEquals(2, tasks.get());
+  }
+
+  @Test
+  void shouldRejectCursorInFuture() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      BindingException e = assertThrows(BindingException.class, mapper::getUserCursor);
+      assertTrue(e.getMessage().contains("cannot return a Cursor in a CompletableFuture"));
+    }
+  }
+
+}
@@ -88,6 +88,35 @@ class CursorNestedTest {
     Assertions.assertFalse(usersCursor.isOpen());
   }
 
+  @Test
+  void shouldStreamNestedResultsWithoutResultOrdered() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try (Cursor<User> usersCursor = mapper.getAllUsersStreamed()) {
+        Iterator<User> iterator = usersCursor.iterator();
+
+        User user = iterator.next();
+        Assertions.assertEquals("User1", user.getName());
+        Assertions.assertEquals(2, user.getGroups().size());
+        Assertions.assertEquals(3, user.getRoles().size());
+
+        user = iterator.next();
+        Assertions.assertEquals("User2", user.getName());
+        Assertions.assertEquals(1, user.getGroups().size());
+        Assertions.assertEquals(3, user.getRoles().size());
+
+        iterator.next();
+        user = iterator.next();
+        Assertions.assertEquals("User4", user.getName());
+        Assertions.assertEquals(2, user.getGroups().size());
+        Assertions.assertEquals(2, user.getRoles().size());
+
+        Assertions.assertFalse(iterator.hasNext());
+        Assertions.assertTrue(usersCursor.isConsumed());
+      }
+    }
+  }
+
   @Test
   void testCursorWithRowBound() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -0,0 +1,136 @@
+/**
+ *    Copyright 2009-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.foreach_chunks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ForEachChunksTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/foreach_chunks/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+  }
+
+  @BeforeEach
+  void populateDatabase() throws Exception {
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/foreach_chunks/CreateDB.sql");
+  }
+
+  @Test
+  void shouldSelectAcrossChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers(Arrays.asList(1, 2, 3, 4, 5, 6));
+      assertEquals(5, users.size());
+      for (int i = 0; i < users.size(); i++) {
+        assertEquals(Integer.valueOf(i + 1), users.get(i).getId());
+      }
+    }
+  }
+
+  @Test
+  void shouldStopChunksWhenResultHandlerStops() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Map<String, Object> param = new HashMap<>();
+      param.put("ids", Arrays.asList(1, 2, 3, 4, 5, 6));
+      List<User> users = new ArrayList<>();
+      sqlSession.select("org.apache.ibatis.submitted.foreach_chunks.Mapper.getUsers", param, context -> {
+        users.add((User) context.getResultObject());
+        context.stop();
+      });
+      assertEquals(1, users.size());
+    }
+  }
+
+  @Test
+  void shouldSelectPaddedCollection() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers(Arrays.asList(2, 3, 5));
+      assertEquals(3, users.size());
+      assertEquals("User5", users.get(2).getName());
+    }
+  }
+
+  @Test
+  void shouldInsertAcrossChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = new ArrayList<>();
+      for (int i = 6; i <= 12; i++) {
+        users.add(new User(i, "User" + i));
+      }
+      assertEquals(7, mapper.insertUsers(users));
+      assertEquals(12, mapper.countUsers());
+      assertEquals("User12", mapper.getUsers(Arrays.asList(12)).get(0).getName());
+    }
+  }
+
+  @Test
+  void shouldRejectKeyGenerationAcrossChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = new ArrayList<>();
+      for (int i = 6; i <= 9; i++) {
+        users.add(new User(i, "User" + i));
+      }
+      PersistenceException e = assertThrows(PersistenceException.class, () -> mapper.insertUsersWithGeneratedKeys(users));
+      assertTrue(e.getCause() instanceof ExecutorException);
+      assertEquals(5, mapper.countUsers());
+    }
+  }
+
+  @Test
+  void shouldRejectChunkedUpdateInAutoCommitSession() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = new ArrayList<>();
+      for (int i = 6; i <= 9; i++) {
+        users.add(new User(i, "User" + i));
+      }
+      PersistenceException e = assertThrows(PersistenceException.class, () -> mapper.insertUsers(users));
+      assertTrue(e.getCause() instanceof ExecutorException);
+      assertEquals(5, mapper.countUsers());
+      users.remove(3);
+      assertEquals(3, mapper.insertUsers(users));
+    }
+  }
+
+}
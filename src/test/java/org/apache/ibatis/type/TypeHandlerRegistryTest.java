@@ -221,6 +221,19 @@ class TypeHandlerRegistryTest {
     assertTrue(typeHandlerRegistry.hasTypeHandler(Address.class));
   }
 
+  @Test
+  void shouldResolveAgainAfterRegistration() {
+    class MyDate extends Date {
+      private static final long serialVersionUID = 1L;
+    }
+    TypeHandler<MyDate> dateTypeHandler = typeHandlerRegistry.getTypeHandler(MyDate.class, JdbcType.TIMESTAMP);
+    assertSame(dateTypeHandler, typeHandlerRegistry.getTypeHandler(MyDate.class, JdbcType.TIMESTAMP));
+    assertSame(DateOnlyTypeHandler.class, typeHandlerRegistry.getTypeHandler(Date.class, JdbcType.DATE).getClass());
+
+    typeHandlerRegistry.register(MyDate.class, JdbcType.TIMESTAMP, SqlTimestampTypeHandler.class);
+    assertSame(SqlTimestampTypeHandler.class, typeHandlerRegistry.getTypeHandler(MyDate.class, JdbcType.TIMESTAMP).getClass());
+  }
+
   enum TestEnum {
     ONE,
     TWO